@@ -1,37 +1,131 @@
 package io.yang;
 
 import io.yang.booking.BookingSession;
-import io.yang.booking.option.BookOption;
-import io.yang.booking.option.CheckOption;
-import io.yang.booking.option.ExitOption;
-import io.yang.booking.option.Option;
 import io.yang.cinema.Cinema;
+import io.yang.cinema.ScreeningRegistry;
+import io.yang.console.ConsoleIO;
 import io.yang.init.CinemaConfiguration;
 import io.yang.init.Initializer;
+import io.yang.replay.Replay;
+import io.yang.server.BookingHttpServer;
+import io.yang.server.BookingServer;
 
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public class Main {
 
-  private static final Scanner scanner = new Scanner(System.in);
+  private static final String DEFAULT_SCREENING_ID = "1";
 
-  private static void init() {
-    CinemaConfiguration config = Initializer.init(scanner);
-    Cinema cinema = new Cinema(config);
+  private static final String REPLAY_OPTION = "--replay";
 
-    Option[] options =
-        new Option[] {
-          new BookOption(cinema, scanner), new CheckOption(cinema, scanner), new ExitOption()
-        };
-    new BookingSession(options, scanner).run();
+  private static final String SERVE_OPTION = "--serve";
+
+  private static final String HTTP_OPTION = "--http";
+
+  private static final ScreeningRegistry registry = new ScreeningRegistry();
+
+  private static void init(ConsoleIO console) {
+    CinemaConfiguration config = Initializer.init(console);
+    registry.register(DEFAULT_SCREENING_ID, config);
+
+    BookingSession.forScreening(registry, DEFAULT_SCREENING_ID, console).run();
+  }
+
+  /**
+   * Replays a script of console input without rendering to the terminal, then prints a throughput
+   * and latency summary. The session's output is discarded unless an output file is given.
+   */
+  private static void replay(String[] args) throws IOException {
+    if (args.length < 2 || args.length > 3) {
+      System.err.println("Usage: " + REPLAY_OPTION + " <script> [<output>]");
+      System.exit(2);
+    }
+
+    try (InputStream script = Files.newInputStream(Path.of(args[1]));
+        OutputStream output =
+            args.length == 3
+                ? Files.newOutputStream(Path.of(args[2]))
+                : OutputStream.nullOutputStream()) {
+      Replay.run(script, output).print(System.out);
+    }
   }
 
-  public static void main(String[] args) {
+  /**
+   * Sets up the screening from the console, then serves booking sessions to TCP clients on the
+   * given port until the process is stopped.
+   */
+  private static void serve(String[] args) throws IOException {
+    if (args.length != 2 || !args[1].matches("\\d{1,5}")) {
+      System.err.println("Usage: " + SERVE_OPTION + " <port>");
+      System.exit(2);
+    }
+
+    ConsoleIO console = ConsoleIO.system();
+    Cinema cinema = registry.register(DEFAULT_SCREENING_ID, Initializer.init(console));
+    BookingServer server =
+        BookingServer.start(cinema, new InetSocketAddress(Integer.parseInt(args[1])));
+    Runtime.getRuntime()
+        .addShutdownHook(
+            new Thread(
+                () -> {
+                  try {
+                    server.close();
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                }));
+
+    console.println("Serving " + cinema.getMovieTitle() + " on port " + server.getPort());
+    console.flush();
+  }
+
+  /**
+   * Sets up the screening from the console, then serves the booking endpoints over HTTP on the
+   * given port until the process is stopped.
+   */
+  private static void http(String[] args) throws IOException {
+    if (args.length != 2 || !args[1].matches("\\d{1,5}")) {
+      System.err.println("Usage: " + HTTP_OPTION + " <port>");
+      System.exit(2);
+    }
+
+    ConsoleIO console = ConsoleIO.system();
+    Cinema cinema = registry.register(DEFAULT_SCREENING_ID, Initializer.init(console));
+    BookingHttpServer server =
+        BookingHttpServer.start(cinema, new InetSocketAddress(Integer.parseInt(args[1])));
+    Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+
+    console.println(
+        "Serving " + cinema.getMovieTitle() + " over HTTP on port " + server.getPort());
+    console.flush();
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length > 0 && args[0].equals(REPLAY_OPTION)) {
+      replay(args);
+      return;
+    }
+    if (args.length > 0 && args[0].equals(SERVE_OPTION)) {
+      serve(args);
+      return;
+    }
+    if (args.length > 0 && args[0].equals(HTTP_OPTION)) {
+      http(args);
+      return;
+    }
+
+    ConsoleIO console = ConsoleIO.system();
     try {
-      init();
+      init(console);
 
     } finally {
-      scanner.close();
+      console.close();
     }
   }
 }
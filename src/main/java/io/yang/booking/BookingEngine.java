@@ -0,0 +1,385 @@
+package io.yang.booking;
+
+import io.yang.booking.SeatSelector.Position;
+import io.yang.booking.generator.BookingIdGenerator;
+import io.yang.booking.strategy.CentreOutStrategy;
+import io.yang.booking.strategy.SeatSelectionStrategy;
+import io.yang.cinema.Backoff;
+import io.yang.cinema.Cinema;
+import io.yang.cinema.Seat;
+import io.yang.cinema.SeatMap;
+import io.yang.cinema.SelectionCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Books seats against a {@link Cinema} so that selecting and reserving happen atomically, even when
+ * many sessions book the same screening at once.
+ *
+ * <p>The engine takes no locks. Seats are selected from the current seat map by a {@link
+ * SeatSelectionStrategy} and then claimed all or nothing with {@link SeatMap#tryReserve(int[], int,
+ * String)}, which sets each seat's occupancy bit with an atomic operation. If one of the seats
+ * could not be claimed, the partial claim is rolled back and a fresh selection is made from the
+ * updated map. A failed claim means that another booking either claimed the seat first or is being
+ * {@linkplain #reseat(String, int, Position) moved} off it: a booking's seats look free while it
+ * moves but stay its own until the move completes. Bookings whose claims keep failing therefore
+ * {@linkplain Backoff back off} briefly before selecting again, which gives a move under way the
+ * time to finish instead of spinning on its seats, while reservation throughput keeps scaling with
+ * the number of cores instead of queueing on locks for hot rows.
+ *
+ * <p>Seats may either be booked outright or held while the customer decides. Held seats are
+ * released automatically once the cinema's hold time runs out, unless the booking is {@linkplain
+ * #confirm(String) confirmed} first.
+ *
+ * <p>Group sales and agency allotments can be booked in bulk with {@link #bookAll(List)}, which
+ * allocates a whole list of parties in a single pass and reports the outcome of each one.
+ */
+public class BookingEngine {
+
+  private final Cinema cinema;
+
+  private final SeatSelectionStrategy strategy;
+
+  /**
+   * Creates an engine that selects seats with the {@link CentreOutStrategy}.
+   *
+   * @param cinema The screening to book against.
+   */
+  public BookingEngine(Cinema cinema) {
+    this(cinema, new CentreOutStrategy());
+  }
+
+  /**
+   * Creates an engine that selects seats with the given strategy.
+   *
+   * @param cinema The screening to book against.
+   * @param strategy The policy deciding which seats to offer.
+   */
+  public BookingEngine(Cinema cinema, SeatSelectionStrategy strategy) {
+    this.cinema = cinema;
+    this.strategy = strategy;
+  }
+
+  /**
+   * Selects and reserves seats using the engine's strategy.
+   *
+   * @param bookingId The booking the seats are reserved under.
+   * @param numberOfSeats The number of seats to reserve.
+   * @return The reserved seats.
+   * @throws IllegalArgumentException if there are not enough available seats.
+   */
+  public Seat[] book(String bookingId, int numberOfSeats) {
+    SeatMap seatMap = cinema.getSeatMap();
+    SelectionCache cache = cinema.getSelectionCache();
+    return book(
+        bookingId,
+        numberOfSeats,
+        (count, selection) -> {
+          int cached = cache.lookup(strategy, count, selection);
+          return cached >= 0 ? cached : strategy.selectSeats(count, seatMap, selection);
+        });
+  }
+
+  /**
+   * Shows the seats the engine's strategy would currently offer, without reserving them. Previews
+   * of common party sizes are served from the screening's {@link SelectionCache} until the seat map
+   * changes, and a booking made straight after a preview reuses the previewed selection.
+   *
+   * @param numberOfSeats The number of seats to preview.
+   * @return The seats that would be offered, fewer than requested if too few are available.
+   */
+  public Seat[] preview(int numberOfSeats) {
+    SeatMap seatMap = cinema.getSeatMap();
+    int[] selection = newSelectionBuffer(seatMap, numberOfSeats);
+    int count =
+        cinema
+            .getSelectionCache()
+            .select(strategy, selection.length, selection, strategy::selectSeats);
+    return seatMap.getSeats(selection, count);
+  }
+
+  /**
+   * Selects and reserves seats starting from the given position.
+   *
+   * @param bookingId The booking the seats are reserved under.
+   * @param numberOfSeats The number of seats to reserve.
+   * @param position The position to start the selection from.
+   * @return The reserved seats.
+   * @throws IllegalArgumentException if there are not enough available seats.
+   */
+  public Seat[] book(String bookingId, int numberOfSeats, Position position) {
+    SeatMap seatMap = cinema.getSeatMap();
+    return book(
+        bookingId,
+        numberOfSeats,
+        (count, selection) -> strategy.selectSeats(count, seatMap, position, selection));
+  }
+
+  /**
+   * Selects and reserves seats using the default selection, and places them on hold until the
+   * booking is confirmed.
+   *
+   * @param bookingId The booking the seats are held under.
+   * @param numberOfSeats The number of seats to hold.
+   * @return The held seats.
+   * @throws IllegalArgumentException if there are not enough available seats.
+   */
+  public Seat[] hold(String bookingId, int numberOfSeats) {
+    Seat[] seats = book(bookingId, numberOfSeats);
+    cinema.holdSeats(bookingId);
+    return seats;
+  }
+
+  /**
+   * Selects and reserves seats starting from the given position, and places them on hold until the
+   * booking is confirmed.
+   *
+   * @param bookingId The booking the seats are held under.
+   * @param numberOfSeats The number of seats to hold.
+   * @param position The position to start the selection from.
+   * @return The held seats.
+   * @throws IllegalArgumentException if there are not enough available seats.
+   */
+  public Seat[] hold(String bookingId, int numberOfSeats, Position position) {
+    Seat[] seats = book(bookingId, numberOfSeats, position);
+    cinema.holdSeats(bookingId);
+    return seats;
+  }
+
+  /**
+   * Moves a held booking to seats selected from a new position and places it on hold afresh.
+   * Seats that both the old and the new selection contain stay reserved throughout, so another
+   * booking can never take them, and only the seats that differ are released or reserved.
+   *
+   * @param bookingId The booking to move.
+   * @param numberOfSeats The number of seats the booking should end up with.
+   * @param position The position to start the new selection from.
+   * @return The seats the booking now holds.
+   * @throws IllegalArgumentException if there are not enough available seats, in which case the
+   *     booking keeps its current seats.
+   * @throws IllegalStateException if the booking is not on hold, for example because it has been
+   *     confirmed or its hold has expired.
+   */
+  public Seat[] reseat(String bookingId, int numberOfSeats, Position position) {
+    SeatMap seatMap = cinema.getSeatMap();
+    int[] selection = newSelectionBuffer(seatMap, numberOfSeats);
+    boolean moved =
+        numberOfSeats <= selection.length
+            && cinema.reseat(
+                bookingId,
+                numberOfSeats,
+                selection,
+                (count, map, buffer) -> strategy.selectSeats(count, map, position, buffer));
+    if (!moved) throw new IllegalArgumentException(notEnoughSeatsMessage());
+    return seatMap.getSeats(selection, numberOfSeats);
+  }
+
+  /**
+   * Confirms a held booking so that its seats are no longer released on expiry.
+   *
+   * @param bookingId The booking to confirm.
+   * @return {@code true} if the booking was confirmed; {@code false} if its hold had already
+   *     expired and the seats were released.
+   */
+  public boolean confirm(String bookingId) {
+    return cinema.confirmBooking(bookingId);
+  }
+
+  /**
+   * Releases every seat held by the given booking.
+   *
+   * @param bookingId The booking to release.
+   */
+  public void release(String bookingId) {
+    cinema.releaseSeats(bookingId);
+  }
+
+  /**
+   * Books every party in the list in a single pass, in order, each under a newly generated booking
+   * ID. Parties are booked outright and independently: a party that cannot be seated is reported
+   * as rejected and the rest of the list is still booked. No hall is rendered and a single
+   * selection buffer is reused for the whole list, so hundreds of parties take milliseconds.
+   *
+   * <p>The batch takes no hall-wide lock. Each party is claimed all or nothing with the same
+   * lock-free claim as a single booking, so bookings from other sessions may be placed between
+   * two parties of the batch, but never on a seat a party of the batch holds. In exchange, an
+   * allotment never stalls interactive bookings on the same screening.
+   *
+   * @param requests The parties to book.
+   * @return The outcome of each request, in the same order as the requests.
+   */
+  public List<BatchResult> bookAll(List<BatchRequest> requests) {
+    SeatMap seatMap = cinema.getSeatMap();
+    int largestParty = 0;
+    for (BatchRequest request : requests) {
+      largestParty = Math.max(largestParty, request.getPartySize());
+    }
+    int[] selection = newSelectionBuffer(seatMap, largestParty);
+
+    List<BatchResult> results = new ArrayList<>(requests.size());
+    for (BatchRequest request : requests) {
+      results.add(book(seatMap, request, selection));
+    }
+    return results;
+  }
+
+  private BatchResult book(SeatMap seatMap, BatchRequest request, int[] selection) {
+    int partySize = request.getPartySize();
+    if (partySize <= 0) {
+      return BatchResult.rejected("Number of tickets must be an integer greater than 0");
+    }
+
+    Position position = request.getPreferredPosition();
+    Selector selector =
+        position == null
+            ? (count, buffer) -> strategy.selectSeats(count, seatMap, buffer)
+            : (count, buffer) -> strategy.selectSeats(count, seatMap, position, buffer);
+    String bookingId = BookingIdGenerator.nextId();
+    if (!reserve(seatMap, bookingId, partySize, selection, selector)) {
+      return BatchResult.rejected(notEnoughSeatsMessage());
+    }
+    return BatchResult.booked(bookingId, seatMap.getSeats(selection, partySize));
+  }
+
+  private Seat[] book(String bookingId, int numberOfSeats, Selector selector) {
+    SeatMap seatMap = cinema.getSeatMap();
+    int[] selection = newSelectionBuffer(seatMap, numberOfSeats);
+    if (!reserve(seatMap, bookingId, numberOfSeats, selection, selector)) {
+      throw new IllegalArgumentException(notEnoughSeatsMessage());
+    }
+    return seatMap.getSeats(selection, numberOfSeats);
+  }
+
+  /**
+   * Selects and claims seats until a claim succeeds, leaving the claimed seats at the start of the
+   * selection buffer. Each failed claim is followed by a pause that grows with the number of
+   * failures.
+   *
+   * @return {@code true} if the seats were reserved; {@code false} if there are not enough
+   *     available seats.
+   */
+  private static boolean reserve(
+      SeatMap seatMap, String bookingId, int numberOfSeats, int[] selection, Selector selector) {
+    if (numberOfSeats > selection.length) return false;
+    Backoff backoff = new Backoff();
+    while (true) {
+      int count = selector.select(numberOfSeats, selection);
+      if (count < numberOfSeats) return false;
+      if (seatMap.tryReserve(selection, count, bookingId)) return true;
+      // Lost a seat to a concurrent booking, or to one being moved that still owns it; select again
+      // from the updated map once the other booking has had a chance to finish
+      backoff.pause();
+    }
+  }
+
+  /** Creates a selection buffer for the given number of seats, capped at the size of the hall. */
+  private static int[] newSelectionBuffer(SeatMap seatMap, int numberOfSeats) {
+    long capacity = (long) seatMap.getRows() * seatMap.getSeatsPerRow();
+    return new int[(int) Math.max(0, Math.min(numberOfSeats, capacity))];
+  }
+
+  private String notEnoughSeatsMessage() {
+    return "Sorry, there are only " + cinema.getAvailableSeatsCount() + " seats available";
+  }
+
+  /** Fills a selection buffer with the requested seats and returns the number selected. */
+  @FunctionalInterface
+  private interface Selector {
+    int select(int numberOfSeats, int[] selection);
+  }
+
+  /** A party to be seated by {@link #bookAll(List)}. */
+  public static class BatchRequest {
+    private final int partySize;
+    private final Position preferredPosition;
+
+    /**
+     * Creates a request for a party seated by the engine's default selection.
+     *
+     * @param partySize The number of seats the party needs.
+     */
+    public BatchRequest(int partySize) {
+      this(partySize, null);
+    }
+
+    /**
+     * Creates a request for a party seated as close as possible to the given position.
+     *
+     * @param partySize The number of seats the party needs.
+     * @param preferredPosition The position to start the selection from, or {@code null} for the
+     *     default selection.
+     */
+    public BatchRequest(int partySize, Position preferredPosition) {
+      this.partySize = partySize;
+      this.preferredPosition = preferredPosition;
+    }
+
+    public int getPartySize() {
+      return partySize;
+    }
+
+    public Position getPreferredPosition() {
+      return preferredPosition;
+    }
+  }
+
+  /** The outcome of a single {@link BatchRequest}. */
+  public static class BatchResult {
+    private static final Seat[] NO_SEATS = new Seat[0];
+
+    private final String bookingId;
+    private final Seat[] seats;
+    private final String failureReason;
+
+    private BatchResult(String bookingId, Seat[] seats, String failureReason) {
+      this.bookingId = bookingId;
+      this.seats = seats;
+      this.failureReason = failureReason;
+    }
+
+    static BatchResult booked(String bookingId, Seat[] seats) {
+      return new BatchResult(bookingId, seats, null);
+    }
+
+    static BatchResult rejected(String failureReason) {
+      return new BatchResult(null, NO_SEATS, failureReason);
+    }
+
+    /**
+     * Checks whether the party was seated.
+     *
+     * @return {@code true} if the seats were reserved; {@code false} otherwise.
+     */
+    public boolean isBooked() {
+      return bookingId != null;
+    }
+
+    /**
+     * Retrieves the booking the party was seated under.
+     *
+     * @return The booking ID, or {@code null} if the party was not seated.
+     */
+    public String getBookingId() {
+      return bookingId;
+    }
+
+    /**
+     * Retrieves the seats reserved for the party.
+     *
+     * @return The reserved seats, or an empty array if the party was not seated.
+     */
+    public Seat[] getSeats() {
+      return seats.clone();
+    }
+
+    /**
+     * Retrieves why the party could not be seated.
+     *
+     * @return The reason, or {@code null} if the party was seated.
+     */
+    public String getFailureReason() {
+      return failureReason;
+    }
+  }
+}
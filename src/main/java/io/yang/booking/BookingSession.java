@@ -1,10 +1,16 @@
 package io.yang.booking;
 
 import io.yang.booking.command.Action;
+import io.yang.booking.option.BookOption;
+import io.yang.booking.option.CheckOption;
+import io.yang.booking.option.ExitOption;
 import io.yang.booking.option.Option;
 import io.yang.booking.display.Menu;
-
-import java.util.Scanner;
+import io.yang.booking.strategy.CentreOutStrategy;
+import io.yang.booking.strategy.SeatSelectionStrategy;
+import io.yang.cinema.Cinema;
+import io.yang.cinema.ScreeningRegistry;
+import io.yang.console.ConsoleIO;
 
 /** Represents a booking session that continuously processes user input until it is closed. */
 public class BookingSession {
@@ -18,36 +24,88 @@ public class BookingSession {
    */
   private final Menu menu;
 
-  /** The Scanner instance used to capture user input during the running session. */
-  private final Scanner scanner;
+  /** The console the session talks to the user through. */
+  private final ConsoleIO console;
 
   /**
    * Creates a new booking session with the provided options. By default, a newly created session is
    * open.
    *
    * @param options an array of options used to build the session menu
-   * @param scanner the Scanner instance to read user input
+   * @param console the console to talk to the user through
    */
-  public BookingSession(Option[] options, Scanner scanner) {
+  public BookingSession(Option[] options, ConsoleIO console) {
     this.isOpen = true;
-    this.menu = new Menu(options);
-    this.scanner = scanner;
+    this.menu = new Menu(options, console);
+    this.console = console;
+  }
+
+  /**
+   * Creates a booking session for a single screening with the standard book, check and exit
+   * options.
+   *
+   * @param cinema the screening the session books against
+   * @param console the console to talk to the user through
+   * @return a new open booking session
+   */
+  public static BookingSession forScreening(Cinema cinema, ConsoleIO console) {
+    return forScreening(cinema, new CentreOutStrategy(), console);
+  }
+
+  /**
+   * Creates a booking session for a single screening that offers seats chosen by the given
+   * strategy.
+   *
+   * @param cinema the screening the session books against
+   * @param strategy the policy deciding which seats to offer
+   * @param console the console to talk to the user through
+   * @return a new open booking session
+   */
+  public static BookingSession forScreening(
+      Cinema cinema, SeatSelectionStrategy strategy, ConsoleIO console) {
+    Option[] options =
+        new Option[] {
+          new BookOption(cinema, console, strategy),
+          new CheckOption(cinema, console),
+          new ExitOption()
+        };
+    return new BookingSession(options, console);
+  }
+
+  /**
+   * Creates a booking session for the screening registered under the given ID.
+   *
+   * @param registry the registry holding the screening
+   * @param screeningId the ID of the screening to book against
+   * @param console the console to talk to the user through
+   * @return a new open booking session
+   * @throws IllegalArgumentException if no screening is registered under the ID
+   */
+  public static BookingSession forScreening(
+      ScreeningRegistry registry, String screeningId, ConsoleIO console) {
+    Cinema cinema =
+        registry
+            .find(screeningId)
+            .orElseThrow(
+                () -> new IllegalArgumentException("Screening " + screeningId + " not found."));
+    return forScreening(cinema, console);
   }
 
   /**
    * Runs the main loop of the booking session. It displays the available options, gathers user
    * input, and executes the corresponding action. The session continues until it is closed through
-   * an executed action.
+   * an executed action, after which the remaining output is flushed to the console.
    */
   public void run() {
     while (isOpen) {
       menu.displayOptions();
-      int selection = menu.promptForSelection(scanner);
+      int selection = menu.promptForSelection();
       Action command = menu.getAction(selection);
 
       command.execute();
       isOpen = !command.isExit();
     }
     menu.displayExitMessage();
+    console.flush();
   }
 }
@@ -1,141 +1,201 @@
 package io.yang.booking;
 
 import io.yang.cinema.Seat;
+import io.yang.cinema.SeatMap;
 
-import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Selects available seats from a {@link SeatMap}.
+ *
+ * <p>Every selection is available in two forms. The packed form writes seats into a caller-supplied
+ * {@code int[]} as {@linkplain SeatMap#pack(int, int) packed coordinates} and returns how many were
+ * written; it allocates nothing, so a caller that reuses its buffer can select seats on a hot path
+ * without producing garbage. The {@link Seat} form wraps the packed form for callers that prefer
+ * seat views.
+ */
 public class SeatSelector {
 
   private SeatSelector() {}
 
-  private static Seat[] selectSeatsFrontToBack(
-      int numberOfSeats, Seat[][] seats, Position startPosition) {
-    List<Seat> selectedSeats = new ArrayList<>();
-
-    int rowNum = startPosition.rowNum + 1;
-
-    while (numberOfSeats > 0 && rowNum < seats.length) {
-      List<Seat> availableRowSeats = selectSeats(numberOfSeats, seats[rowNum]);
-      availableRowSeats.subList(0, Math.min(numberOfSeats, availableRowSeats.size()));
-      selectedSeats.addAll(availableRowSeats);
-      numberOfSeats -= availableRowSeats.size();
-      rowNum++;
+  private static int selectSeatsFrontToBack(
+      int numberOfSeats, SeatMap seatMap, Position startPosition, int[] selection, int count) {
+    int target = count + numberOfSeats;
+    for (int rowNum = startPosition.rowNum + 1;
+        count < target && rowNum < seatMap.getRows();
+        rowNum++) {
+      count = selectSeats(target - count, seatMap, rowNum, selection, count);
     }
-    return selectedSeats.toArray(new Seat[0]);
+    return count;
   }
 
-  private static Seat[] selectSeatsBackToFront(
-      int numberOfSeats, Seat[][] seats, Position startPosition) {
-    List<Seat> selectedSeats = new ArrayList<>();
-
-    int rowNum = startPosition.rowNum - 1;
-
-    while (numberOfSeats > 0 && rowNum >= 0) {
-      List<Seat> availableRowSeats = selectSeats(numberOfSeats, seats[rowNum]);
-      availableRowSeats.subList(0, Math.min(numberOfSeats, availableRowSeats.size()));
-      selectedSeats.addAll(availableRowSeats);
-      numberOfSeats -= availableRowSeats.size();
-      rowNum--;
+  private static int selectSeatsBackToFront(
+      int numberOfSeats, SeatMap seatMap, Position startPosition, int[] selection, int count) {
+    int target = count + numberOfSeats;
+    for (int rowNum = startPosition.rowNum - 1; count < target && rowNum >= 0; rowNum--) {
+      count = selectSeats(target - count, seatMap, rowNum, selection, count);
     }
-    return selectedSeats.toArray(new Seat[0]);
+    return count;
   }
 
-  private static Seat[] selectSeatsLeftToRight(
-      int numberOfSeats, Seat[][] seats, Position startPosition) {
-    List<Seat> selectedSeats = new ArrayList<>();
-
+  private static int selectSeatsLeftToRight(
+      int numberOfSeats, SeatMap seatMap, Position startPosition, int[] selection, int count) {
+    int target = count + numberOfSeats;
     int rowNum = startPosition.rowNum;
-    int colNum = startPosition.colNum;
+    int colNum = seatMap.nextAvailable(rowNum, startPosition.colNum);
 
-    Seat[] row = seats[rowNum];
-    while (numberOfSeats > 0 && colNum < row.length) {
-      if (row[colNum].isAvailable()) {
-        selectedSeats.add(row[colNum]);
-        numberOfSeats--;
-      }
-      colNum++;
+    while (count < target && colNum >= 0) {
+      selection[count++] = SeatMap.pack(rowNum, colNum);
+      colNum = seatMap.nextAvailable(rowNum, colNum + 1);
     }
-    return selectedSeats.toArray(new Seat[0]);
+    return count;
   }
 
-  private static Seat[] selectSeatsRightToLeft(
-      int numberOfSeats, Seat[][] seats, Position startPosition) {
-    List<Seat> selectedSeats = new ArrayList<>();
-
+  private static int selectSeatsRightToLeft(
+      int numberOfSeats, SeatMap seatMap, Position startPosition, int[] selection, int count) {
+    int target = count + numberOfSeats;
     int rowNum = startPosition.rowNum;
-    int colNum = startPosition.colNum - 1;
+    int colNum = seatMap.previousAvailable(rowNum, startPosition.colNum - 1);
 
-    Seat[] row = seats[rowNum];
-    while (numberOfSeats > 0 && colNum >= 0) {
-      if (row[colNum].isAvailable()) {
-        selectedSeats.add(row[colNum]);
-        numberOfSeats--;
-      }
-      colNum--;
+    while (count < target && colNum >= 0) {
+      selection[count++] = SeatMap.pack(rowNum, colNum);
+      colNum = seatMap.previousAvailable(rowNum, colNum - 1);
     }
-    return selectedSeats.toArray(new Seat[0]);
+    return count;
   }
 
-  public static Seat[] selectSeats(int numberOfSeats, Seat[][] seats, Position startPosition) {
-    Seat[] currentRowLeftToRight = selectSeatsLeftToRight(numberOfSeats, seats, startPosition);
-    List<Seat> selectedSeats = new ArrayList<>(List.of(currentRowLeftToRight));
-    numberOfSeats -= currentRowLeftToRight.length;
-
-    Seat[] currentRowBackToFront = selectSeatsBackToFront(numberOfSeats, seats, startPosition);
-    selectedSeats.addAll(List.of(currentRowBackToFront));
-    numberOfSeats -= currentRowBackToFront.length;
-
-    Seat[] currentRowRightToLeft = selectSeatsRightToLeft(numberOfSeats, seats, startPosition);
-    selectedSeats.addAll(List.of(currentRowRightToLeft));
-    numberOfSeats -= currentRowRightToLeft.length;
+  private static void checkCapacity(int numberOfSeats, int[] selection) {
+    if (selection.length < numberOfSeats) {
+      throw new IllegalArgumentException(
+          "Selection buffer must hold at least " + numberOfSeats + " seats");
+    }
+  }
 
-    Seat[] currentRowFrontToBack = selectSeatsFrontToBack(numberOfSeats, seats, startPosition);
-    selectedSeats.addAll(List.of(currentRowFrontToBack));
+  /**
+   * Selects up to {@code numberOfSeats} available seats starting from the given position, and
+   * writes them into {@code selection} as packed coordinates. Seats are taken to the right of the
+   * position first, then from the rows in front of it, then to the left of it, and finally from the
+   * rows behind it.
+   *
+   * @param numberOfSeats the number of seats to select
+   * @param seatMap the seat map to select from
+   * @param startPosition the position to start from
+   * @param selection the buffer receiving the packed seats, from index 0
+   * @return the number of seats written, which is less than requested if too few are available
+   * @throws IllegalArgumentException if the buffer cannot hold {@code numberOfSeats} seats
+   */
+  public static int selectSeats(
+      int numberOfSeats, SeatMap seatMap, Position startPosition, int[] selection) {
+    checkCapacity(numberOfSeats, selection);
+    int count = selectSeatsLeftToRight(numberOfSeats, seatMap, startPosition, selection, 0);
+    count = selectSeatsBackToFront(numberOfSeats - count, seatMap, startPosition, selection, count);
+    count = selectSeatsRightToLeft(numberOfSeats - count, seatMap, startPosition, selection, count);
+    return selectSeatsFrontToBack(numberOfSeats - count, seatMap, startPosition, selection, count);
+  }
 
-    return selectedSeats.toArray(new Seat[0]);
+  public static Seat[] selectSeats(int numberOfSeats, SeatMap seatMap, Position startPosition) {
+    int[] selection = new int[capped(numberOfSeats, seatMap)];
+    int count = selectSeats(selection.length, seatMap, startPosition, selection);
+    return seatMap.getSeats(selection, count);
   }
 
-  public static List<Seat> selectSeats(int numberOfSeats, Seat[] row) {
-    List<Seat> selectedSeats = new ArrayList<>();
+  /**
+   * Selects up to {@code numberOfSeats} available seats in a row, working outwards from the centre,
+   * and writes them into {@code selection} as packed coordinates starting at {@code count}. The
+   * cursors jump straight to the next free seat on either side, so runs of reserved seats are
+   * skipped using the row's free-run index. When both sides are equally far from the centre the
+   * right-hand seat is taken first.
+   *
+   * <p>If the row's free-run index shows that the seats around the centre are all free, they are
+   * taken as one block without probing the seat map seat by seat.
+   *
+   * @return the number of seats in {@code selection} afterwards
+   */
+  private static int selectSeats(
+      int numberOfSeats, SeatMap seatMap, int rowNum, int[] selection, int count) {
+    int centre = seatMap.getSeatsPerRow() / 2;
+    int centredBlock = seatMap.findCentredBlock(rowNum, numberOfSeats);
+    if (centredBlock >= 0 && centredBlock == centre - numberOfSeats / 2) {
+      return selectCentredBlock(numberOfSeats, seatMap, rowNum, selection, count);
+    }
 
-    int rightCursor = row.length / 2;
-    int leftCursor = Math.max(rightCursor - 1, 0);
+    int target = count + numberOfSeats;
+    int rightCursor = seatMap.nextAvailable(rowNum, centre);
+    int leftCursor = seatMap.previousAvailable(rowNum, centre - 1);
 
-    while (numberOfSeats > 0 && (leftCursor >= 0 || rightCursor < row.length)) {
-      if (rightCursor < row.length && row[rightCursor].isAvailable()) {
-        selectedSeats.add(row[rightCursor]);
-        numberOfSeats--;
-      }
+    while (count < target && (leftCursor >= 0 || rightCursor >= 0)) {
+      boolean takeRight =
+          rightCursor >= 0 && (leftCursor < 0 || rightCursor - centre <= centre - 1 - leftCursor);
 
-      if (numberOfSeats > 0 && leftCursor >= 0 && row[leftCursor].isAvailable()) {
-        selectedSeats.add(row[leftCursor]);
-        numberOfSeats--;
+      if (takeRight) {
+        selection[count++] = SeatMap.pack(rowNum, rightCursor);
+        rightCursor = seatMap.nextAvailable(rowNum, rightCursor + 1);
+      } else {
+        selection[count++] = SeatMap.pack(rowNum, leftCursor);
+        leftCursor = seatMap.previousAvailable(rowNum, leftCursor - 1);
       }
-
-      leftCursor--;
-      rightCursor++;
     }
+    return count;
+  }
 
-    return selectedSeats;
+  /**
+   * Takes the block of seats around the centre of a row, known to be free, in the same order as
+   * working outwards from the centre would.
+   */
+  private static int selectCentredBlock(
+      int numberOfSeats, SeatMap seatMap, int rowNum, int[] selection, int count) {
+    int target = count + numberOfSeats;
+    int centre = seatMap.getSeatsPerRow() / 2;
+    int rightCursor = centre;
+    int leftCursor = centre - 1;
+    while (count < target) {
+      if (rightCursor - centre <= centre - 1 - leftCursor) {
+        selection[count++] = SeatMap.pack(rowNum, rightCursor++);
+      } else {
+        selection[count++] = SeatMap.pack(rowNum, leftCursor--);
+      }
+    }
+    return count;
   }
 
-  public static Seat[] selectSeats(int numberOfSeats, Seat[][] seats) {
-    List<Seat> selectedSeats = new ArrayList<>();
-    int rowNum = seats.length - 1;
+  public static List<Seat> selectSeats(int numberOfSeats, SeatMap seatMap, int rowNum) {
+    int[] selection = new int[Math.max(0, Math.min(numberOfSeats, seatMap.getSeatsPerRow()))];
+    int count = selectSeats(selection.length, seatMap, rowNum, selection, 0);
+    return List.of(seatMap.getSeats(selection, count));
+  }
 
-    while (numberOfSeats > 0 && rowNum >= 0) {
-      Seat[] row = seats[rowNum];
-      List<Seat> availableRowSeats = selectSeats(numberOfSeats, row);
+  /**
+   * Selects up to {@code numberOfSeats} available seats, filling rows from the back and centring
+   * the seats within each row, and writes them into {@code selection} as packed coordinates. Rows
+   * without available seats are skipped using the seat map's counters.
+   *
+   * @param numberOfSeats the number of seats to select
+   * @param seatMap the seat map to select from
+   * @param selection the buffer receiving the packed seats, from index 0
+   * @return the number of seats written, which is less than requested if too few are available
+   * @throws IllegalArgumentException if the buffer cannot hold {@code numberOfSeats} seats
+   */
+  public static int selectSeats(int numberOfSeats, SeatMap seatMap, int[] selection) {
+    checkCapacity(numberOfSeats, selection);
+    int count = 0;
+    for (int rowNum = seatMap.getRows() - 1; count < numberOfSeats && rowNum >= 0; rowNum--) {
+      if (seatMap.getAvailableSeats(rowNum) > 0) {
+        count = selectSeats(numberOfSeats - count, seatMap, rowNum, selection, count);
+      }
+    }
+    return count;
+  }
 
-      int endIndex = Math.min(availableRowSeats.size(), numberOfSeats);
-      List<Seat> seatsToReserve = availableRowSeats.subList(0, endIndex);
-      selectedSeats.addAll(seatsToReserve);
+  public static Seat[] selectSeats(int numberOfSeats, SeatMap seatMap) {
+    int[] selection = new int[capped(numberOfSeats, seatMap)];
+    int count = selectSeats(selection.length, seatMap, selection);
+    return seatMap.getSeats(selection, count);
+  }
 
-      numberOfSeats -= seatsToReserve.size();
-      rowNum--;
-    }
-    return selectedSeats.toArray(new Seat[0]);
+  /** Caps a requested number of seats at the size of the hall, which no selection can exceed. */
+  private static int capped(int numberOfSeats, SeatMap seatMap) {
+    long capacity = (long) seatMap.getRows() * seatMap.getSeatsPerRow();
+    return (int) Math.max(0, Math.min(numberOfSeats, capacity));
   }
 
   public static class Position {
@@ -1,27 +1,33 @@
 package io.yang.booking.command;
 
-import io.yang.booking.SeatSelector;
+import io.yang.booking.BookingEngine;
 import io.yang.booking.SeatSelector.Position;
 import io.yang.booking.generator.BookingIdGenerator;
+import io.yang.booking.strategy.CentreOutStrategy;
+import io.yang.booking.strategy.SeatSelectionStrategy;
 import io.yang.cinema.Cinema;
 import io.yang.cinema.CinemaVisualizer;
-import io.yang.cinema.Seat;
 import io.yang.cinema.converter.PositionConverter;
+import io.yang.console.ConsoleIO;
 
-import java.util.Arrays;
 import java.util.Optional;
-import java.util.Scanner;
 
 import static org.apache.commons.lang3.StringUtils.isNumeric;
 
 public class BookSeat implements Action {
 
   private final Cinema cinema;
-  private final Scanner scanner;
+  private final ConsoleIO console;
+  private final BookingEngine bookingEngine;
 
-  public BookSeat(Cinema cinema, Scanner scanner) {
+  public BookSeat(Cinema cinema, ConsoleIO console) {
+    this(cinema, console, new CentreOutStrategy());
+  }
+
+  public BookSeat(Cinema cinema, ConsoleIO console, SeatSelectionStrategy strategy) {
     this.cinema = cinema;
-    this.scanner = scanner;
+    this.console = console;
+    this.bookingEngine = new BookingEngine(cinema, strategy);
   }
 
   private boolean isValidNumber(String input) {
@@ -35,8 +41,8 @@ public class BookSeat implements Action {
     }
 
     int numberOfSeats = Integer.parseInt(input);
-    if (!cinema.hasEnoughSeats(numberOfSeats)) {
-      int availableSeats = cinema.getAvailableSeatsCount();
+    int availableSeats = cinema.getAvailableSeatsCount();
+    if (numberOfSeats > availableSeats) {
       String message = "Sorry, there are only " + availableSeats + " seats available";
       throw new IllegalArgumentException(message);
     }
@@ -45,30 +51,35 @@ public class BookSeat implements Action {
   }
 
   private void displayErrorMessage(String message) {
-    System.out.println(message);
+    console.println(message);
+  }
+
+  private void displayBookingExpiry(String bookingId) {
+    console.printf("Booking id: %s expired. The seats are no longer held.%n", bookingId);
+    console.println();
   }
 
   private void displayBookingConfirmation(String bookingId) {
-    System.out.printf("Booking id: %s confirmed.%n", bookingId);
-    System.out.println();
+    console.printf("Booking id: %s confirmed.%n", bookingId);
+    console.println();
   }
 
   private void displayBookingSummary(String bookingId, int numberOfSeats) {
-    System.out.println();
-    System.out.println(
+    console.println();
+    console.println(
         "Successfully reserved " + numberOfSeats + " " + cinema.getMovieTitle() + " tickets.");
-    System.out.println("Booking id: " + bookingId);
-    System.out.println("Selected seats:");
-    System.out.println();
+    console.println("Booking id: " + bookingId);
+    console.println("Selected seats:");
+    console.println();
 
-    CinemaVisualizer.visualize(cinema, bookingId);
+    CinemaVisualizer.visualize(cinema, bookingId, console);
   }
 
   private Optional<Position> solicitForAcceptanceOrNewPosition() {
     while (true) {
-      System.out.println();
-      System.out.println("Enter blank to accept seat selection, or enter new seating position:");
-      String input = scanner.nextLine();
+      console.println();
+      console.println("Enter blank to accept seat selection, or enter new seating position:");
+      String input = console.readLine();
 
       boolean isAcceptance = input.trim().isEmpty();
       if (isAcceptance) return Optional.empty();
@@ -77,17 +88,24 @@ public class BookSeat implements Action {
         return Optional.of(PositionConverter.convert(input, cinema));
 
       } catch (IllegalArgumentException e) {
-        System.out.println(e.getMessage());
+        console.println(e.getMessage());
       }
     }
   }
 
-  private Integer solicitForNumberOfSeats() {
+  /**
+   * Prompts for the number of seats until a valid number is entered and the seats have been put
+   * on hold. Another session may take the remaining seats between validation and booking, in which
+   * case the shortage is reported and the user is asked again.
+   */
+  private Integer solicitForNumberOfSeatsAndBook(String bookingId) {
     while (true) {
       try {
         String input = promptForSeats();
         if (isReturnToMainMenu(input)) return null;
-        return parse(input);
+        int numberOfSeats = parse(input);
+        bookingEngine.hold(bookingId, numberOfSeats);
+        return numberOfSeats;
 
       } catch (IllegalArgumentException e) {
         displayErrorMessage(e.getMessage());
@@ -95,16 +113,27 @@ public class BookSeat implements Action {
     }
   }
 
-  private void bookSeats(String bookingId, int numberOfSeats) {
-    Seat[][] seats = cinema.getSeats();
-    Seat[] selectedSeats = SeatSelector.selectSeats(numberOfSeats, seats);
-    Arrays.stream(selectedSeats).forEach(seat -> seat.reserve(bookingId));
-  }
+  /**
+   * Moves the booking to seats selected from the given position. If there are not enough seats
+   * there, the booking keeps the seats it has and the user may choose again.
+   *
+   * @return {@code false} if the hold ran out before the booking could be moved; {@code true}
+   *     otherwise.
+   */
+  private boolean rebookSeats(String bookingId, int numberOfSeats, Position position) {
+    try {
+      bookingEngine.reseat(bookingId, numberOfSeats, position);
+      displayBookingSummary(bookingId, numberOfSeats);
+      return true;
 
-  private void bookSeats(String bookingId, int numberOfSeats, Position position) {
-    Seat[][] seats = cinema.getSeats();
-    Seat[] selectedSeats = SeatSelector.selectSeats(numberOfSeats, seats, position);
-    Arrays.stream(selectedSeats).forEach(seat -> seat.reserve(bookingId));
+    } catch (IllegalArgumentException e) {
+      displayErrorMessage(e.getMessage());
+      return true;
+
+    } catch (IllegalStateException e) {
+      // The hold ran out while the customer was choosing; its seats are already released
+      return false;
+    }
   }
 
   private boolean isReturnToMainMenu(String input) {
@@ -112,28 +141,34 @@ public class BookSeat implements Action {
   }
 
   private String promptForSeats() {
-    System.out.println();
-    System.out.println("Enter number of seats to book, or enter blank to go back to main menu:");
-    return scanner.nextLine();
+    console.println();
+    console.println("Enter number of seats to book, or enter blank to go back to main menu:");
+    return console.readLine();
   }
 
   @Override
   public void execute() {
-    String bookingId = BookingIdGenerator.nextId();
+    // Sessions may each run on a thread of their own and book at a human pace, so a block of IDs
+    // per thread would mostly go to waste
+    String bookingId = BookingIdGenerator.nextSharedId();
 
-    Integer numberOfSeats = solicitForNumberOfSeats();
+    Integer numberOfSeats = solicitForNumberOfSeatsAndBook(bookingId);
     if (numberOfSeats == null) return;
-    bookSeats(bookingId, numberOfSeats);
     displayBookingSummary(bookingId, numberOfSeats);
 
     Optional<Position> position = solicitForAcceptanceOrNewPosition();
     while (position.isPresent()) {
-      cinema.releaseSeats(bookingId);
-      bookSeats(bookingId, numberOfSeats, position.get());
-      displayBookingSummary(bookingId, numberOfSeats);
+      if (!rebookSeats(bookingId, numberOfSeats, position.get())) {
+        displayBookingExpiry(bookingId);
+        return;
+      }
       position = solicitForAcceptanceOrNewPosition();
     }
 
+    if (!bookingEngine.confirm(bookingId)) {
+      displayBookingExpiry(bookingId);
+      return;
+    }
     displayBookingConfirmation(bookingId);
   }
 }
@@ -2,34 +2,42 @@ package io.yang.booking.command;
 
 import io.yang.cinema.Cinema;
 import io.yang.cinema.CinemaVisualizer;
-
-import java.util.Scanner;
+import io.yang.console.ConsoleIO;
 
 public class CheckBooking implements Action {
 
   private final Cinema cinema;
-  private final Scanner scanner;
+  private final ConsoleIO console;
 
-  public CheckBooking(Cinema cinema, Scanner scanner) {
+  public CheckBooking(Cinema cinema, ConsoleIO console) {
     this.cinema = cinema;
-    this.scanner = scanner;
+    this.console = console;
   }
 
   @Override
   public void execute() {
     String bookingId = solicitForBookingId();
     if (bookingId.isEmpty()) return;
+    if (!cinema.hasBooking(bookingId)) {
+      displayBookingNotFound(bookingId);
+      return;
+    }
     displayBookingDetails(bookingId);
   }
 
   private String solicitForBookingId() {
-    System.out.println("Enter booking id, or enter blank to go back to main menu:");
-    return scanner.nextLine();
+    console.println("Enter booking id, or enter blank to go back to main menu:");
+    return console.readLine();
+  }
+
+  private void displayBookingNotFound(String bookingId) {
+    console.println("Booking id: " + bookingId + " not found.");
+    console.println();
   }
 
   private void displayBookingDetails(String bookingId) {
-    System.out.println("Booking id: " + bookingId);
-    CinemaVisualizer.visualize(cinema, bookingId);
-    System.out.println();
+    console.println("Booking id: " + bookingId);
+    CinemaVisualizer.visualize(cinema, bookingId, console);
+    console.println();
   }
 }
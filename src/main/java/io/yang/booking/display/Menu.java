@@ -2,8 +2,7 @@ package io.yang.booking.display;
 
 import io.yang.booking.command.Action;
 import io.yang.booking.option.Option;
-
-import java.util.Scanner;
+import io.yang.console.ConsoleIO;
 
 public class Menu {
 
@@ -11,9 +10,11 @@ public class Menu {
   private static final String PROMPT_MESSAGE = "Please enter your selection:";
 
   private final Option[] options;
+  private final ConsoleIO console;
 
-  public Menu(Option[] options) {
+  public Menu(Option[] options, ConsoleIO console) {
     this.options = options;
+    this.console = console;
   }
 
   private boolean isValidSelection(String input) {
@@ -27,25 +28,25 @@ public class Menu {
   }
 
   public void displayOptions() {
-    System.out.println(WELCOME_MESSAGE);
+    console.println(WELCOME_MESSAGE);
 
     for (int i = 0; i < options.length; i++) {
-      System.out.println("[" + (i + 1) + "] " + options[i].getMessage());
+      console.println("[" + (i + 1) + "] " + options[i].getMessage());
     }
 
-    System.out.println(PROMPT_MESSAGE);
+    console.println(PROMPT_MESSAGE);
   }
 
   public void displayExitMessage() {
-    System.out.println();
-    System.out.println("Thank you for using GIC Cinemas system, Bye!");
+    console.println();
+    console.println("Thank you for using GIC Cinemas system, Bye!");
   }
 
-  public int promptForSelection(Scanner scanner) {
-    String input = scanner.nextLine();
+  public int promptForSelection() {
+    String input = console.readLine();
     while (!isValidSelection(input)) {
-      System.out.println("Invalid option. Please try again.");
-      input = scanner.nextLine();
+      console.println("Invalid option. Please try again.");
+      input = console.readLine();
     }
     return Integer.parseInt(input) - 1; // Offset to zero-based index
   }
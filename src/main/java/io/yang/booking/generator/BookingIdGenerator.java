@@ -1,37 +1,100 @@
 package io.yang.booking.generator;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Generates booking IDs by combining a predefined prefix with an incremented, zero-padded numerical
  * sequence.
+ *
+ * <p>The generator is safe for concurrent use and scales with the number of threads. Each thread
+ * takes a block of consecutive sequence numbers from a shared atomic counter and hands them out
+ * without further coordination, so the shared counter is touched once per block rather than once
+ * per ID. IDs are therefore unique, and ascending within a thread, but threads interleave by block.
+ * Blocks pay off for threads that book in bulk. Console sessions and HTTP requests, which often
+ * run on a thread of their own and book only a handful of times, take their IDs with {@link
+ * #nextSharedId()} instead, so that every connection does not claim a block it never uses.
+ *
+ * <p>Sequence numbers are backed by a {@code long} and padded to at least four digits, so the first
+ * IDs read {@code GIC0001}, {@code GIC0002} and so on, and numbers past {@code GIC9999} simply grow
+ * a digit ({@code GIC10000}) instead of wrapping or colliding.
  */
 public class BookingIdGenerator {
 
   /** Constant prefix used at the start of each generated ID. */
   public static final String PREFIX = "GIC";
 
+  /** The minimum number of digits following the prefix. */
+  private static final int MIN_DIGITS = 4;
+
+  /** The number of sequence numbers a thread takes from the shared counter at a time. */
+  private static final int BLOCK_SIZE = 256;
+
   /** Private constructor to prevent instantiation of this utility class. */
   private BookingIdGenerator() {}
 
-  /** Tracks the current count for generated IDs. */
-  private static int currentCount = 0;
+  /** The next sequence number not yet handed out or claimed as part of a block. */
+  private static final AtomicLong nextBlock = new AtomicLong(1);
+
+  /** The block of sequence numbers owned by each thread. */
+  private static final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
 
   /**
-   * Returns the next unique booking ID. Increments the internal counter and formats the result as a
-   * zero-padded 4-digit number with the prefix.
+   * Returns the next unique booking ID. Takes the next number from the calling thread's block,
+   * claiming a fresh block when it runs out, and appends it to the prefix.
    *
    * @return the next booking ID string
    */
   public static String nextId() {
-    return PREFIX + pad(++currentCount);
+    Block block = blocks.get();
+    if (block.next == block.end) {
+      block.next = nextBlock.getAndAdd(BLOCK_SIZE);
+      block.end = block.next + BLOCK_SIZE;
+    }
+    return encode(block.next++);
   }
 
   /**
-   * Formats a numerical value to a zero-padded string with a width of 4 digits.
+   * Returns the next unique booking ID, taking its number straight from the shared counter. Costs
+   * an atomic update per ID, but wastes no numbers on threads that only ever need one.
    *
-   * @param number the numerical value to format
-   * @return the zero-padded string
+   * @return the next booking ID string
    */
-  private static String pad(int number) {
-    return String.format("%04d", number);
+  public static String nextSharedId() {
+    return encode(nextBlock.getAndIncrement());
+  }
+
+  /**
+   * Writes the prefix followed by the number, zero-padded to at least {@link #MIN_DIGITS} digits,
+   * straight into a character buffer.
+   *
+   * @param number the non-negative sequence number
+   * @return the booking ID string
+   */
+  static String encode(long number) {
+    int digits = Math.max(MIN_DIGITS, decimalLength(number));
+    char[] chars = new char[PREFIX.length() + digits];
+    PREFIX.getChars(0, PREFIX.length(), chars, 0);
+    for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+      chars[i] = (char) ('0' + number % 10);
+      number /= 10;
+    }
+    return new String(chars);
+  }
+
+  private static int decimalLength(long number) {
+    int length = 1;
+    for (long limit = 10; length < 19 && number >= limit; limit *= 10) {
+      length++;
+    }
+    return length;
+  }
+
+  /** A range of sequence numbers owned by a single thread. */
+  private static class Block {
+    /** The next number to hand out. */
+    private long next;
+
+    /** The end of the range (exclusive). */
+    private long end;
   }
 }
@@ -2,15 +2,20 @@ package io.yang.booking.option;
 
 import io.yang.cinema.Cinema;
 import io.yang.booking.command.BookSeat;
-
-import java.util.Scanner;
+import io.yang.booking.strategy.CentreOutStrategy;
+import io.yang.booking.strategy.SeatSelectionStrategy;
+import io.yang.console.ConsoleIO;
 
 public class BookOption extends Option {
 
   private final Cinema cinema;
 
-  public BookOption(Cinema cinema, Scanner scanner) {
-    super("Book tickets for %s (%s seats available)", new BookSeat(cinema, scanner));
+  public BookOption(Cinema cinema, ConsoleIO console) {
+    this(cinema, console, new CentreOutStrategy());
+  }
+
+  public BookOption(Cinema cinema, ConsoleIO console, SeatSelectionStrategy strategy) {
+    super("Book tickets for %s (%s seats available)", new BookSeat(cinema, console, strategy));
     this.cinema = cinema;
   }
 
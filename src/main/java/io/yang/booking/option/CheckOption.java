@@ -2,12 +2,11 @@ package io.yang.booking.option;
 
 import io.yang.booking.command.CheckBooking;
 import io.yang.cinema.Cinema;
-
-import java.util.Scanner;
+import io.yang.console.ConsoleIO;
 
 public class CheckOption extends Option {
 
-  public CheckOption(Cinema cinema, Scanner scanner) {
-    super("Check bookings", new CheckBooking(cinema, scanner));
+  public CheckOption(Cinema cinema, ConsoleIO console) {
+    super("Check bookings", new CheckBooking(cinema, console));
   }
 }
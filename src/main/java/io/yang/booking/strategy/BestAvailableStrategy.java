@@ -0,0 +1,144 @@
+package io.yang.booking.strategy;
+
+import io.yang.cinema.SeatMap;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Selects the most desirable seats still available, wherever they are in the hall.
+ *
+ * <p>Every seat of a hall layout is scored once by a {@link Desirability} function, and the seats
+ * are ranked from most to least desirable. The ranking is kept per layout, so all screenings in
+ * halls of the same size share it. Selecting seats then only walks the ranking and skips seats
+ * whose occupancy bit is set; no geometry is computed per request.
+ *
+ * <p>The seats are chosen individually, so a party may be seated apart when the best seats are
+ * scattered.
+ */
+public class BestAvailableStrategy implements SeatSelectionStrategy {
+
+  /** Scores a seat of a hall layout. Row 0 is the row nearest the screen. */
+  @FunctionalInterface
+  public interface Desirability {
+
+    /**
+     * Scores a seat.
+     *
+     * @param row the row index of the seat
+     * @param column the column index of the seat
+     * @param rows the number of rows in the hall
+     * @param seatsPerRow the number of seats in each row
+     * @return the score of the seat; a higher score is more desirable
+     */
+    double score(int row, int column, int rows, int seatsPerRow);
+  }
+
+  /**
+   * Prefers seats near the centre of the row, two thirds of the way back from the screen. The
+   * distance is measured relative to the size of the hall, so the shape of the preference is the
+   * same for every layout.
+   */
+  public static final Desirability CENTRE_OF_HALL =
+      (row, column, rows, seatsPerRow) -> {
+        double rowOffset = (row - (rows - 1) * 2.0 / 3) / rows;
+        double columnOffset = (column - (seatsPerRow - 1) / 2.0) / seatsPerRow;
+        return -(rowOffset * rowOffset + columnOffset * columnOffset);
+      };
+
+  /** How seats are scored. */
+  private final Desirability desirability;
+
+  /** The ranked seats of each layout, keyed by {@code rows << 32 | seatsPerRow}. */
+  private final Map<Long, int[]> rankings = new ConcurrentHashMap<>();
+
+  /** Creates a strategy that ranks seats with {@link #CENTRE_OF_HALL}. */
+  public BestAvailableStrategy() {
+    this(CENTRE_OF_HALL);
+  }
+
+  /**
+   * Creates a strategy that ranks seats with the given desirability function.
+   *
+   * @param desirability how seats are scored
+   */
+  public BestAvailableStrategy(Desirability desirability) {
+    this.desirability = desirability;
+  }
+
+  @Override
+  public int selectSeats(int numberOfSeats, SeatMap seatMap, int[] selection) {
+    if (selection.length < numberOfSeats) {
+      throw new IllegalArgumentException(
+          "Selection buffer must hold at least " + numberOfSeats + " seats");
+    }
+
+    int[] ranking = getRanking(seatMap.getRows(), seatMap.getSeatsPerRow());
+    int wanted = Math.min(numberOfSeats, seatMap.getAvailableSeats());
+    int count = 0;
+    for (int rank = 0; count < wanted && rank < ranking.length; rank++) {
+      int seat = ranking[rank];
+      if (seatMap.isAvailable(SeatMap.rowOf(seat), SeatMap.columnOf(seat))) {
+        selection[count++] = seat;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Retrieves the seats of a layout ranked from most to least desirable, computing the ranking the
+   * first time the layout is seen.
+   *
+   * @param rows the number of rows in the hall
+   * @param seatsPerRow the number of seats in each row
+   * @return the seats as packed coordinates, most desirable first
+   */
+  int[] getRanking(int rows, int seatsPerRow) {
+    long layout = (long) rows << 32 | seatsPerRow;
+    return rankings.computeIfAbsent(layout, ignored -> rank(rows, seatsPerRow));
+  }
+
+  /**
+   * Ranks the seats of a layout. Each seat is sorted on a single {@code long} key holding its
+   * negated score in the upper half and its row-major index in the lower half, so the sort needs no
+   * boxing and seats with equal scores keep row-major order.
+   */
+  private int[] rank(int rows, int seatsPerRow) {
+    long[] keys = new long[rows * seatsPerRow];
+    for (int row = 0; row < rows; row++) {
+      for (int column = 0; column < seatsPerRow; column++) {
+        int seatIndex = row * seatsPerRow + column;
+        float cost = (float) -desirability.score(row, column, rows, seatsPerRow);
+        keys[seatIndex] = (long) sortableBits(cost) << 32 | seatIndex;
+      }
+    }
+    Arrays.sort(keys);
+
+    int[] ranking = new int[keys.length];
+    for (int rank = 0; rank < keys.length; rank++) {
+      int seatIndex = (int) keys[rank];
+      ranking[rank] = SeatMap.pack(seatIndex / seatsPerRow, seatIndex % seatsPerRow);
+    }
+    return ranking;
+  }
+
+  /** Maps a float to an int whose signed order matches the order of the floats. */
+  private static int sortableBits(float value) {
+    int bits = Float.floatToIntBits(value + 0.0f);
+    return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+  }
+
+  /** Two strategies ranking seats by the same desirability offer the same seats. */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || o.getClass() != getClass()) return false;
+    return desirability.equals(((BestAvailableStrategy) o).desirability);
+  }
+
+  @Override
+  public int hashCode() {
+    return desirability.hashCode();
+  }
+}
@@ -0,0 +1,27 @@
+package io.yang.booking.strategy;
+
+import io.yang.booking.SeatSelector;
+import io.yang.cinema.SeatMap;
+
+/**
+ * The standard selection policy: rows are filled from the back of the hall, and within each row
+ * seats are taken working outwards from the centre.
+ */
+public class CentreOutStrategy implements SeatSelectionStrategy {
+
+  @Override
+  public int selectSeats(int numberOfSeats, SeatMap seatMap, int[] selection) {
+    return SeatSelector.selectSeats(numberOfSeats, seatMap, selection);
+  }
+
+  /** The strategy is stateless, so every instance selects the same seats. */
+  @Override
+  public boolean equals(Object o) {
+    return o != null && o.getClass() == getClass();
+  }
+
+  @Override
+  public int hashCode() {
+    return getClass().hashCode();
+  }
+}
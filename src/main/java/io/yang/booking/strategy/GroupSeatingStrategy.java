@@ -0,0 +1,230 @@
+package io.yang.booking.strategy;
+
+import io.yang.booking.SeatSelector.Position;
+import io.yang.cinema.SeatMap;
+
+import java.util.BitSet;
+
+/**
+ * Seats a group side by side, placing it so that as few seats as possible are stranded.
+ *
+ * <p>A free seat with no free neighbour is an orphan: it can only be sold to a single customer and
+ * often stays empty. For every free run long enough to hold the group, a handful of candidate
+ * placements are scored, first by the orphans they would leave at either end of the run and then by
+ * how far they are from the centre of the row (or from the chosen position). Rows are searched
+ * from the back of the hall, like the standard policy, and the search stops at the first row with
+ * a placement that leaves no orphans. When a position is chosen, rows are instead searched outwards
+ * from the position's row, and a row further away only wins if it strands fewer seats by more than
+ * its extra distance is worth. Rows too short for the group are skipped in constant time
+ * using the seat map's free-run index, and within a row only runs that can hold the group are
+ * visited, so a full-size hall is answered in microseconds.
+ *
+ * <p>If no row can hold the whole group, the group is split across as few runs as possible by
+ * taking the longest free runs first, one run per row. Should that still leave seats to find, the
+ * rest are taken from the remaining free seats, back row first.
+ */
+public class GroupSeatingStrategy implements SeatSelectionStrategy {
+
+  /** The number of bits of a placement key used for each of its distance and start fields. */
+  private static final int FIELD_BITS = 21;
+
+  /** Extracts a field of a placement key. */
+  private static final long FIELD_MASK = (1L << FIELD_BITS) - 1;
+
+  /** How many rows away from a chosen position a group may be moved to strand one seat fewer. */
+  private static final int ORPHAN_PENALTY_ROWS = 2;
+
+  @Override
+  public int selectSeats(int numberOfSeats, SeatMap seatMap, int[] selection) {
+    checkCapacity(numberOfSeats, selection);
+    if (numberOfSeats <= 0) return 0;
+
+    long bestKey = -1;
+    int bestRow = -1;
+    for (int row = seatMap.getRows() - 1; row >= 0; row--) {
+      long key = bestPlacement(seatMap, row, numberOfSeats, seatMap.getSeatsPerRow());
+      if (key >= 0 && (bestRow < 0 || orphans(key) < orphans(bestKey))) {
+        bestKey = key;
+        bestRow = row;
+        if (orphans(key) == 0) break;
+      }
+    }
+
+    if (bestRow < 0) return selectSplit(numberOfSeats, seatMap, selection);
+    return writeBlock(bestRow, start(bestKey), numberOfSeats, selection, 0);
+  }
+
+  /**
+   * Places the group as close as possible to the chosen position: the block starting at the
+   * position wins if it is free and leaves no orphans, otherwise rows are searched outwards from
+   * the position's row. Each row's best placement costs its distance from the position's row plus
+   * {@value #ORPHAN_PENALTY_ROWS} rows for every seat it strands, and the cheapest placement wins,
+   * the nearer row breaking ties. The search stops as soon as no row further out could cost less,
+   * so a placement leaving an orphan in the chosen row is only given up for a row close by. If no
+   * row can hold the group, the seats are taken as described by {@link
+   * SeatSelectionStrategy#selectSeats(int, SeatMap, Position, int[])}.
+   */
+  @Override
+  public int selectSeats(int numberOfSeats, SeatMap seatMap, Position position, int[] selection) {
+    checkCapacity(numberOfSeats, selection);
+    int startRow = position.getRowNum();
+    if (numberOfSeats <= 0 || startRow < 0 || startRow >= seatMap.getRows()) {
+      return SeatSelectionStrategy.super.selectSeats(numberOfSeats, seatMap, position, selection);
+    }
+
+    int targetCentre = 2 * position.getColNum() + numberOfSeats;
+    long bestKey = -1;
+    int bestRow = -1;
+    int bestCost = Integer.MAX_VALUE;
+    for (int offset = 0; offset < 2 * seatMap.getRows(); offset++) {
+      // Visit the position's row, then the rows in front of and behind it in turn
+      int distance = (offset + 1) / 2;
+      if (distance >= bestCost) break;
+      int row = startRow + (offset % 2 == 0 ? distance : -distance);
+      if (row < 0 || row >= seatMap.getRows()) continue;
+
+      long key = bestPlacement(seatMap, row, numberOfSeats, targetCentre);
+      if (key < 0) continue;
+      int cost = distance + ORPHAN_PENALTY_ROWS * orphans(key);
+      if (cost < bestCost) {
+        bestKey = key;
+        bestRow = row;
+        bestCost = cost;
+      }
+    }
+
+    if (bestRow < 0) {
+      return SeatSelectionStrategy.super.selectSeats(numberOfSeats, seatMap, position, selection);
+    }
+    return writeBlock(bestRow, start(bestKey), numberOfSeats, selection, 0);
+  }
+
+  /**
+   * Splits the group over the longest free runs in the hall, one run per row, taking the longest
+   * run first and the back row first among runs of equal length.
+   */
+  private static int selectSplit(int numberOfSeats, SeatMap seatMap, int[] selection) {
+    int rows = seatMap.getRows();
+    long previousRowKey = Long.MAX_VALUE;
+    int count = 0;
+    while (count < numberOfSeats) {
+      long rowKey = -1;
+      for (int row = 0; row < rows; row++) {
+        long key = (long) seatMap.getLongestFreeRun(row) * rows + row;
+        if (key >= rows && key < previousRowKey && key > rowKey) rowKey = key;
+      }
+      if (rowKey < 0) break;
+      previousRowKey = rowKey;
+
+      int row = (int) (rowKey % rows);
+      int length = (int) Math.min(numberOfSeats - count, rowKey / rows);
+      long key = bestPlacement(seatMap, row, length, seatMap.getSeatsPerRow());
+      if (key >= 0) {
+        count = writeBlock(row, start(key), length, selection, count);
+      }
+    }
+    return count < numberOfSeats ? fillRemaining(numberOfSeats, seatMap, selection, count) : count;
+  }
+
+  /** Adds any free seats not yet selected, back row first, until the group is complete. */
+  private static int fillRemaining(int numberOfSeats, SeatMap seatMap, int[] selection, int count) {
+    int seatsPerRow = seatMap.getSeatsPerRow();
+    BitSet selected = new BitSet();
+    for (int i = 0; i < count; i++) {
+      selected.set(SeatMap.rowOf(selection[i]) * seatsPerRow + SeatMap.columnOf(selection[i]));
+    }
+
+    for (int row = seatMap.getRows() - 1; row >= 0 && count < numberOfSeats; row--) {
+      int column = seatMap.nextAvailable(row, 0);
+      while (column >= 0 && count < numberOfSeats) {
+        if (!selected.get(row * seatsPerRow + column)) {
+          selection[count++] = SeatMap.pack(row, column);
+        }
+        column = seatMap.nextAvailable(row, column + 1);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Finds the best placement of a block in a row, or {@code -1} if no free run in the row can hold
+   * it. Placements are encoded as keys that order from best to worst: orphans created, then
+   * distance from the target, then the right-hand placement first.
+   *
+   * @param targetCentre twice the column the middle of the block should be nearest to
+   */
+  private static long bestPlacement(SeatMap seatMap, int row, int length, int targetCentre) {
+    int seatsPerRow = seatMap.getSeatsPerRow();
+    int target = (targetCentre - length) / 2;
+    long best = -1;
+    int from = 0;
+    while (from < seatsPerRow) {
+      int runStart = seatMap.nextFreeBlock(row, from, length);
+      if (runStart < 0) break;
+      int runEnd = seatMap.nextReserved(row, runStart);
+      if (runEnd < 0) runEnd = seatsPerRow;
+      from = runEnd + 1;
+
+      // The index may briefly lag a concurrent claim; skip runs that turn out too short
+      int latestStart = runEnd - length;
+      if (latestStart < runStart) continue;
+
+      int nearest = Math.max(runStart, Math.min(target, latestStart));
+      best = better(best, placement(runStart, runEnd, nearest, length, targetCentre));
+      best = better(best, placement(runStart, runEnd, nearest - 1, length, targetCentre));
+      best = better(best, placement(runStart, runEnd, nearest + 1, length, targetCentre));
+      best = better(best, placement(runStart, runEnd, runStart, length, targetCentre));
+      best = better(best, placement(runStart, runEnd, latestStart, length, targetCentre));
+    }
+    return best;
+  }
+
+  /** Scores the block starting at {@code start} inside the free run, or {@code -1} if it spills. */
+  private static long placement(int runStart, int runEnd, int start, int length, int targetCentre) {
+    if (start < runStart || start + length > runEnd) return -1;
+
+    int orphans = (start - runStart == 1 ? 1 : 0) + (runEnd - start - length == 1 ? 1 : 0);
+    long distance = Math.abs(2L * start + length - targetCentre);
+    return (long) orphans << (2 * FIELD_BITS)
+        | Math.min(distance, FIELD_MASK) << FIELD_BITS
+        | (FIELD_MASK - start);
+  }
+
+  private static long better(long current, long candidate) {
+    if (candidate < 0) return current;
+    return current < 0 || candidate < current ? candidate : current;
+  }
+
+  private static int orphans(long key) {
+    return (int) (key >>> (2 * FIELD_BITS));
+  }
+
+  private static int start(long key) {
+    return (int) (FIELD_MASK - (key & FIELD_MASK));
+  }
+
+  private static int writeBlock(int row, int start, int length, int[] selection, int count) {
+    for (int column = start; column < start + length; column++) {
+      selection[count++] = SeatMap.pack(row, column);
+    }
+    return count;
+  }
+
+  private static void checkCapacity(int numberOfSeats, int[] selection) {
+    if (selection.length < numberOfSeats) {
+      throw new IllegalArgumentException(
+          "Selection buffer must hold at least " + numberOfSeats + " seats");
+    }
+  }
+
+  /** Holds no configuration, so any two instances are interchangeable. */
+  @Override
+  public boolean equals(Object o) {
+    return o != null && o.getClass() == getClass();
+  }
+
+  @Override
+  public int hashCode() {
+    return getClass().hashCode();
+  }
+}
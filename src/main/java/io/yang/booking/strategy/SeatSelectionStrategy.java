@@ -0,0 +1,48 @@
+package io.yang.booking.strategy;
+
+import io.yang.booking.SeatSelector;
+import io.yang.booking.SeatSelector.Position;
+import io.yang.cinema.SeatMap;
+
+/**
+ * A policy for choosing which available seats to offer a booking.
+ *
+ * <p>Strategies write their choice into a caller-supplied buffer as {@linkplain SeatMap#pack(int,
+ * int) packed coordinates}, so that selecting seats allocates nothing. The seats are only a
+ * proposal; they are claimed afterwards, and a strategy may be asked again if another booking takes
+ * one of them first.
+ *
+ * <p>A strategy must choose seats from the seat map alone, so that the same map always yields the
+ * same selection. Selections are then cached per strategy, and strategies that would select the
+ * same seats should be {@linkplain Object#equals(Object) equal} so that they share cached entries.
+ */
+public interface SeatSelectionStrategy {
+
+  /**
+   * Selects up to {@code numberOfSeats} available seats when the customer has not asked for a
+   * position.
+   *
+   * @param numberOfSeats the number of seats to select
+   * @param seatMap the seat map to select from
+   * @param selection the buffer receiving the packed seats, from index 0
+   * @return the number of seats written, which is less than requested if too few are available
+   * @throws IllegalArgumentException if the buffer cannot hold {@code numberOfSeats} seats
+   */
+  int selectSeats(int numberOfSeats, SeatMap seatMap, int[] selection);
+
+  /**
+   * Selects up to {@code numberOfSeats} available seats starting from a position chosen by the
+   * customer. By default the seats are taken as described by {@link SeatSelector#selectSeats(int,
+   * SeatMap, Position, int[])}.
+   *
+   * @param numberOfSeats the number of seats to select
+   * @param seatMap the seat map to select from
+   * @param position the position chosen by the customer
+   * @param selection the buffer receiving the packed seats, from index 0
+   * @return the number of seats written, which is less than requested if too few are available
+   * @throws IllegalArgumentException if the buffer cannot hold {@code numberOfSeats} seats
+   */
+  default int selectSeats(int numberOfSeats, SeatMap seatMap, Position position, int[] selection) {
+    return SeatSelector.selectSeats(numberOfSeats, seatMap, position, selection);
+  }
+}
@@ -0,0 +1,53 @@
+package io.yang.cinema;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces the retries of an optimistic operation that keeps losing to other threads.
+ *
+ * <p>On a multiprocessor the first few retries only spin briefly, since a lost claim on the seat
+ * map usually means another booking succeeded and a fresh attempt will see its result at once.
+ * Later retries park the thread for a random time whose ceiling doubles with every failure, up to
+ * a millisecond, so threads that keep getting in each other's way fall out of step instead of
+ * retrying in lockstep.
+ *
+ * <p>A backoff belongs to a single retry loop and is not safe for concurrent use.
+ */
+public final class Backoff {
+
+  /**
+   * The number of failures answered by spinning before the thread is parked. A single processor
+   * never spins, as the thread it waits for cannot run until this one gives up the processor.
+   */
+  private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 4 : 0;
+
+  /** The ceiling of the first park, in nanoseconds. */
+  private static final long MIN_PARK_NANOS = 1_000;
+
+  /** The ceiling no park exceeds, in nanoseconds. */
+  private static final long MAX_PARK_NANOS = 1_000_000;
+
+  /** The number of failures paused for so far. */
+  private int failures;
+
+  /** Waits before the next retry, for longer the more retries have failed before. */
+  public void pause() {
+    failures++;
+    if (failures <= SPINS) {
+      Thread.onSpinWait();
+      return;
+    }
+    long ceiling = Math.min(MAX_PARK_NANOS, MIN_PARK_NANOS << Math.min(failures - SPINS - 1, 20));
+    LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+  }
+
+  /**
+   * Retrieves the number of times {@link #pause()} has been called.
+   *
+   * @return The number of failed attempts paused for.
+   */
+  public int getFailures() {
+    return failures;
+  }
+}
@@ -0,0 +1,274 @@
+package io.yang.cinema;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns booking IDs into small integer handles and maps each handle to the seats it owns.
+ *
+ * <p>A booking ID is given a handle when it starts reserving seats in the screening. Seats store
+ * the handle instead of the ID, so telling whose seat is whose is an integer comparison and the
+ * {@code GIC####} ID is only looked up when it is shown to a user. Handle {@link #NO_BOOKING} is
+ * never assigned and marks an available seat.
+ *
+ * <p>A handle is freed once its booking owns no seats and no update is under way for it, and freed
+ * handles are given to later bookings, so the number of handles in use is bounded by the bookings
+ * holding seats rather than by every booking the screening has ever seen. Updates {@linkplain
+ * #pin(String) pin} the handle they work on so that it cannot be freed under them. Lookups by ID go
+ * through the booking's entry rather than its handle, so they never read the seats of a later
+ * booking that was given the same handle.
+ *
+ * <p>Seats are stored as row-major seat indexes in a small growable array per booking, so adding,
+ * removing and listing seats costs time in proportion to the size of the booking rather than the
+ * size of the hall.
+ *
+ * <p>The index is safe for concurrent use. Updates to a single booking are applied atomically,
+ * while updates to different bookings do not contend with each other.
+ */
+class BookingIndex {
+
+  /** The handle of no booking, stored for seats that are available. */
+  static final int NO_BOOKING = 0;
+
+  /** An empty result shared by lookups of bookings without seats. */
+  private static final int[] NO_SEATS = new int[0];
+
+  /** The entry of every booking that holds a handle. */
+  private final Map<String, Entry> handles = new ConcurrentHashMap<>();
+
+  /**
+   * The entry of every handle, indexed by handle. Grown under the index's lock and republished as
+   * a whole, so readers holding a handle always find an entry. The entry of a freed handle stays
+   * in place until the handle is assigned again.
+   */
+  private volatile Entry[] entries = new Entry[16];
+
+  /** The next handle never assigned before. Guarded by {@code this}. */
+  private int nextHandle = NO_BOOKING + 1;
+
+  /** Handles freed and waiting to be assigned again, as a stack. Guarded by {@code this}. */
+  private int[] freeHandles = new int[16];
+
+  /** The number of handles in {@link #freeHandles}. Guarded by {@code this}. */
+  private int freeCount;
+
+  /**
+   * Retrieves the handle of a booking ID, assigning one if the ID holds none, and keeps the handle
+   * from being freed until it is {@linkplain #unpin(int) unpinned}.
+   *
+   * @param bookingId The booking ID.
+   * @return The handle of the booking.
+   */
+  int pin(String bookingId) {
+    while (true) {
+      Entry entry = handles.get(bookingId);
+      if (entry == null) entry = handles.computeIfAbsent(bookingId, this::assign);
+      if (entry.pin()) return entry.handle;
+
+      // The entry was freed after it was looked up, so it is about to leave the map
+      handles.remove(bookingId, entry);
+    }
+  }
+
+  /**
+   * Pins the handle of a booking ID in the same way as {@link #pin(String)}, without assigning one.
+   *
+   * @param bookingId The booking ID.
+   * @return The pinned handle of the booking, or {@link #NO_BOOKING} if the ID holds no handle.
+   */
+  int pinIfPresent(String bookingId) {
+    Entry entry = handles.get(bookingId);
+    return entry != null && entry.pin() ? entry.handle : NO_BOOKING;
+  }
+
+  /**
+   * Releases a pin taken by {@link #pin(String)} or {@link #pinIfPresent(String)}, freeing the
+   * handle if its booking owns no seats and no other pin is held.
+   *
+   * @param handle The pinned handle, or {@link #NO_BOOKING} for none.
+   */
+  void unpin(int handle) {
+    if (handle == NO_BOOKING) return;
+    Entry entry = entries[handle];
+    if (entry.unpin()) free(entry);
+  }
+
+  private synchronized Entry assign(String bookingId) {
+    int handle;
+    Entry[] current = entries;
+    if (freeCount > 0) {
+      handle = freeHandles[--freeCount];
+    } else {
+      handle = nextHandle++;
+      if (handle == current.length) {
+        current = Arrays.copyOf(current, handle * 2);
+      }
+    }
+    Entry entry = new Entry(handle, bookingId);
+    current[handle] = entry;
+    entries = current;
+    return entry;
+  }
+
+  private void free(Entry entry) {
+    handles.remove(entry.bookingId, entry);
+    synchronized (this) {
+      if (freeCount == freeHandles.length) {
+        freeHandles = Arrays.copyOf(freeHandles, freeCount * 2);
+      }
+      freeHandles[freeCount++] = entry.handle;
+    }
+  }
+
+  /**
+   * Retrieves the booking ID behind a handle.
+   *
+   * @param handle The handle of the booking.
+   * @return The booking ID, or {@code null} for {@link #NO_BOOKING}.
+   */
+  String bookingId(int handle) {
+    return handle == NO_BOOKING ? null : entries[handle].bookingId;
+  }
+
+  /**
+   * Records that the given booking owns the seat at the specified index. The caller must hold a
+   * pin on the handle.
+   *
+   * @param handle The handle of the booking.
+   * @param seatIndex The row-major index of the seat.
+   */
+  void add(int handle, int seatIndex) {
+    entries[handle].add(seatIndex);
+  }
+
+  /**
+   * Records that the given booking no longer owns the seat at the specified index, freeing the
+   * handle if that was its last seat and no pin is held.
+   *
+   * @param handle The handle of the booking.
+   * @param seatIndex The row-major index of the seat.
+   */
+  void remove(int handle, int seatIndex) {
+    Entry entry = entries[handle];
+    if (entry.remove(seatIndex)) free(entry);
+  }
+
+  /**
+   * Removes every seat from a booking. The caller must hold a pin on the handle, and the handle is
+   * freed when the pin is released.
+   *
+   * @param handle The handle of the booking.
+   * @return The row-major indexes of the seats the booking owned.
+   */
+  int[] removeAll(int handle) {
+    return handle == NO_BOOKING ? NO_SEATS : entries[handle].drain();
+  }
+
+  /**
+   * Checks whether the given booking owns any seats.
+   *
+   * @param bookingId The booking ID, or {@code null}.
+   * @return {@code true} if the booking owns at least one seat; {@code false} otherwise.
+   */
+  boolean contains(String bookingId) {
+    Entry entry = bookingId == null ? null : handles.get(bookingId);
+    return entry != null && !entry.isEmpty();
+  }
+
+  /**
+   * Retrieves the seats owned by the given booking.
+   *
+   * @param bookingId The booking ID, or {@code null}.
+   * @return The row-major indexes of the seats, in the order they were reserved.
+   */
+  int[] get(String bookingId) {
+    Entry entry = bookingId == null ? null : handles.get(bookingId);
+    return entry == null ? NO_SEATS : entry.toArray();
+  }
+
+  /**
+   * Retrieves the seats owned by the given booking. The caller must hold a pin on the handle.
+   *
+   * @param handle The handle of the booking.
+   * @return The row-major indexes of the seats, in the order they were reserved.
+   */
+  int[] get(int handle) {
+    return handle == NO_BOOKING ? NO_SEATS : entries[handle].toArray();
+  }
+
+  /**
+   * Counts the handles assigned to bookings, whether or not they own seats.
+   *
+   * @return The number of handles in use.
+   */
+  synchronized int handlesInUse() {
+    return nextHandle - (NO_BOOKING + 1) - freeCount;
+  }
+
+  /** A booking ID, its handle and the growable list of seat indexes it owns. */
+  private static class Entry {
+    private final int handle;
+    private final String bookingId;
+    private int[] seats = NO_SEATS;
+    private int size;
+    private int pins;
+    private boolean freed;
+
+    Entry(int handle, String bookingId) {
+      this.handle = handle;
+      this.bookingId = bookingId;
+    }
+
+    synchronized boolean pin() {
+      if (freed) return false;
+      pins++;
+      return true;
+    }
+
+    /** Returns {@code true} if the entry was freed by this call. */
+    synchronized boolean unpin() {
+      pins--;
+      return retireIfUnused();
+    }
+
+    synchronized void add(int seatIndex) {
+      if (size == seats.length) {
+        seats = Arrays.copyOf(seats, Math.max(4, size * 2));
+      }
+      seats[size++] = seatIndex;
+    }
+
+    /** Returns {@code true} if the entry was freed by this call. */
+    synchronized boolean remove(int seatIndex) {
+      for (int i = 0; i < size; i++) {
+        if (seats[i] == seatIndex) {
+          System.arraycopy(seats, i + 1, seats, i, size - i - 1);
+          size--;
+          break;
+        }
+      }
+      return retireIfUnused();
+    }
+
+    private boolean retireIfUnused() {
+      if (freed || pins > 0 || size > 0) return false;
+      freed = true;
+      return true;
+    }
+
+    synchronized boolean isEmpty() {
+      return size == 0;
+    }
+
+    synchronized int[] toArray() {
+      return Arrays.copyOf(seats, size);
+    }
+
+    synchronized int[] drain() {
+      int[] drained = toArray();
+      size = 0;
+      return drained;
+    }
+  }
+}
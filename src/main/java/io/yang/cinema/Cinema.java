@@ -2,76 +2,123 @@ package io.yang.cinema;
 
 import io.yang.init.CinemaConfiguration;
 
-import java.util.Arrays;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.IntStream;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a Cinema instance, which manages information about a particular movie screening and
  * the booked or available seats within the cinema hall.
+ *
+ * <p>Seats of a booking may be placed on hold while the customer is still deciding. A held booking
+ * keeps its seats only until its hold expires, at which point the seats are released by the {@link
+ * HoldTimer}; confirming the booking before then keeps the seats for good.
  */
 public class Cinema {
 
+  /** How long seats stay on hold unless the booking is confirmed. */
+  public static final Duration DEFAULT_HOLD_TTL = Duration.ofMinutes(5);
+
   /** The title of the movie being shown in this cinema. */
   private final String movieTitle;
 
   /**
-   * A 2D array representing the seating arrangement in the cinema, organized by rows and seats per
-   * row.
+   * The seat-state engine holding occupancy and booking ownership for every seat in the hall,
+   * organized by rows and seats per row.
    */
-  private final Seat[][] seats;
+  private final SeatMap seatMap;
+
+  /** The timer that expires holds. */
+  private final HoldTimer holdTimer;
+
+  /** How long seats stay on hold unless the booking is confirmed. */
+  private final Duration holdTtl;
+
+  /** The hold of every booking that is on hold, keyed by booking ID. */
+  private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+
+  /** The latest seat selections for common party sizes, reused until the seat map changes. */
+  private final SelectionCache selectionCache;
+
+  /** The rendered seat map, of which only changed rows are rendered again. */
+  private final RenderCache renderCache;
 
   /**
    * Constructs a Cinema instance using the provided {@link CinemaConfiguration}. Initializes the
-   * movie title and seating arrangement based on the configuration.
+   * movie title and seating arrangement based on the configuration. Holds expire after {@link
+   * #DEFAULT_HOLD_TTL} on the {@linkplain HoldTimer#shared() shared timer}.
    *
    * @param config The configuration object containing movie title, number of rows, and number of
    *     seats per row.
    */
   public Cinema(CinemaConfiguration config) {
+    this(config, HoldTimer.shared(), DEFAULT_HOLD_TTL);
+  }
+
+  /**
+   * Constructs a Cinema instance whose holds expire on the given timer.
+   *
+   * @param config The configuration object containing movie title, number of rows, and number of
+   *     seats per row.
+   * @param holdTimer The timer that expires holds.
+   * @param holdTtl How long seats stay on hold unless the booking is confirmed.
+   */
+  public Cinema(CinemaConfiguration config, HoldTimer holdTimer, Duration holdTtl) {
     movieTitle = config.getMovieTitle();
-    seats = initSeats(config.getRows(), config.getSeatsPerRow());
+    seatMap = new SeatMap(config.getRows(), config.getSeatsPerRow());
+    this.holdTimer = holdTimer;
+    this.holdTtl = holdTtl;
+    selectionCache = new SelectionCache(seatMap);
+    renderCache = new RenderCache(seatMap);
   }
 
   /**
-   * Initializes the seating arrangement for the cinema.
+   * Retrieves the title of the movie being shown in this cinema.
    *
-   * @param rows The number of rows in the cinema.
-   * @param seatsPerRow The number of seats in each row.
-   * @return A 2D array representing the initialized seating arrangement.
+   * @return The title of the movie.
    */
-  private Seat[][] initSeats(int rows, int seatsPerRow) {
-    return IntStream.range(0, rows)
-        .mapToObj(ignored -> initRow(seatsPerRow))
-        .toArray(Seat[][]::new);
+  public String getMovieTitle() {
+    return movieTitle;
   }
 
   /**
-   * Initializes a single row within the cinema, creating the specified number of seats.
+   * Retrieves the seating arrangement of the cinema.
    *
-   * @param seatsPerRow The number of seats to create in the row.
-   * @return An array representing a row of seats.
+   * @return The {@link SeatMap} holding the state of every seat.
    */
-  private Seat[] initRow(int seatsPerRow) {
-    return IntStream.range(0, seatsPerRow).mapToObj(ignored -> new Seat()).toArray(Seat[]::new);
+  public SeatMap getSeatMap() {
+    return seatMap;
   }
 
   /**
-   * Retrieves the title of the movie being shown in this cinema.
+   * Retrieves the modification version of the screening, which advances whenever a seat is reserved
+   * or released.
    *
-   * @return The title of the movie.
+   * @return The current version of the seat map.
    */
-  public String getMovieTitle() {
-    return movieTitle;
+  public long getVersion() {
+    return seatMap.getVersion();
   }
 
   /**
-   * Retrieves the seating arrangement of the cinema.
+   * Retrieves the cache of recent seat selections, which serves repeated previews of the same party
+   * size without selecting again until the seat map changes.
+   *
+   * @return The selection cache of this screening.
+   */
+  public SelectionCache getSelectionCache() {
+    return selectionCache;
+  }
+
+  /**
+   * Retrieves the rendered seat map of this screening, kept up to date row by row.
    *
-   * @return A 2D array of {@link Seat} objects, representing the seating arrangement.
+   * @return The render cache of this screening.
    */
-  public Seat[][] getSeats() {
-    return seats;
+  RenderCache getRenderCache() {
+    return renderCache;
   }
 
   /**
@@ -83,21 +130,32 @@ public class Cinema {
    *     empty {@link Optional} if the row or seat index is out of bounds.
    */
   public Optional<Seat> getSeat(int row, int seatNum) {
-    return row < 0 || row >= seats.length || seatNum < 0 || seatNum >= seats[row].length
-        ? Optional.empty()
-        : Optional.of(seats[row][seatNum]);
+    return seatMap.contains(row, seatNum)
+        ? Optional.of(seatMap.getSeat(row, seatNum))
+        : Optional.empty();
   }
 
   /**
-   * Calculates the number of available seats in the cinema by checking all seats.
+   * Retrieves the number of available seats in the cinema. The count is maintained as seats are
+   * reserved and released, so this runs in constant time regardless of the size of the hall.
    *
    * @return The number of seats that are currently available (not occupied).
    */
   public int getAvailableSeatsCount() {
-    return (int) Arrays.stream(seats).flatMap(Arrays::stream).filter(Seat::isAvailable).count();
+    return seatMap.getAvailableSeats();
+  }
+
+  /**
+   * Retrieves the number of available seats in a single row in constant time.
+   *
+   * @param row The row index.
+   * @return The number of seats in the row that are currently available (not occupied).
+   * @throws IndexOutOfBoundsException if the row index is out of bounds.
+   */
+  public int getAvailableSeatsCount(int row) {
+    return seatMap.getAvailableSeats(row);
   }
-  
-  
+
   /**
    * Checks if the cinema has enough available seats to accommodate a specific number of seats.
    *
@@ -109,14 +167,217 @@ public class Cinema {
   }
 
   /**
-   * Releases all seats associated with a specific booking ID, making them available again.
+   * Checks whether a booking with the given ID currently holds any seats.
+   *
+   * @param bookingId The ID of the booking to look up.
+   * @return {@code true} if the booking holds at least one seat; {@code false} otherwise.
+   */
+  public boolean hasBooking(String bookingId) {
+    return seatMap.hasBooking(bookingId);
+  }
+
+  /**
+   * Retrieves the seats held by a specific booking ID.
+   *
+   * @param bookingId The ID of the booking to look up.
+   * @return A list of the booked {@link Seat}s, or an empty list if the booking holds no seats.
+   */
+  public List<Seat> getBookedSeats(String bookingId) {
+    return seatMap.getBookedSeats(bookingId);
+  }
+
+  /**
+   * Releases all seats associated with a specific booking ID, making them available again. Only
+   * the seats of that booking are visited.
    *
    * @param bookingId The ID of the booking whose seats should be released.
    */
   public void releaseSeats(String bookingId) {
-    Arrays.stream(seats)
-        .flatMap(Arrays::stream)
-        .filter(seat -> bookingId.equals(seat.getBookingId()))
-        .forEach(Seat::release);
+    Hold[] removed = new Hold[1];
+    holds.computeIfPresent(
+        bookingId,
+        (ignored, hold) -> {
+          // A booking being moved is released by the move once it has finished
+          hold.released = true;
+          removed[0] = hold;
+          return null;
+        });
+    if (removed[0] != null) removed[0].expiry.cancel();
+    if (removed[0] == null || !removed[0].moving) seatMap.releaseBooking(bookingId);
+  }
+
+  /**
+   * Places the seats of a booking on hold. Unless the booking is confirmed within the hold time,
+   * its seats are released again. Holding a booking that is already on hold restarts its hold.
+   *
+   * @param bookingId The ID of the booking whose seats should be held.
+   */
+  public void holdSeats(String bookingId) {
+    Hold previous = holds.put(bookingId, new Hold(scheduleExpiry(bookingId), false));
+    if (previous != null) previous.expiry.cancel();
+  }
+
+  private HoldTimer.Timeout scheduleExpiry(String bookingId) {
+    HoldTimer.Timeout[] expiry = new HoldTimer.Timeout[1];
+    expiry[0] = holdTimer.schedule(() -> expireHold(bookingId, expiry[0]), holdTtl);
+    return expiry[0];
+  }
+
+  /**
+   * Moves a held booking to newly selected seats and places it on hold afresh. Only the seats that
+   * differ between the old and the new selection change hands; seats in both are never released.
+   *
+   * <p>The booking's hold entry is only locked to mark the hold as moving and, once the seats have
+   * been moved, to put the hold back, so confirming, releasing or expiring other bookings never
+   * waits for a move. While the hold is marked as moving it cannot expire: an expiry that falls due
+   * in the meantime is carried out after the move, and only if the booking was not moved, since a
+   * moved booking is held afresh. A booking confirmed during the move keeps the seats the move
+   * leaves it with, and a booking released during the move is released once the move has finished.
+   * A booking that is not on hold is never moved, so a confirmed booking cannot be put back under a
+   * hold that would later release its seats.
+   *
+   * @param bookingId The ID of the booking to move.
+   * @param numberOfSeats The number of seats the booking should end up with.
+   * @param selection The buffer receiving the packed new seats, from index 0.
+   * @param selector Chooses the new seats, seeing the booking's current seats as available.
+   * @return {@code true} if the booking was moved; {@code false} if there were not enough seats, in
+   *     which case the booking and its hold are left as they were.
+   * @throws IllegalStateException if the booking is not on hold, because it has been confirmed,
+   *     its hold has expired or it is unknown, or if it is already being moved; the booking is left
+   *     as it was.
+   * @see SeatMap#reseat(String, int, int[], SelectionCache.Selector)
+   */
+  public boolean reseat(
+      String bookingId, int numberOfSeats, int[] selection, SelectionCache.Selector selector) {
+    Hold moving = pinHold(bookingId);
+    boolean moved = false;
+    try {
+      moved = seatMap.reseat(bookingId, numberOfSeats, selection, selector);
+    } finally {
+      unpinHold(bookingId, moving, moved);
+    }
+    return moved;
+  }
+
+  /** Marks the hold of a booking as moving, so that it cannot expire until it is unpinned. */
+  private Hold pinHold(String bookingId) {
+    Hold[] moving = new Hold[1];
+    boolean[] alreadyMoving = new boolean[1];
+    holds.computeIfPresent(
+        bookingId,
+        (ignored, hold) -> {
+          if (hold.moving) {
+            alreadyMoving[0] = true;
+            return hold;
+          }
+          moving[0] = new Hold(hold.expiry, true);
+          return moving[0];
+        });
+    if (alreadyMoving[0]) {
+      throw new IllegalStateException("Booking id: " + bookingId + " is already being moved.");
+    }
+    if (moving[0] == null) {
+      throw new IllegalStateException("Booking id: " + bookingId + " is not on hold.");
+    }
+    return moving[0];
+  }
+
+  /**
+   * Puts back the hold of a booking once a move has finished: a fresh hold if the booking was
+   * moved, or the old one otherwise. A hold that was confirmed, released or replaced during the
+   * move is not put back.
+   */
+  private void unpinHold(String bookingId, Hold moving, boolean moved) {
+    HoldTimer.Timeout expiry = moving.expiry;
+    boolean[] pinned = new boolean[1];
+    holds.computeIfPresent(
+        bookingId,
+        (ignored, current) -> {
+          if (current != moving) return current;
+          pinned[0] = true;
+          if (moved) return new Hold(scheduleExpiry(bookingId), false);
+          if (moving.expired) {
+            seatMap.releaseBooking(bookingId);
+            return null;
+          }
+          return new Hold(expiry, false);
+        });
+    if (moved || !pinned[0]) expiry.cancel();
+
+    // The release arrived while the seats were being moved and was left to this thread
+    if (moving.released) seatMap.releaseBooking(bookingId);
+  }
+
+  /**
+   * Releases the seats of a held booking whose hold has run out. The booking is only released if
+   * the expired hold is still its current one, and the release happens while the hold entry is
+   * locked, so a booking confirmed or re-held concurrently keeps its seats. A booking being moved
+   * is left to the move, which releases it afterwards unless it was moved.
+   */
+  private void expireHold(String bookingId, HoldTimer.Timeout expiry) {
+    holds.computeIfPresent(
+        bookingId,
+        (ignored, current) -> {
+          if (current.expiry != expiry) return current;
+          if (current.moving) {
+            current.expired = true;
+            return current;
+          }
+          seatMap.releaseBooking(bookingId);
+          return null;
+        });
+  }
+
+  /**
+   * Confirms a held booking so that its seats are kept for good.
+   *
+   * @param bookingId The ID of the booking to confirm.
+   * @return {@code true} if the booking was on hold and is now confirmed; {@code false} if it was
+   *     not on hold, for example because the hold has already expired.
+   */
+  public boolean confirmBooking(String bookingId) {
+    Hold hold = holds.remove(bookingId);
+    if (hold == null) return false;
+
+    // An expiry already under way finds the hold gone and leaves the seats alone
+    hold.expiry.cancel();
+    return true;
+  }
+
+  /**
+   * Checks whether a booking is on hold, awaiting confirmation.
+   *
+   * @param bookingId The ID of the booking to look up.
+   * @return {@code true} if the booking's seats are held; {@code false} if the booking is
+   *     confirmed, expired or unknown.
+   */
+  public boolean isOnHold(String bookingId) {
+    return holds.containsKey(bookingId);
+  }
+
+  /**
+   * The hold of a booking. A hold marked as moving stands for the booking while its seats are being
+   * moved; its flags record the expiry or release that arrived in the meantime. They are set while
+   * the booking's hold entry is locked, but the moving thread may read them after a release has
+   * already taken the hold out of the map.
+   */
+  private static final class Hold {
+
+    /** The pending expiry of the hold. */
+    final HoldTimer.Timeout expiry;
+
+    /** Whether the booking's seats are being moved. */
+    final boolean moving;
+
+    /** Whether the hold ran out while the booking was being moved. */
+    volatile boolean expired;
+
+    /** Whether the booking was released while it was being moved. */
+    volatile boolean released;
+
+    Hold(HoldTimer.Timeout expiry, boolean moving) {
+      this.expiry = expiry;
+      this.moving = moving;
+    }
   }
 }
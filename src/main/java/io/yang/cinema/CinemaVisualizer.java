@@ -1,91 +1,95 @@
 package io.yang.cinema;
 
-import java.util.Arrays;
-import java.util.stream.Collectors;
+import io.yang.console.ConsoleIO;
 
-public class CinemaVisualizer {
+import java.io.PrintStream;
 
-  private static final int ROW_MARKER_WIDTH = 2;
-  private static final int COL_MARKER_WIDTH = 3;
-  private static final String SCREEN_LABEL = "S C R E E N";
-  private static final String DIVIDER = "-";
-  private static final String AVAILABLE_SYMBOL = ".";
-  private static final String RESERVED_BY_SELF_SYMBOL = "o";
-  private static final String RESERVED_BY_OTHER_SYMBOL = "#";
+/**
+ * Prints the seating layout of a screening, highlighting the seats of one booking.
+ *
+ * <p>Each screening keeps its rendered seat map in a {@link RenderCache}, so printing it again only
+ * renders the rows that changed since it was last shown. The whole layout reaches the output in a
+ * single write.
+ *
+ * <p>Halls larger than the {@linkplain Viewport default viewport} are shown through a window
+ * centred on the seats of the booking instead, so that what is printed, and the time spent
+ * rendering it, stay the same however large the hall grows. Windows are cut from the same cache,
+ * which only renders again the changed rows inside the window.
+ */
+public class CinemaVisualizer {
 
   private CinemaVisualizer() {}
 
-  private static String padRight(String text, int width) {
-    if (text == null) text = "";
-    int padding = width - text.length();
-    return text + " ".repeat(padding);
+  /**
+   * Visualizes the seating layout using the given booking ID to highlight which seats are reserved
+   * by the current user.
+   */
+  public static void visualize(Cinema cinema, String bookingId) {
+    visualize(cinema, bookingId, System.out);
   }
 
-  private static String padRight(char c, int width) {
-    return padRight(String.valueOf(c), width);
+  /**
+   * Visualizes the seating layout to the given output, using the given booking ID to highlight which
+   * seats are reserved by the current user. The layout, or the window onto a large hall, is written
+   * in a single call.
+   */
+  public static void visualize(Cinema cinema, String bookingId, PrintStream out) {
+    byte[] rendering = render(cinema, bookingId, defaultViewport(cinema.getSeatMap(), bookingId));
+    out.write(rendering, 0, rendering.length);
+    out.flush();
   }
 
-  private static String buildColumnMarkerLine(Cinema cinema) {
-    int columns = cinema.getSeats()[0].length;
-    StringBuilder sb = new StringBuilder(" ".repeat(ROW_MARKER_WIDTH));
-    for (int col = 0; col < columns; col++) {
-      sb.append(padRight(String.valueOf(col + 1), COL_MARKER_WIDTH));
-    }
-    return sb.toString();
+  /**
+   * Visualizes the seating layout to the given console, using the given booking ID to highlight
+   * which seats are reserved by the current user. The layout, or the window onto a large hall, joins
+   * the console's pending output and is shown the next time the console is flushed.
+   */
+  public static void visualize(Cinema cinema, String bookingId, ConsoleIO console) {
+    byte[] rendering = render(cinema, bookingId, defaultViewport(cinema.getSeatMap(), bookingId));
+    console.write(rendering, 0, rendering.length);
   }
 
-  private static String buildSeatLine(Seat[] seats, String bookingId) {
-    return Arrays.stream(seats)
-        .map(
-            seat -> {
-              if (seat.isAvailable()) {
-                return padRight(AVAILABLE_SYMBOL, COL_MARKER_WIDTH);
-              } else if (seat.getBookingId().equals(bookingId)) {
-                return padRight(RESERVED_BY_SELF_SYMBOL, COL_MARKER_WIDTH);
-              } else {
-                return padRight(RESERVED_BY_OTHER_SYMBOL, COL_MARKER_WIDTH);
-              }
-            })
-        .collect(Collectors.joining());
+  /**
+   * Visualizes a window of the seating layout to the given output, using the given booking ID to
+   * highlight which seats are reserved by the current user. Only the rows and columns inside the
+   * window are rendered, and the window is written in a single call.
+   */
+  public static void visualize(
+      Cinema cinema, String bookingId, Viewport viewport, PrintStream out) {
+    byte[] rendering = render(cinema, bookingId, viewport);
+    out.write(rendering, 0, rendering.length);
+    out.flush();
   }
 
-  private static String buildScreenLine(int width) {
-    int totalPadding = width - SCREEN_LABEL.length();
-    if (totalPadding <= 0) {
-      return SCREEN_LABEL;
-    }
-    int halfPadding = totalPadding / 2;
-    String spaces = " ".repeat(halfPadding);
-    // If totalPadding is odd, add an extra space after the initial chunk
-    return spaces + SCREEN_LABEL + spaces + ((totalPadding % 2 == 1) ? " " : "");
+  /** Visualizes the seating layout without any highlighted booking. */
+  public static void visualize(Cinema cinema) {
+    visualize(cinema, null);
   }
 
-  /** Calculates the total width needed to display the visualization, including row markers. */
-  private static int calculateTotalWidth(Cinema cinema) {
-    return ROW_MARKER_WIDTH + cinema.getSeats()[0].length * COL_MARKER_WIDTH;
+  /** Picks the whole hall if it fits the default viewport, or a window around the booking. */
+  private static Viewport defaultViewport(SeatMap seatMap, String bookingId) {
+    if (seatMap.getRows() <= Viewport.DEFAULT_ROWS
+        && seatMap.getSeatsPerRow() <= Viewport.DEFAULT_COLUMNS) {
+      return null;
+    }
+    return Viewport.around(seatMap, bookingId);
   }
 
   /**
-   * Visualizes the seating layout using the given booking ID to highlight which seats are reserved
-   * by the current user.
+   * Renders the seating layout, or a window of it, into a byte array holding nothing else.
+   *
+   * @param viewport The window to render, or {@code null} for the whole hall.
    */
-  public static void visualize(Cinema cinema, String bookingId) {
-    int width = calculateTotalWidth(cinema);
-    System.out.println(buildScreenLine(width));
-    System.out.println(DIVIDER.repeat(width));
-
-    Seat[][] allSeats = cinema.getSeats();
-    int totalRows = allSeats.length;
-    for (int row = 0; row < totalRows; row++) {
-      char rowChar = (char) ('A' + totalRows - row - 1);
-      String line = padRight(rowChar, ROW_MARKER_WIDTH) + buildSeatLine(allSeats[row], bookingId);
-      System.out.println(line);
+  private static byte[] render(Cinema cinema, String bookingId, Viewport viewport) {
+    SeatMap seatMap = cinema.getSeatMap();
+    if (viewport == null || viewport.covers(seatMap)) {
+      return cinema.getRenderCache().render(bookingId);
     }
-    System.out.println(buildColumnMarkerLine(cinema));
-  }
 
-  /** Visualizes the seating layout without any highlighted booking. */
-  public static void visualize(Cinema cinema) {
-    visualize(cinema, null);
+    if (viewport.getFirstRow() + viewport.getRows() > seatMap.getRows()
+        || viewport.getFirstColumn() + viewport.getColumns() > seatMap.getSeatsPerRow()) {
+      throw new IllegalArgumentException("Viewport must lie inside the seat map.");
+    }
+    return cinema.getRenderCache().renderWindow(bookingId, viewport);
   }
 }
@@ -0,0 +1,329 @@
+package io.yang.cinema;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A segment tree over the occupancy words of a single row that indexes runs of free seats.
+ *
+ * <p>Each leaf summarises one 64-seat bitset word and each inner node summarises the seats below
+ * it with three numbers: the length of the free run at its left edge, the length of the free run
+ * at its right edge, and the longest free run anywhere inside it. From those, finding the first
+ * word with a free seat, or the first and last place a block of {@code n} free seats fits, takes a
+ * single walk down the tree plus a scan of at most two words, so the cost grows with the logarithm
+ * of the row width rather than the width itself.
+ *
+ * <p>The occupancy words remain the source of truth. After a word changes, {@link #update(int)}
+ * recomputes its leaf from the word's current value and then its ancestors, without locking. The
+ * three numbers of a node are packed into a single {@code long}, written with compare-and-set and
+ * read with acquire semantics, so a reader never sees a node half updated. A writer that loses a
+ * race on a node recomputes it from the node's current children and tries again, and a writer that
+ * wins checks the children once more afterwards, so once the updates to a row stop, every node
+ * agrees with the words below it. A writer stops climbing at the first node its update leaves
+ * unchanged, since the ancestors above it are then up to date already or being updated by the
+ * writer that changed them.
+ *
+ * <p>A query reads each node it visits once, and sees every update published before it reads the
+ * node. Different nodes may reflect different moments of an in-flight update, so query results
+ * are candidates that must still be claimed against the occupancy bits.
+ */
+class FreeRunIndex {
+
+  /** The number of seats packed into a single bitset word. */
+  private static final int WORD_SIZE = Long.SIZE;
+
+  /** Atomic access to the words of the row's occupancy bitset. */
+  private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+  /** Atomic access to the packed summaries of the nodes. */
+  private static final VarHandle NODES = MethodHandles.arrayElementVarHandle(long[].class);
+
+  /** The bits given to each of the three numbers of a packed node. */
+  private static final int FIELD_BITS = 21;
+
+  private static final long FIELD_MASK = (1L << FIELD_BITS) - 1;
+
+  /** The row's occupancy bitset, shared with the owning {@link SeatMap}. */
+  private final long[] words;
+
+  /** The bits of the last word that address real seats. */
+  private final long lastWordMask;
+
+  /** The number of leaves, a power of two at least as large as the number of words. */
+  private final int leaves;
+
+  /**
+   * The summary of each node: the free runs at its left edge, at its right edge and the longest
+   * inside it, in seats, packed by {@link #summary(int, int, int)}. Node 1 is the root.
+   */
+  private final long[] nodes;
+
+  /**
+   * Builds the index for a row, reading the current contents of its occupancy words.
+   *
+   * @param words The row's occupancy bitset. A set bit marks a reserved seat.
+   * @param seatsPerRow The number of seats in the row.
+   */
+  FreeRunIndex(long[] words, int seatsPerRow) {
+    this.words = words;
+    int tail = seatsPerRow % WORD_SIZE;
+    this.lastWordMask = tail == 0 ? -1L : (1L << tail) - 1;
+    this.leaves = words.length <= 1 ? 1 : Integer.highestOneBit(words.length - 1) << 1;
+    this.nodes = new long[2 * leaves];
+    for (int wordIndex = 0; wordIndex < leaves; wordIndex++) {
+      nodes[leaves + wordIndex] = leaf(wordIndex);
+    }
+    for (int node = leaves - 1; node > 0; node--) {
+      nodes[node] = combine(node, spanOf(node) / 2);
+    }
+  }
+
+  /** Packs the three numbers of a node into a single value. */
+  private static long summary(int prefix, int suffix, int longest) {
+    return (long) prefix << (2 * FIELD_BITS) | (long) suffix << FIELD_BITS | longest;
+  }
+
+  private static int prefixOf(long summary) {
+    return (int) (summary >>> (2 * FIELD_BITS));
+  }
+
+  private static int suffixOf(long summary) {
+    return (int) (summary >>> FIELD_BITS & FIELD_MASK);
+  }
+
+  private static int longestOf(long summary) {
+    return (int) (summary & FIELD_MASK);
+  }
+
+  private long summaryOf(int node) {
+    return (long) NODES.getAcquire(nodes, node);
+  }
+
+  private int longest(int node) {
+    return longestOf(summaryOf(node));
+  }
+
+  /** Retrieves the free seats of a word as set bits. Padding words have no free seats. */
+  private long free(int wordIndex) {
+    if (wordIndex >= words.length) return 0;
+    long free = ~(long) WORDS.getAcquire(words, wordIndex);
+    return wordIndex == words.length - 1 ? free & lastWordMask : free;
+  }
+
+  /** Retrieves the number of seats covered by a node. */
+  private int spanOf(int node) {
+    return WORD_SIZE * (leaves >>> (31 - Integer.numberOfLeadingZeros(node)));
+  }
+
+  /** Computes the summary of a leaf from the current value of its word. */
+  private long leaf(int wordIndex) {
+    long free = free(wordIndex);
+    int run = 0;
+    for (long bits = free; bits != 0; bits &= bits << 1) {
+      run++;
+    }
+    return summary(Long.numberOfTrailingZeros(~free), Long.numberOfLeadingZeros(~free), run);
+  }
+
+  /** Computes the summary of an inner node from the current summaries of its children. */
+  private long combine(int node, int childSpan) {
+    long left = summaryOf(2 * node);
+    long right = summaryOf(2 * node + 1);
+    int prefix = prefixOf(left) == childSpan ? childSpan + prefixOf(right) : prefixOf(left);
+    int suffix = suffixOf(right) == childSpan ? childSpan + suffixOf(left) : suffixOf(right);
+    int longest =
+        Math.max(
+            Math.max(longestOf(left), longestOf(right)), suffixOf(left) + prefixOf(right));
+    return summary(prefix, suffix, longest);
+  }
+
+  /**
+   * Brings the index up to date with the current value of an occupancy word. Safe to call from
+   * several threads at once, for the same word or different ones.
+   *
+   * @param wordIndex The index of the word that changed.
+   */
+  void update(int wordIndex) {
+    int node = leaves + wordIndex;
+    if (!refresh(node, 0)) return;
+    int childSpan = WORD_SIZE;
+    for (node /= 2; node > 0; node /= 2) {
+      if (!refresh(node, childSpan)) return;
+      childSpan *= 2;
+    }
+  }
+
+  /**
+   * Recomputes a node until its summary agrees with what lies below it.
+   *
+   * @param childSpan The number of seats under each child of the node, or {@code 0} for a leaf.
+   * @return {@code true} if this call changed the node.
+   */
+  private boolean refresh(int node, int childSpan) {
+    boolean changed = false;
+    while (true) {
+      long current = summaryOf(node);
+      long computed = childSpan == 0 ? leaf(node - leaves) : combine(node, childSpan);
+      if (computed == current) return changed;
+      if (NODES.compareAndSet(nodes, node, current, computed)) changed = true;
+    }
+  }
+
+  /**
+   * Retrieves the length of the longest run of free seats in the row.
+   *
+   * @return The number of seats in the longest free run.
+   */
+  int longestRun() {
+    return longest(1);
+  }
+
+  /**
+   * Finds the first word at or after the given index that has a free seat.
+   *
+   * @param fromWord The word index to start from (inclusive).
+   * @return The index of the word, or {@code -1} if there is none.
+   */
+  int nextFreeWord(int fromWord) {
+    if (fromWord >= leaves) return -1;
+    int node = leaves + fromWord;
+    if (longest(node) > 0) return fromWord;
+
+    // Climb until a right sibling has a free seat, then descend to its leftmost such leaf
+    while (node > 1) {
+      if ((node & 1) == 0 && longest(node + 1) > 0) {
+        node++;
+        while (node < leaves) {
+          node = longest(2 * node) > 0 ? 2 * node : 2 * node + 1;
+        }
+        return node - leaves;
+      }
+      node /= 2;
+    }
+    return -1;
+  }
+
+  /**
+   * Finds the last word at or before the given index that has a free seat.
+   *
+   * @param fromWord The word index to start from (inclusive).
+   * @return The index of the word, or {@code -1} if there is none.
+   */
+  int previousFreeWord(int fromWord) {
+    if (fromWord < 0) return -1;
+    int node = leaves + Math.min(fromWord, leaves - 1);
+    if (longest(node) > 0) return node - leaves;
+
+    // Climb until a left sibling has a free seat, then descend to its rightmost such leaf
+    while (node > 1) {
+      if ((node & 1) == 1 && longest(node - 1) > 0) {
+        node--;
+        while (node < leaves) {
+          node = longest(2 * node + 1) > 0 ? 2 * node + 1 : 2 * node;
+        }
+        return node - leaves;
+      }
+      node /= 2;
+    }
+    return -1;
+  }
+
+  /**
+   * Finds the leftmost block of free seats of the given length that starts at or after a column.
+   *
+   * @param from The first column the block may start at.
+   * @param length The number of seats in the block.
+   * @return The first column of the block, or {@code -1} if no such block exists.
+   */
+  int firstBlockFrom(int from, int length) {
+    int found = searchForward(1, 0, WORD_SIZE * leaves, Math.max(from, 0), length, 0);
+    return Math.max(found, -1);
+  }
+
+  /**
+   * Finds the rightmost block of free seats of the given length that ends before a column.
+   *
+   * @param end The column the block must end before (exclusive).
+   * @param length The number of seats in the block.
+   * @return The first column of the block, or {@code -1} if no such block exists.
+   */
+  int lastBlockBefore(int end, int length) {
+    int found = searchBackward(1, 0, WORD_SIZE * leaves, end, length, 0);
+    return Math.max(found, -1);
+  }
+
+  /**
+   * Searches a subtree from left to right. {@code carry} is the length of the free run that ends
+   * just before the subtree and starts no earlier than {@code from}.
+   *
+   * @return The start of the block if found, otherwise {@code -1 - carry} for the free run that
+   *     ends at the right edge of the subtree.
+   */
+  private int searchForward(int node, int lo, int span, int from, int length, int carry) {
+    if (lo + span <= from) return -1;
+    if (lo >= from) {
+      long summary = summaryOf(node);
+      if (carry + prefixOf(summary) >= length) return lo - carry;
+      if (longestOf(summary) < length) {
+        return -1 - (prefixOf(summary) == span ? carry + span : suffixOf(summary));
+      }
+    }
+    if (node >= leaves) return scanForward(node - leaves, from, length, carry);
+
+    int half = span / 2;
+    int left = searchForward(2 * node, lo, half, from, length, carry);
+    if (left >= 0) return left;
+    return searchForward(2 * node + 1, lo + half, half, from, length, -1 - left);
+  }
+
+  /**
+   * Searches a subtree from right to left. {@code carry} is the length of the free run that starts
+   * just after the subtree and ends no later than {@code end}.
+   *
+   * @return The start of the block if found, otherwise {@code -1 - carry} for the free run that
+   *     starts at the left edge of the subtree.
+   */
+  private int searchBackward(int node, int lo, int span, int end, int length, int carry) {
+    int hi = lo + span;
+    if (lo >= end) return -1;
+    if (hi <= end) {
+      long summary = summaryOf(node);
+      if (carry + suffixOf(summary) >= length) return hi + carry - length;
+      if (longestOf(summary) < length) {
+        return -1 - (suffixOf(summary) == span ? carry + span : prefixOf(summary));
+      }
+    }
+    if (node >= leaves) return scanBackward(node - leaves, end, length, carry);
+
+    int half = span / 2;
+    int right = searchBackward(2 * node + 1, lo + half, half, end, length, carry);
+    if (right >= 0) return right;
+    return searchBackward(2 * node, lo, half, end, length, -1 - right);
+  }
+
+  private int scanForward(int wordIndex, int from, int length, int carry) {
+    long free = free(wordIndex);
+    int base = wordIndex * WORD_SIZE;
+    for (int bit = Math.max(from - base, 0); bit < WORD_SIZE; bit++) {
+      if ((free & (1L << bit)) == 0) {
+        carry = 0;
+      } else if (++carry >= length) {
+        return base + bit - length + 1;
+      }
+    }
+    return -1 - carry;
+  }
+
+  private int scanBackward(int wordIndex, int end, int length, int carry) {
+    long free = free(wordIndex);
+    int base = wordIndex * WORD_SIZE;
+    for (int bit = Math.min(end - base, WORD_SIZE) - 1; bit >= 0; bit--) {
+      if ((free & (1L << bit)) == 0) {
+        carry = 0;
+      } else if (++carry >= length) {
+        return base + bit;
+      }
+    }
+    return -1 - carry;
+  }
+}
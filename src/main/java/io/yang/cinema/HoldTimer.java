@@ -0,0 +1,286 @@
+package io.yang.cinema;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A hashed timer wheel that expires seat holds.
+ *
+ * <p>Time is divided into ticks of fixed length, and the wheel is a ring of buckets with one bucket
+ * per tick. A timeout is dropped into the bucket of the tick it is due in, together with the number
+ * of full turns of the wheel still to go. Each tick visits a single bucket, so scheduling and
+ * cancelling cost constant time and reclaiming holds never scans the hall or the holds that are not
+ * yet due, however many of them are outstanding. Expiry is accurate to one tick.
+ *
+ * <p>Timeouts may be scheduled and cancelled from any thread. They are handed to the wheel through
+ * a lock-free queue and only the thread advancing the wheel touches the buckets. The wheel is
+ * advanced either by calling {@link #advance()} or by the background thread started with {@link
+ * #start()}.
+ */
+public class HoldTimer implements AutoCloseable {
+
+  /** The length of a tick of the shared timer. */
+  private static final Duration DEFAULT_TICK = Duration.ofMillis(100);
+
+  /** The number of buckets in the shared timer, one turn of which covers 51.2 seconds. */
+  private static final int DEFAULT_WHEEL_SIZE = 512;
+
+  /** The length of a tick in nanoseconds. */
+  private final long tickNanos;
+
+  /** The ring of buckets, one per tick. Its length is a power of two. */
+  private final Timeout[] buckets;
+
+  /** Selects the bucket of a tick; one less than the number of buckets. */
+  private final int mask;
+
+  /** The source of the current time in nanoseconds. */
+  private final LongSupplier clock;
+
+  /** The time the wheel started, from which all deadlines are measured. */
+  private final long startNanos;
+
+  /** Timeouts scheduled since the wheel last advanced, waiting to be placed in a bucket. */
+  private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+
+  /** The number of ticks processed so far. Guarded by {@code this}. */
+  private long tick;
+
+  /** The thread advancing the wheel in the background, or {@code null} if not started. */
+  private ScheduledExecutorService ticker;
+
+  /**
+   * Creates a stopped timer wheel measuring time with {@link System#nanoTime()}.
+   *
+   * @param tick The length of a tick, which is also the accuracy of expiry.
+   * @param wheelSize The number of buckets, rounded up to a power of two.
+   */
+  public HoldTimer(Duration tick, int wheelSize) {
+    this(tick, wheelSize, System::nanoTime);
+  }
+
+  /**
+   * Creates a stopped timer wheel measuring time with the given clock.
+   *
+   * @param tick The length of a tick, which is also the accuracy of expiry.
+   * @param wheelSize The number of buckets, rounded up to a power of two.
+   * @param clock The source of the current time in nanoseconds.
+   */
+  HoldTimer(Duration tick, int wheelSize, LongSupplier clock) {
+    if (tick.isNegative() || tick.isZero()) {
+      throw new IllegalArgumentException("Tick must be positive.");
+    }
+    if (wheelSize <= 0 || wheelSize > 1 << 30) {
+      throw new IllegalArgumentException("Wheel size must be between 1 and 2^30.");
+    }
+
+    this.tickNanos = tick.toNanos();
+    this.buckets = new Timeout[powerOfTwoAtLeast(wheelSize)];
+    this.mask = buckets.length - 1;
+    this.clock = clock;
+    this.startNanos = clock.getAsLong();
+  }
+
+  private static int powerOfTwoAtLeast(int value) {
+    int power = Integer.highestOneBit(value);
+    return power == value ? power : power << 1;
+  }
+
+  /**
+   * Retrieves the timer shared by every screening in the process. Its background thread is started
+   * the first time it is requested.
+   *
+   * @return The shared timer.
+   */
+  public static HoldTimer shared() {
+    return Shared.TIMER;
+  }
+
+  /** Creates the shared timer on first use. */
+  private static class Shared {
+    private static final HoldTimer TIMER = new HoldTimer(DEFAULT_TICK, DEFAULT_WHEEL_SIZE).start();
+  }
+
+  /**
+   * Schedules a task to run once the given delay has passed. The task runs on the thread advancing
+   * the wheel, so it should be short.
+   *
+   * @param task The task to run.
+   * @param delay The delay after which the task runs.
+   * @return A handle that can cancel the task.
+   */
+  public Timeout schedule(Runnable task, Duration delay) {
+    long deadline = clock.getAsLong() - startNanos + Math.max(delay.toNanos(), 0);
+    Timeout timeout = new Timeout(task, deadline);
+    pending.add(timeout);
+    return timeout;
+  }
+
+  /**
+   * Advances the wheel to the current time, running every task that has come due.
+   *
+   * @return The number of tasks run.
+   */
+  public synchronized int advance() {
+    long elapsed = clock.getAsLong() - startNanos;
+    int expired = 0;
+    while ((tick + 1) * tickNanos <= elapsed) {
+      transferPending();
+      expired += expireBucket((int) (tick & mask));
+      tick++;
+    }
+    transferPending();
+    return expired;
+  }
+
+  /** Places the pending timeouts in the buckets of the ticks they are due in. */
+  private void transferPending() {
+    Timeout timeout;
+    while ((timeout = pending.poll()) != null) {
+      if (timeout.isCancelled()) continue;
+
+      long dueTick = Math.max(timeout.deadline / tickNanos, tick);
+      timeout.remainingRounds = (dueTick - tick) / buckets.length;
+      int bucket = (int) (dueTick & mask);
+      timeout.next = buckets[bucket];
+      buckets[bucket] = timeout;
+    }
+  }
+
+  /**
+   * Runs the timeouts in a bucket that are due in the current turn of the wheel, and drops the
+   * cancelled ones. Timeouts due in a later turn stay in the bucket.
+   */
+  private int expireBucket(int bucket) {
+    int expired = 0;
+    Timeout previous = null;
+    Timeout timeout = buckets[bucket];
+    while (timeout != null) {
+      Timeout next = timeout.next;
+      boolean due = timeout.remainingRounds-- <= 0;
+      if (due || timeout.isCancelled()) {
+        if (previous == null) buckets[bucket] = next;
+        else previous.next = next;
+        timeout.next = null;
+        if (due && timeout.expire()) expired++;
+      } else {
+        previous = timeout;
+      }
+      timeout = next;
+    }
+    return expired;
+  }
+
+  /**
+   * Starts a daemon thread that advances the wheel once per tick.
+   *
+   * @return This timer.
+   */
+  public synchronized HoldTimer start() {
+    if (ticker == null) {
+      ticker =
+          Executors.newSingleThreadScheduledExecutor(
+              task -> {
+                Thread thread = new Thread(task, "hold-timer");
+                thread.setDaemon(true);
+                return thread;
+              });
+      ticker.scheduleAtFixedRate(this::advance, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+    return this;
+  }
+
+  /** Stops the background thread, if started. Timeouts not yet run are kept. */
+  @Override
+  public synchronized void close() {
+    if (ticker != null) {
+      ticker.shutdownNow();
+      ticker = null;
+    }
+  }
+
+  /** A scheduled task that can be cancelled until it runs. */
+  public static class Timeout {
+
+    private static final int WAITING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private static final VarHandle STATE;
+
+    static {
+      try {
+        STATE = MethodHandles.lookup().findVarHandle(Timeout.class, "state", int.class);
+      } catch (ReflectiveOperationException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    /** The task to run on expiry. */
+    private final Runnable task;
+
+    /** The deadline in nanoseconds since the wheel started. */
+    private final long deadline;
+
+    /** Whether the timeout is waiting, cancelled or expired. Accessed through {@link #STATE}. */
+    private volatile int state;
+
+    /** The full turns of the wheel still to go before the timeout is due. */
+    private long remainingRounds;
+
+    /** The next timeout in the same bucket. */
+    private Timeout next;
+
+    private Timeout(Runnable task, long deadline) {
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    /**
+     * Cancels the task so that it never runs.
+     *
+     * @return {@code true} if the task was cancelled; {@code false} if it has already run or been
+     *     cancelled.
+     */
+    public boolean cancel() {
+      return STATE.compareAndSet(this, WAITING, CANCELLED);
+    }
+
+    /**
+     * Checks whether the task has been cancelled.
+     *
+     * @return {@code true} if the task was cancelled before it ran; {@code false} otherwise.
+     */
+    public boolean isCancelled() {
+      return state == CANCELLED;
+    }
+
+    /**
+     * Checks whether the task has run.
+     *
+     * @return {@code true} if the timeout expired and its task ran; {@code false} otherwise.
+     */
+    public boolean isExpired() {
+      return state == EXPIRED;
+    }
+
+    private boolean expire() {
+      if (!STATE.compareAndSet(this, WAITING, EXPIRED)) return false;
+      try {
+        task.run();
+      } catch (RuntimeException e) {
+        // Keep the wheel turning; report the failure like an uncaught exception would be
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+      }
+      return true;
+    }
+  }
+}
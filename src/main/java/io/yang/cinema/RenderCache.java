@@ -0,0 +1,115 @@
+package io.yang.cinema;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the rendered seat map of a screening and re-renders only the rows that changed.
+ *
+ * <p>The cache holds one rendering shared by every viewer, in which reserved seats are not yet
+ * attributed to anyone, together with the {@linkplain SeatMap#getRowVersion(int) version} each row
+ * was rendered at. Before the rendering is shown, every row whose version has moved on is rendered
+ * again in place, and the others are left as they are. Each viewer then gets a copy of the
+ * rendering with the seats of their own booking highlighted, which takes time in proportion to the
+ * size of the booking. Showing an unchanged hall therefore costs little more than copying it out,
+ * and the cost of keeping it current grows with the number of changed rows, not the size of the
+ * hall.
+ *
+ * <p>A {@linkplain #renderWindow(String, Viewport) window} of a large hall is cut from the same
+ * rendering. Only the rows inside the window are checked and, if they changed, rendered again, so
+ * the rows of a hall are rendered the first time a window shows them and then only when they
+ * change. Showing a window costs time in proportion to the window, not the hall.
+ *
+ * <p>The shared rendering is updated and copied under the cache's lock; highlighting and writing
+ * out the copy happen outside it. Each copy is a fresh array owned by its caller, so no buffer is
+ * kept per thread, and a hall small enough to be shown whole costs a few kilobytes per view.
+ */
+class RenderCache {
+
+  private final SeatMap seatMap;
+  private final SeatMapRenderer renderer;
+
+  /** The version recorded for a row that has not been rendered yet, which no row ever has. */
+  private static final long NOT_RENDERED = -1;
+
+  /** The shared rendering, created on first use. Guarded by {@code this}. */
+  private byte[] frame;
+
+  /**
+   * The version each row was last rendered at, or {@link #NOT_RENDERED}. Guarded by {@code this}.
+   */
+  private final long[] renderedVersions;
+
+  /**
+   * Creates an empty cache for the given seat map.
+   *
+   * @param seatMap The seat map to render.
+   */
+  RenderCache(SeatMap seatMap) {
+    this.seatMap = seatMap;
+    this.renderer = new SeatMapRenderer(seatMap.getRows(), seatMap.getSeatsPerRow());
+    this.renderedVersions = new long[seatMap.getRows()];
+    Arrays.fill(renderedVersions, NOT_RENDERED);
+  }
+
+  /**
+   * Renders the seat map with the seats of the given booking highlighted.
+   *
+   * @param bookingId The booking whose seats are highlighted, or {@code null} to highlight none.
+   * @return A new array holding exactly the rendering.
+   */
+  byte[] render(String bookingId) {
+    byte[] buffer = new byte[renderer.length()];
+    copyCurrent(buffer);
+
+    int seatsPerRow = seatMap.getSeatsPerRow();
+    for (int seatIndex : seatMap.getBookedSeatIndexes(bookingId)) {
+      renderer.highlight(seatIndex / seatsPerRow, seatIndex % seatsPerRow, buffer);
+    }
+    return buffer;
+  }
+
+  /**
+   * Renders a window of the seat map with the seats of the given booking highlighted.
+   *
+   * @param bookingId The booking whose seats are highlighted, or {@code null} to highlight none.
+   * @param viewport The window to render, which must lie inside the seat map.
+   * @return A new array holding exactly the rendering of the window.
+   */
+  byte[] renderWindow(String bookingId, Viewport viewport) {
+    byte[] window = copyWindow(viewport);
+
+    int seatsPerRow = seatMap.getSeatsPerRow();
+    for (int seatIndex : seatMap.getBookedSeatIndexes(bookingId)) {
+      renderer.highlight(seatIndex / seatsPerRow, seatIndex % seatsPerRow, viewport, window);
+    }
+    return window;
+  }
+
+  /** Brings the shared rendering up to date and copies it into the buffer. */
+  private synchronized void copyCurrent(byte[] buffer) {
+    refreshRows(0, renderedVersions.length);
+    System.arraycopy(frame, 0, buffer, 0, frame.length);
+  }
+
+  /** Brings the rows inside a window up to date and copies the window out. */
+  private synchronized byte[] copyWindow(Viewport viewport) {
+    refreshRows(viewport.getFirstRow(), viewport.getFirstRow() + viewport.getRows());
+    return renderer.renderWindow(frame, viewport);
+  }
+
+  /** Renders again every row in the given range that changed since it was last rendered. */
+  private void refreshRows(int fromRow, int toRow) {
+    if (frame == null) {
+      frame = new byte[renderer.length()];
+      renderer.renderLayout(frame);
+    }
+    for (int row = fromRow; row < toRow; row++) {
+      // Read the version first, so a change made while rendering leaves the row dirty
+      long version = seatMap.getRowVersion(row);
+      if (version != renderedVersions[row]) {
+        renderedVersions[row] = version;
+        renderer.renderRow(seatMap, row, frame);
+      }
+    }
+  }
+}
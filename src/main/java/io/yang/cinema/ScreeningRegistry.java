@@ -0,0 +1,84 @@
+package io.yang.cinema;
+
+import io.yang.init.CinemaConfiguration;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds every screening served by the process, keyed by screening ID.
+ *
+ * <p>Each screening is an independent {@link Cinema} with its own seat map, so there is no state or
+ * lock shared between screenings and a busy screening never slows down a quiet one. Lookups are
+ * served by a {@link ConcurrentHashMap} and never block, even while screenings are being added or
+ * removed.
+ */
+public class ScreeningRegistry {
+
+  /** The registered screenings, keyed by screening ID. */
+  private final Map<String, Cinema> screenings = new ConcurrentHashMap<>();
+
+  /**
+   * Creates and registers a new screening.
+   *
+   * @param screeningId The unique ID of the screening.
+   * @param config The configuration of the screening's movie and hall.
+   * @return The newly registered {@link Cinema}.
+   * @throws IllegalArgumentException if the ID is blank or a screening with the same ID already
+   *     exists.
+   */
+  public Cinema register(String screeningId, CinemaConfiguration config) {
+    if (screeningId == null || screeningId.isBlank()) {
+      throw new IllegalArgumentException("Screening id cannot be empty.");
+    }
+
+    Cinema cinema = new Cinema(config);
+    if (screenings.putIfAbsent(screeningId, cinema) != null) {
+      throw new IllegalArgumentException("Screening " + screeningId + " already exists.");
+    }
+    return cinema;
+  }
+
+  /**
+   * Looks up a screening by its ID.
+   *
+   * @param screeningId The ID of the screening.
+   * @return An {@link Optional} containing the screening, or an empty {@link Optional} if no
+   *     screening is registered under the ID.
+   */
+  public Optional<Cinema> find(String screeningId) {
+    if (screeningId == null) return Optional.empty();
+    return Optional.ofNullable(screenings.get(screeningId));
+  }
+
+  /**
+   * Removes a screening from the registry. Sessions already holding the screening may continue to
+   * use it, but it can no longer be looked up.
+   *
+   * @param screeningId The ID of the screening.
+   * @return {@code true} if a screening was removed; {@code false} otherwise.
+   */
+  public boolean remove(String screeningId) {
+    return screenings.remove(screeningId) != null;
+  }
+
+  /**
+   * Retrieves the IDs of all registered screenings in ascending order.
+   *
+   * @return A snapshot of the registered screening IDs.
+   */
+  public List<String> getScreeningIds() {
+    return screenings.keySet().stream().sorted().toList();
+  }
+
+  /**
+   * Retrieves the number of registered screenings.
+   *
+   * @return The number of screenings.
+   */
+  public int size() {
+    return screenings.size();
+  }
+}
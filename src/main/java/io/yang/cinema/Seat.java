@@ -1,25 +1,55 @@
 package io.yang.cinema;
 
+import java.util.Objects;
+
 /**
  * Represents a seat in a cinema.
  *
- * <p>The {@code Seat} class allows for managing the reservation state of a seat. It provides
- * methods to check whether the seat is available, reserved, or to mark it as reserved.
+ * <p>The {@code Seat} class is a lightweight view onto a single position of a {@link SeatMap}. It
+ * holds no reservation state of its own; every query and update is delegated to the underlying
+ * map, so views can be created on demand and discarded freely.
  */
 public class Seat {
-  
-  
+
+  /** The seat map holding the state of this seat. */
+  private final SeatMap seatMap;
+
+  /** The row index of the seat. */
+  private final int row;
+
+  /** The column index of the seat within its row. */
+  private final int column;
+
+  /**
+   * Constructs a view onto the seat at the given coordinates.
+   *
+   * @param seatMap the seat map holding the state of the seat
+   * @param row the row index of the seat
+   * @param column the column index of the seat
+   */
+  Seat(SeatMap seatMap, int row, int column) {
+    this.seatMap = seatMap;
+    this.row = row;
+    this.column = column;
+  }
+
   /**
-   * The booking ID associated with the seat. This field is assigned when the seat is reserved and is
-   * {@code null} if the seat is not reserved.
+   * Retrieves the row index of the seat.
+   *
+   * @return the row index
    */
-  private String bookingId;
+  public int getRow() {
+    return row;
+  }
 
   /**
-   * Indicates whether the seat is reserved. This field is {@code true} if the seat is reserved;
-   * {@code false} otherwise.
+   * Retrieves the column index of the seat within its row.
+   *
+   * @return the column index
    */
-  private boolean reserved;
+  public int getColumn() {
+    return column;
+  }
 
   /**
    * Checks whether the seat is available for reservation.
@@ -27,7 +57,7 @@ public class Seat {
    * @return {@code true} if the seat is not reserved; {@code false} otherwise.
    */
   public boolean isAvailable() {
-    return !reserved;
+    return seatMap.isAvailable(row, column);
   }
 
   /**
@@ -36,18 +66,17 @@ public class Seat {
    * @return {@code true} if the seat is reserved; {@code false} otherwise.
    */
   public boolean isReserved() {
-    return reserved;
+    return !isAvailable();
   }
 
   /**
-   * Marks the seat as reserved with the specified booking ID. Once this method is called, 
+   * Marks the seat as reserved with the specified booking ID. Once this method is called,
    * {@code isAvailable()} will return {@code false}.
    *
    * @param bookingId the unique identifier for the booking associated with this seat
    */
   public void reserve(String bookingId) {
-    this.reserved = true;
-    this.bookingId = bookingId;
+    seatMap.reserve(row, column, bookingId);
   }
 
   /**
@@ -56,8 +85,7 @@ public class Seat {
    * true}.
    */
   public void release() {
-    this.reserved = false;
-    this.bookingId = null;
+    seatMap.release(row, column);
   }
 
   /**
@@ -66,6 +94,19 @@ public class Seat {
    * @return the booking ID of the reserved seat, or {@code null} if the seat is not reserved.
    */
   public String getBookingId() {
-    return bookingId;
+    return seatMap.getBookingId(row, column);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof Seat)) return false;
+    Seat other = (Seat) o;
+    return seatMap == other.seatMap && row == other.row && column == other.column;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(System.identityHashCode(seatMap), row, column);
   }
 }
@@ -0,0 +1,800 @@
+package io.yang.cinema;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compact seat-state engine backing a {@link Cinema}.
+ *
+ * <p>Occupancy is stored as one packed {@code long[]} bitset per row, where a set bit marks a
+ * reserved seat. Booking ownership is held separately in a row-major {@code int[]} of booking
+ * handles, which a {@link BookingIndex} maps to booking IDs and back to the seats of each booking.
+ * Searching for free or reserved seats therefore operates on whole 64-bit words instead of walking
+ * individual seat objects, and availability counts are maintained incrementally so reading them
+ * never touches the bitsets at all. Each row also keeps a {@link FreeRunIndex} over its words, so
+ * finding the next free seat or a block of free seats takes logarithmic time in the row width.
+ *
+ * <p>The map is safe for concurrent use without locks. Occupancy bits are claimed and cleared with
+ * atomic read-modify-write operations on the bitset words, so two writers can never both claim the
+ * same seat, and {@link #tryReserve(Seat[], String)} claims a whole group of seats or none of them.
+ * A booking can also be {@linkplain #reseat(String, int, int[], SelectionCache.Selector) moved} to
+ * new seats without ever letting go of the seats it keeps.
+ * Ownership is published only after a seat has been claimed, so a reader may briefly see a reserved
+ * seat without an owner. Counters may likewise trail an in-flight reservation for a moment.
+ *
+ * <p>The map carries a {@linkplain #getVersion() version} that advances after every change to a
+ * seat, so results computed from the map can be cached and reused for as long as the version stays
+ * the same.
+ */
+public class SeatMap {
+
+  /** The number of seats packed into a single bitset word. */
+  private static final int WORD_SIZE = Long.SIZE;
+
+  /** The number of times a contended move is tried before the booking keeps its seats. */
+  static final int MAX_MOVE_ATTEMPTS = 64;
+
+  /** Atomic access to the words of a row's occupancy bitset. */
+  private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+  /** Atomic access to the elements of the ownership array. */
+  private static final VarHandle OWNERS = MethodHandles.arrayElementVarHandle(int[].class);
+
+  /** The number of rows in the hall. */
+  private final int rows;
+
+  /** The number of seats in each row. */
+  private final int seatsPerRow;
+
+  /** Occupancy bitsets, one {@code long[]} per row. A set bit marks a reserved seat. */
+  private final long[][] occupancy;
+
+  /**
+   * Booking handles of reserved seats in row-major order, {@link BookingIndex#NO_BOOKING} for
+   * available seats.
+   */
+  private final int[] owners;
+
+  /** Index of the free runs in each row, kept in step with the occupancy bitsets. */
+  private final FreeRunIndex[] freeRuns;
+
+  /** Handle table of the booking IDs and the seats owned by each booking. */
+  private final BookingIndex bookingIndex = new BookingIndex();
+
+  /** The number of available seats in each row, updated on every reserve and release. */
+  private final AtomicIntegerArray availableByRow;
+
+  /** The number of available seats across the hall, updated on every reserve and release. */
+  private final AtomicInteger availableSeats;
+
+  /** The modification version, advanced after every change to a seat. */
+  private final AtomicLong version = new AtomicLong();
+
+  /** The version of each row, advanced after every reservation or release of a seat in the row. */
+  private final AtomicLongArray rowVersions;
+
+  /**
+   * Constructs an empty seat map where every seat is available.
+   *
+   * @param rows The number of rows in the hall.
+   * @param seatsPerRow The number of seats in each row.
+   */
+  public SeatMap(int rows, int seatsPerRow) {
+    this.rows = rows;
+    this.seatsPerRow = seatsPerRow;
+    this.occupancy = new long[rows][wordsPerRow(seatsPerRow)];
+    this.owners = new int[rows * seatsPerRow];
+    this.freeRuns = new FreeRunIndex[rows];
+    for (int row = 0; row < rows; row++) {
+      freeRuns[row] = new FreeRunIndex(occupancy[row], seatsPerRow);
+    }
+    this.availableByRow = new AtomicIntegerArray(rows);
+    for (int row = 0; row < rows; row++) {
+      availableByRow.set(row, seatsPerRow);
+    }
+    this.availableSeats = new AtomicInteger(rows * seatsPerRow);
+    this.rowVersions = new AtomicLongArray(rows);
+  }
+
+  private static int wordsPerRow(int seatsPerRow) {
+    return (seatsPerRow + WORD_SIZE - 1) / WORD_SIZE;
+  }
+
+  private int index(int row, int column) {
+    return row * seatsPerRow + column;
+  }
+
+  /** The number of bits a packed seat reserves for its column. */
+  private static final int COLUMN_BITS = 16;
+
+  /**
+   * Packs the coordinates of a seat into a single {@code int}, so that a selection of seats can be
+   * held in a plain {@code int[]} instead of as {@link Seat} views. The row is kept in the upper 16
+   * bits and the column in the lower 16 bits.
+   *
+   * @param row The row index.
+   * @param column The column index.
+   * @return The packed coordinates.
+   */
+  public static int pack(int row, int column) {
+    return row << COLUMN_BITS | column;
+  }
+
+  /**
+   * Retrieves the row index from packed coordinates.
+   *
+   * @param packedSeat The coordinates returned by {@link #pack(int, int)}.
+   * @return The row index.
+   */
+  public static int rowOf(int packedSeat) {
+    return packedSeat >>> COLUMN_BITS;
+  }
+
+  /**
+   * Retrieves the column index from packed coordinates.
+   *
+   * @param packedSeat The coordinates returned by {@link #pack(int, int)}.
+   * @return The column index.
+   */
+  public static int columnOf(int packedSeat) {
+    return packedSeat & ((1 << COLUMN_BITS) - 1);
+  }
+
+  /**
+   * Retrieves the number of rows in the hall.
+   *
+   * @return The number of rows.
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  /**
+   * Retrieves the number of seats in each row.
+   *
+   * @return The number of seats per row.
+   */
+  public int getSeatsPerRow() {
+    return seatsPerRow;
+  }
+
+  /**
+   * Checks whether the given coordinates fall within the hall.
+   *
+   * @param row The row index.
+   * @param column The column index.
+   * @return {@code true} if the coordinates address a seat; {@code false} otherwise.
+   */
+  public boolean contains(int row, int column) {
+    return row >= 0 && row < rows && column >= 0 && column < seatsPerRow;
+  }
+
+  /**
+   * Creates a {@link Seat} view onto the seat at the given coordinates. The view holds no state of
+   * its own, so it always reflects the current contents of this map.
+   *
+   * @param row The row index.
+   * @param column The column index.
+   * @return A view of the seat.
+   */
+  public Seat getSeat(int row, int column) {
+    return new Seat(this, row, column);
+  }
+
+  /**
+   * Creates {@link Seat} views onto a selection of seats held as {@linkplain #pack(int, int) packed
+   * coordinates}.
+   *
+   * @param packedSeats The buffer holding the packed seats.
+   * @param count The number of seats in the buffer, starting from index 0.
+   * @return Views of the seats, in buffer order.
+   */
+  public Seat[] getSeats(int[] packedSeats, int count) {
+    Seat[] seats = new Seat[count];
+    for (int i = 0; i < count; i++) {
+      seats[i] = getSeat(rowOf(packedSeats[i]), columnOf(packedSeats[i]));
+    }
+    return seats;
+  }
+
+  /**
+   * Checks whether the seat at the given coordinates is available.
+   *
+   * @param row The row index.
+   * @param column The column index.
+   * @return {@code true} if the seat is not reserved; {@code false} otherwise.
+   */
+  public boolean isAvailable(int row, int column) {
+    long word = (long) WORDS.getAcquire(occupancy[row], column / WORD_SIZE);
+    return (word & (1L << column)) == 0;
+  }
+
+  /**
+   * Atomically sets the occupancy bit of a seat, and updates the row's free-run index and the
+   * versions if the bit changed.
+   *
+   * @return {@code true} if the bit was clear before, meaning this call claimed the seat.
+   */
+  private boolean claim(int row, int column) {
+    long bit = 1L << column;
+    int wordIndex = column / WORD_SIZE;
+    long previous = (long) WORDS.getAndBitwiseOr(occupancy[row], wordIndex, bit);
+    if ((previous & bit) != 0) return false;
+
+    freeRuns[row].update(wordIndex);
+    rowVersions.incrementAndGet(row);
+    version.incrementAndGet();
+    return true;
+  }
+
+  /**
+   * Atomically clears the occupancy bit of a seat, and updates the row's free-run index and the
+   * versions if the bit changed.
+   *
+   * @return {@code true} if the bit was set before, meaning this call freed the seat.
+   */
+  private boolean unclaim(int row, int column) {
+    long bit = 1L << column;
+    int wordIndex = column / WORD_SIZE;
+    long previous = (long) WORDS.getAndBitwiseAnd(occupancy[row], wordIndex, ~bit);
+    if ((previous & bit) == 0) return false;
+
+    freeRuns[row].update(wordIndex);
+    rowVersions.incrementAndGet(row);
+    version.incrementAndGet();
+    return true;
+  }
+
+  /**
+   * Claims a seat for a booking. A seat that is clear but still owned by another booking is being
+   * {@linkplain #reseat(String, int, int[], SelectionCache.Selector) re-seated} by that booking, so
+   * the claim is undone.
+   *
+   * @return {@code true} if this call claimed the seat for the booking.
+   */
+  private boolean claimFor(int row, int column, int handle) {
+    if (!claim(row, column)) return false;
+
+    int owner = (int) OWNERS.getAcquire(owners, index(row, column));
+    if (owner == BookingIndex.NO_BOOKING || owner == handle) return true;
+    unclaim(row, column);
+    return false;
+  }
+
+  private void decrementAvailable(int row) {
+    availableByRow.decrementAndGet(row);
+    availableSeats.decrementAndGet();
+  }
+
+  private void incrementAvailable(int row) {
+    availableByRow.incrementAndGet(row);
+    availableSeats.incrementAndGet();
+  }
+
+  /**
+   * Marks the seat at the given coordinates as reserved under the specified booking ID. Reserving a
+   * seat that is already reserved only transfers its ownership. Use {@link #tryReserve(Seat[],
+   * String)} to reserve without ever taking a seat from another booking.
+   *
+   * @param row The row index.
+   * @param column The column index.
+   * @param bookingId The booking ID that owns the seat.
+   */
+  public void reserve(int row, int column, String bookingId) {
+    int handle = bookingIndex.pin(bookingId);
+    try {
+      if (claim(row, column)) {
+        decrementAvailable(row);
+        setOwner(index(row, column), handle);
+      } else {
+        setOwner(index(row, column), handle);
+        version.incrementAndGet();
+      }
+    } finally {
+      bookingIndex.unpin(handle);
+    }
+  }
+
+  /**
+   * Reserves a group of seats under the specified booking ID, all or nothing. Each seat is claimed
+   * with an atomic bit operation; if any seat turns out to be taken already, the seats claimed so
+   * far are released again and no state is changed.
+   *
+   * @param seats The seats to reserve.
+   * @param bookingId The booking ID that will own the seats.
+   * @return {@code true} if every seat was reserved; {@code false} if any seat was already taken.
+   */
+  public boolean tryReserve(Seat[] seats, String bookingId) {
+    int handle = bookingIndex.pin(bookingId);
+    try {
+      for (int claimed = 0; claimed < seats.length; claimed++) {
+        if (!claimFor(seats[claimed].getRow(), seats[claimed].getColumn(), handle)) {
+          for (int i = 0; i < claimed; i++) {
+            unclaim(seats[i].getRow(), seats[i].getColumn());
+          }
+          return false;
+        }
+      }
+
+      for (Seat seat : seats) {
+        decrementAvailable(seat.getRow());
+        setOwner(index(seat.getRow(), seat.getColumn()), handle);
+      }
+      return true;
+    } finally {
+      bookingIndex.unpin(handle);
+    }
+  }
+
+  /**
+   * Reserves a group of seats given as {@linkplain #pack(int, int) packed coordinates}, all or
+   * nothing, in the same way as {@link #tryReserve(Seat[], String)}.
+   *
+   * @param packedSeats The buffer holding the packed seats to reserve.
+   * @param count The number of seats in the buffer, starting from index 0.
+   * @param bookingId The booking ID that will own the seats.
+   * @return {@code true} if every seat was reserved; {@code false} if any seat was already taken.
+   */
+  public boolean tryReserve(int[] packedSeats, int count, String bookingId) {
+    int handle = bookingIndex.pin(bookingId);
+    try {
+      if (!claimAll(packedSeats, count, handle)) return false;
+
+      for (int i = 0; i < count; i++) {
+        int row = rowOf(packedSeats[i]);
+        decrementAvailable(row);
+        setOwner(index(row, columnOf(packedSeats[i])), handle);
+      }
+      return true;
+    } finally {
+      bookingIndex.unpin(handle);
+    }
+  }
+
+  /** Claims every packed seat for a booking, or none of them. */
+  private boolean claimAll(int[] packedSeats, int count, int handle) {
+    for (int claimed = 0; claimed < count; claimed++) {
+      if (!claimFor(rowOf(packedSeats[claimed]), columnOf(packedSeats[claimed]), handle)) {
+        for (int i = 0; i < claimed; i++) {
+          unclaim(rowOf(packedSeats[i]), columnOf(packedSeats[i]));
+        }
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Moves a booking to a newly selected group of seats, changing only the seats that differ.
+   *
+   * <p>The seats the booking holds are first cleared so that the selector sees them as available,
+   * but they stay owned by the booking and no other booking can claim them in the meantime. The
+   * selector's choice is then claimed all or nothing, as in {@link #tryReserve(int[], int,
+   * String)}, and finally the old seats that were not chosen again are released. Seats in both the
+   * old and the new selection keep their owner throughout, so they are never up for grabs, and
+   * ownership is only rewritten for the seats that actually change. Other bookings that try to
+   * claim one of the cleared seats while the move is under way select again.
+   *
+   * <p>If the chosen seats cannot all be claimed, because another booking took one of them or is
+   * moving onto it, the current seats are claimed back and the whole move is tried again after a
+   * {@linkplain Backoff short pause}, so the new selection may still overlap the old seats or sit
+   * right next to them. After {@value #MAX_MOVE_ATTEMPTS} lost attempts the move gives up and the
+   * booking keeps its current seats. The current seats are also claimed back if the selector
+   * throws.
+   *
+   * @param bookingId The booking to move.
+   * @param numberOfSeats The number of seats the booking should end up with.
+   * @param selection The buffer receiving the packed new seats, from index 0.
+   * @param selector Chooses the new seats, seeing the booking's current seats as available.
+   * @return {@code true} if the booking was moved; {@code false} if the selector could not find
+   *     enough seats or the chosen seats stayed contended, in which case the booking keeps its
+   *     current seats.
+   */
+  public boolean reseat(
+      String bookingId, int numberOfSeats, int[] selection, SelectionCache.Selector selector) {
+    int handle = bookingIndex.pin(bookingId);
+    try {
+      return reseat(handle, numberOfSeats, selection, selector);
+    } finally {
+      bookingIndex.unpin(handle);
+    }
+  }
+
+  private boolean reseat(
+      int handle, int numberOfSeats, int[] selection, SelectionCache.Selector selector) {
+    Backoff backoff = new Backoff();
+    while (true) {
+      int[] held = bookingIndex.get(handle);
+      for (int seatIndex : held) {
+        int row = seatIndex / seatsPerRow;
+        if (unclaim(row, seatIndex % seatsPerRow)) incrementAvailable(row);
+      }
+
+      int count = 0;
+      boolean claimed = false;
+      try {
+        count = selector.select(numberOfSeats, this, selection);
+        claimed = count >= numberOfSeats && claimAll(selection, count, handle);
+      } finally {
+        // Cleared seats left owned would be refused to every other booking, so they are taken back
+        // however the attempt ends, even if the selector throws
+        if (!claimed) reclaim(held, handle);
+      }
+      if (claimed) {
+        completeMove(held, selection, count, handle);
+        return true;
+      }
+      if (count < numberOfSeats || backoff.getFailures() + 1 >= MAX_MOVE_ATTEMPTS) return false;
+
+      // Another booking claimed one of the chosen seats, or is moving onto it. Try the same move
+      // again shortly rather than settling for seats that avoid the current ones
+      backoff.pause();
+    }
+  }
+
+  /**
+   * Hands the old seats that were not chosen again back to the hall and records the new seats as
+   * the booking's own. The old seats were cleared at the start of the move, so dropping their owner
+   * is all it takes to release them.
+   */
+  private void completeMove(int[] held, int[] selection, int count, int handle) {
+    int[] chosen = new int[count];
+    for (int i = 0; i < count; i++) {
+      int row = rowOf(selection[i]);
+      chosen[i] = index(row, columnOf(selection[i]));
+      decrementAvailable(row);
+    }
+    Arrays.sort(chosen);
+    for (int seatIndex : held) {
+      boolean kept = Arrays.binarySearch(chosen, seatIndex) >= 0;
+      if (!kept && (int) OWNERS.getAcquire(owners, seatIndex) == handle) {
+        setOwner(seatIndex, BookingIndex.NO_BOOKING);
+      }
+    }
+    for (int seatIndex : chosen) {
+      setOwner(seatIndex, handle);
+    }
+  }
+
+  /**
+   * Claims back the seats a booking held before an unsuccessful move. Another booking may hold one
+   * of them for an instant before it notices the seat is still owned, so such claims are retried
+   * for as long as the booking owns the seat.
+   */
+  private void reclaim(int[] held, int handle) {
+    for (int seatIndex : held) {
+      int row = seatIndex / seatsPerRow;
+      int column = seatIndex % seatsPerRow;
+      boolean claimed;
+      while (!(claimed = claimFor(row, column, handle))
+          && (int) OWNERS.getAcquire(owners, seatIndex) == handle) {
+        Thread.onSpinWait();
+      }
+      if (claimed) decrementAvailable(row);
+    }
+  }
+
+  /**
+   * Releases the seat at the given coordinates, making it available again. Releasing an available
+   * seat has no effect.
+   *
+   * @param row The row index.
+   * @param column The column index.
+   */
+  public void release(int row, int column) {
+    setOwner(index(row, column), BookingIndex.NO_BOOKING);
+    if (unclaim(row, column)) {
+      incrementAvailable(row);
+    }
+  }
+
+  /**
+   * Transfers ownership of a seat, keeping the booking index in sync with the ownership array. The
+   * caller must currently hold the seat, either by having claimed it or by owning the booking, and
+   * must hold a pin on the new owner's handle.
+   */
+  private void setOwner(int seatIndex, int handle) {
+    int previous = (int) OWNERS.getAcquire(owners, seatIndex);
+    if (previous == handle) return;
+
+    // The previous owner loses the seat only once no slot refers to it, since losing its last seat
+    // may free its handle for another booking
+    if (handle != BookingIndex.NO_BOOKING) bookingIndex.add(handle, seatIndex);
+    OWNERS.setRelease(owners, seatIndex, handle);
+    if (previous != BookingIndex.NO_BOOKING) bookingIndex.remove(previous, seatIndex);
+  }
+
+  /**
+   * Checks whether the given booking currently owns any seats.
+   *
+   * @param bookingId The booking ID.
+   * @return {@code true} if at least one seat is reserved under the booking; {@code false}
+   *     otherwise.
+   */
+  public boolean hasBooking(String bookingId) {
+    return bookingIndex.contains(bookingId);
+  }
+
+  /**
+   * Retrieves the seats reserved under the given booking, in the order they were reserved.
+   *
+   * @param bookingId The booking ID.
+   * @return Views of the booked seats, or an empty list if the booking owns no seats.
+   */
+  public List<Seat> getBookedSeats(String bookingId) {
+    int[] seatIndexes = bookingIndex.get(bookingId);
+    List<Seat> seats = new ArrayList<>(seatIndexes.length);
+    for (int seatIndex : seatIndexes) {
+      seats.add(getSeat(seatIndex / seatsPerRow, seatIndex % seatsPerRow));
+    }
+    return seats;
+  }
+
+  /**
+   * Retrieves the seats reserved under the given booking as {@linkplain #pack(int, int) packed
+   * coordinates}.
+   *
+   * @param bookingId The booking ID.
+   * @return The packed seats, in the order they were reserved, or an empty array if the booking
+   *     owns no seats.
+   */
+  public int[] getPackedBookedSeats(String bookingId) {
+    int[] seats = bookingIndex.get(bookingId);
+    for (int i = 0; i < seats.length; i++) {
+      seats[i] = pack(seats[i] / seatsPerRow, seats[i] % seatsPerRow);
+    }
+    return seats;
+  }
+
+  /**
+   * Retrieves the seats reserved under the given booking as row-major seat indexes.
+   *
+   * @param bookingId The booking ID, or {@code null}.
+   * @return The seat indexes, in the order the seats were reserved, or an empty array if the
+   *     booking owns no seats.
+   */
+  int[] getBookedSeatIndexes(String bookingId) {
+    return bookingIndex.get(bookingId);
+  }
+
+  /**
+   * Releases every seat reserved under the given booking. Only the booking's own seats are
+   * visited.
+   *
+   * @param bookingId The booking ID.
+   */
+  public void releaseBooking(String bookingId) {
+    int handle = bookingIndex.pinIfPresent(bookingId);
+    try {
+      for (int seatIndex : bookingIndex.removeAll(handle)) {
+        int row = seatIndex / seatsPerRow;
+        OWNERS.setRelease(owners, seatIndex, BookingIndex.NO_BOOKING);
+        if (unclaim(row, seatIndex % seatsPerRow)) {
+          incrementAvailable(row);
+        }
+      }
+    } finally {
+      // Unpinned only once no seat refers to the handle, since unpinning frees it
+      bookingIndex.unpin(handle);
+    }
+  }
+
+  /**
+   * Retrieves the booking ID that owns the seat at the given coordinates.
+   *
+   * @param row The row index.
+   * @param column The column index.
+   * @return The booking ID, or {@code null} if the seat is available.
+   */
+  public String getBookingId(int row, int column) {
+    return bookingIndex.bookingId(getBookingHandle(row, column));
+  }
+
+  /**
+   * Retrieves the handle of the booking that owns the seat at the given coordinates.
+   *
+   * @param row The row index.
+   * @param column The column index.
+   * @return The booking handle, or {@link BookingIndex#NO_BOOKING} if the seat is available.
+   */
+  int getBookingHandle(int row, int column) {
+    return (int) OWNERS.getAcquire(owners, index(row, column));
+  }
+
+  /**
+   * Counts the booking handles in use in this screening.
+   *
+   * @return The number of bookings holding a handle.
+   */
+  int getBookingHandleCount() {
+    return bookingIndex.handlesInUse();
+  }
+
+  /**
+   * Finds the first available seat in a row at or after the given column.
+   *
+   * @param row The row index.
+   * @param fromColumn The column to start searching from (inclusive).
+   * @return The column of the available seat, or {@code -1} if there is none.
+   */
+  public int nextAvailable(int row, int fromColumn) {
+    int from = Math.max(fromColumn, 0);
+    if (from >= seatsPerRow) return -1;
+
+    long[] words = occupancy[row];
+    int wordIndex = from / WORD_SIZE;
+    long free = ~word(words, wordIndex) & (-1L << from);
+    while (free == 0) {
+      // Let the index skip past full words; recheck the word in case the index ran ahead
+      wordIndex = freeRuns[row].nextFreeWord(wordIndex + 1);
+      if (wordIndex < 0) return -1;
+      free = ~word(words, wordIndex);
+    }
+    int column = wordIndex * WORD_SIZE + Long.numberOfTrailingZeros(free);
+    return column < seatsPerRow ? column : -1;
+  }
+
+  /**
+   * Finds the first reserved seat in a row at or after the given column.
+   *
+   * @param row The row index.
+   * @param fromColumn The column to start searching from (inclusive).
+   * @return The column of the reserved seat, or {@code -1} if there is none.
+   */
+  public int nextReserved(int row, int fromColumn) {
+    int from = Math.max(fromColumn, 0);
+    if (from >= seatsPerRow) return -1;
+
+    long[] words = occupancy[row];
+    int wordIndex = from / WORD_SIZE;
+    long word = word(words, wordIndex) & (-1L << from);
+    while (word == 0) {
+      if (++wordIndex == words.length) return -1;
+      word = word(words, wordIndex);
+    }
+    return wordIndex * WORD_SIZE + Long.numberOfTrailingZeros(word);
+  }
+
+  private static long word(long[] words, int wordIndex) {
+    return (long) WORDS.getAcquire(words, wordIndex);
+  }
+
+  /**
+   * Finds the last available seat in a row at or before the given column.
+   *
+   * @param row The row index.
+   * @param fromColumn The column to start searching from (inclusive).
+   * @return The column of the available seat, or {@code -1} if there is none.
+   */
+  public int previousAvailable(int row, int fromColumn) {
+    int from = Math.min(fromColumn, seatsPerRow - 1);
+    if (from < 0) return -1;
+
+    long[] words = occupancy[row];
+    int wordIndex = from / WORD_SIZE;
+    long free = ~word(words, wordIndex) & (-1L >>> (WORD_SIZE - 1 - from % WORD_SIZE));
+    while (free == 0) {
+      wordIndex = freeRuns[row].previousFreeWord(wordIndex - 1);
+      if (wordIndex < 0) return -1;
+      free = ~word(words, wordIndex);
+    }
+    return wordIndex * WORD_SIZE + WORD_SIZE - 1 - Long.numberOfLeadingZeros(free);
+  }
+
+  /**
+   * Finds the block of consecutive available seats in a row that lies closest to the centre of the
+   * row, measured from the middle of the block to the middle of the row. The block starting at
+   * column {@code (seatsPerRow / 2) - (length / 2)}, which holds the seats picked by working
+   * outwards from the centre, wins whenever it is free. Otherwise, when blocks on either side are
+   * equally close, the right-hand block is preferred.
+   *
+   * @param row The row index.
+   * @param length The number of seats in the block.
+   * @return The first column of the block, or {@code -1} if the row has no free run that long.
+   */
+  public int findCentredBlock(int row, int length) {
+    FreeRunIndex index = freeRuns[row];
+    if (length <= 0 || length > index.longestRun()) return -1;
+
+    int target = seatsPerRow / 2 - length / 2;
+    int right = index.firstBlockFrom(target, length);
+    if (right == target) return right;
+
+    int left = index.lastBlockBefore(target + length, length);
+    if (left < 0) return right;
+    if (right < 0) return left;
+    int rightDistance = Math.abs(2 * right + length - seatsPerRow);
+    int leftDistance = Math.abs(2 * left + length - seatsPerRow);
+    return rightDistance <= leftDistance ? right : left;
+  }
+
+  /**
+   * Finds the first block of consecutive available seats in a row that starts at or after the given
+   * column. If the block lies at the start of a free run, that is where it is reported, so walking
+   * the row with this method visits every free run long enough to hold the block.
+   *
+   * @param row The row index.
+   * @param fromColumn The first column the block may start at.
+   * @param length The number of seats in the block.
+   * @return The first column of the block, or {@code -1} if there is none.
+   */
+  public int nextFreeBlock(int row, int fromColumn, int length) {
+    FreeRunIndex index = freeRuns[row];
+    if (length <= 0 || length > index.longestRun()) return -1;
+    return index.firstBlockFrom(fromColumn, length);
+  }
+
+  /**
+   * Retrieves the length of the longest run of consecutive available seats in a row.
+   *
+   * @param row The row index.
+   * @return The number of seats in the longest free run.
+   */
+  public int getLongestFreeRun(int row) {
+    return freeRuns[row].longestRun();
+  }
+
+  /**
+   * Retrieves 64 consecutive seats of a row's occupancy bitset. Bit {@code i} of word {@code w} is
+   * set if the seat in column {@code 64 * w + i} is reserved; bits past the end of the row are
+   * always clear.
+   *
+   * @param row The row index.
+   * @param wordIndex The index of the word, from {@code 0} to {@code (seatsPerRow - 1) / 64}.
+   * @return The occupancy bits of the word.
+   */
+  public long getOccupancyWord(int row, int wordIndex) {
+    return word(occupancy[row], wordIndex);
+  }
+
+  /**
+   * Retrieves the number of available seats in a single row.
+   *
+   * @param row The row index.
+   * @return The number of available seats in the row.
+   */
+  public int getAvailableSeats(int row) {
+    return availableByRow.get(row);
+  }
+
+  /**
+   * Retrieves the number of available seats across the whole hall.
+   *
+   * @return The number of available seats.
+   */
+  public int getAvailableSeats() {
+    return availableSeats.get();
+  }
+
+  /**
+   * Retrieves the modification version of the map. The version starts at zero and advances after
+   * every reservation, release or change of ownership of a seat, including claims that are rolled
+   * back. Anything computed from the map is therefore still accurate for as long as the version
+   * read before computing it is current.
+   *
+   * @return The current version.
+   */
+  public long getVersion() {
+    return version.get();
+  }
+
+  /**
+   * Retrieves the version of a single row. The version starts at zero and advances after every
+   * reservation or release of a seat in the row, so a rendering of the row's occupancy stays
+   * accurate for as long as the version read before rendering it is current. Changes of ownership
+   * alone do not advance it.
+   *
+   * @param row The row index.
+   * @return The current version of the row.
+   */
+  public long getRowVersion(int row) {
+    return rowVersions.get(row);
+  }
+}
@@ -0,0 +1,260 @@
+package io.yang.cinema;
+
+import io.yang.cinema.converter.RowLabelConverter;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Renders the seat maps of one hall layout as text, straight into byte buffers.
+ *
+ * <p>Everything that depends only on the layout is built once when the renderer is created: the
+ * screen line, the divider, the padded row labels, the column markers and the padded cell for each
+ * seat state, including a whole row of available cells. Every line of a rendering has a fixed
+ * length, so each row and each seat sits at a fixed offset, and a {@link RenderCache} can keep a
+ * rendering and rewrite single rows in place. Rendering a row only copies prepared bytes: a run of
+ * available seats, found with a word-level search for the next reserved seat, is copied in a single
+ * call.
+ *
+ * <p>Rows are rendered without regard to who owns a seat, so the rendering can be shared by every
+ * viewer of a screening. The seats of the viewer's own booking are {@linkplain #highlight(int, int,
+ * byte[]) highlighted} afterwards, in a copy made for that viewer.
+ *
+ * <p>A {@linkplain #renderWindow(byte[], Viewport) window} of a large hall is copied out of the
+ * cached rendering of the whole hall, reading only the rows and columns inside the window.
+ *
+ * <p>Each screening's {@link RenderCache} creates the renderer for its layout, so a renderer lives
+ * no longer than the screening it draws. The renderer keeps no buffers of its own: every rendering
+ * goes into a buffer supplied or allocated by the call, which belongs to the caller afterwards.
+ *
+ * <p>The output is plain ASCII, so characters and bytes coincide.
+ */
+class SeatMapRenderer {
+
+  private static final int MIN_ROW_MARKER_WIDTH = 2;
+  private static final int MIN_COL_MARKER_WIDTH = 3;
+  private static final String SCREEN_LABEL = "S C R E E N";
+  private static final String DIVIDER = "-";
+  private static final String AVAILABLE_SYMBOL = ".";
+  private static final String RESERVED_BY_SELF_SYMBOL = "o";
+  private static final String RESERVED_BY_OTHER_SYMBOL = "#";
+
+  /** The line separator written after every line, as by {@link PrintStream#println()}. */
+  private static final byte[] LINE_SEPARATOR = ascii(System.lineSeparator());
+
+  private final int seatsPerRow;
+  private final int rowWidth;
+  private final int cellWidth;
+
+  /** The screen line followed by the divider, each ending with a line separator. */
+  private final byte[] header;
+
+  /** The label of each row, padded to the width of the row marker column. */
+  private final byte[][] rowMarkers;
+
+  /** A whole row of available cells, from which runs of available seats are copied. */
+  private final byte[] availableRow;
+
+  private final byte[] otherCell;
+
+  /** The column marker line, ending with a line separator. */
+  private final byte[] footer;
+
+  /** The length of a row's line, from its label up to and including the line separator. */
+  private final int rowLineLength;
+
+  /** The exact length of a rendering. */
+  private final int length;
+
+  /**
+   * Prepares the fixed parts of the rendering for a layout.
+   *
+   * @param rows The number of rows in the hall.
+   * @param seatsPerRow The number of seats in each row.
+   */
+  SeatMapRenderer(int rows, int seatsPerRow) {
+    this.seatsPerRow = seatsPerRow;
+    this.rowWidth = Math.max(MIN_ROW_MARKER_WIDTH, RowLabelConverter.labelLength(rows - 1) + 1);
+    this.cellWidth = Math.max(MIN_COL_MARKER_WIDTH, String.valueOf(seatsPerRow).length() + 1);
+    int width = rowWidth + seatsPerRow * cellWidth;
+
+    this.header = ascii(buildScreenLine(width) + "\n" + DIVIDER.repeat(width) + "\n");
+    this.rowMarkers = new byte[rows][];
+    for (int row = 0; row < rows; row++) {
+      rowMarkers[row] = ascii(padRight(RowLabelConverter.toRowLabel(row, rows), rowWidth));
+    }
+    this.availableRow = ascii(padRight(AVAILABLE_SYMBOL, cellWidth).repeat(seatsPerRow));
+    this.otherCell = ascii(padRight(RESERVED_BY_OTHER_SYMBOL, cellWidth));
+
+    StringBuilder markers = new StringBuilder(" ".repeat(rowWidth));
+    for (int col = 0; col < seatsPerRow; col++) {
+      markers.append(padRight(String.valueOf(col + 1), cellWidth));
+    }
+    this.footer = ascii(markers.append("\n").toString());
+
+    this.rowLineLength = rowWidth + availableRow.length + LINE_SEPARATOR.length;
+    this.length = header.length + rows * rowLineLength + footer.length;
+  }
+
+  /** Encodes text, writing each {@code \n} as the platform line separator. */
+  private static byte[] ascii(String text) {
+    return text.replace("\n", System.lineSeparator()).getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static String padRight(String text, int width) {
+    return text + " ".repeat(Math.max(width - text.length(), 0));
+  }
+
+  private static String buildScreenLine(int width) {
+    int totalPadding = width - SCREEN_LABEL.length();
+    if (totalPadding <= 0) {
+      return SCREEN_LABEL;
+    }
+    int halfPadding = totalPadding / 2;
+    String spaces = " ".repeat(halfPadding);
+    // If totalPadding is odd, add an extra space after the initial chunk
+    return spaces + SCREEN_LABEL + spaces + ((totalPadding % 2 == 1) ? " " : "");
+  }
+
+  /**
+   * Retrieves the length of a rendering, which is the same for every seat map of the layout.
+   *
+   * @return The number of bytes in a rendering.
+   */
+  int length() {
+    return length;
+  }
+
+  /**
+   * Writes the parts of a rendering that never change: the header, the row labels, the line
+   * separators and the column markers. The seats are left to {@link #renderRow}.
+   *
+   * @param frame The buffer to render into, {@link #length()} bytes long.
+   */
+  void renderLayout(byte[] frame) {
+    int position = put(header, frame, 0);
+    for (byte[] rowMarker : rowMarkers) {
+      position = put(rowMarker, frame, position);
+      position += availableRow.length;
+      position = put(LINE_SEPARATOR, frame, position);
+    }
+    put(footer, frame, position);
+  }
+
+  /**
+   * Writes the seats of a single row in place, showing every reserved seat as reserved by another
+   * booking.
+   *
+   * @param seatMap The seat map to render, which must have this renderer's layout.
+   * @param row The row index.
+   * @param frame The rendering to update.
+   */
+  void renderRow(SeatMap seatMap, int row, byte[] frame) {
+    int position = seatOffset(row, 0);
+    int col = 0;
+    while (col < seatsPerRow) {
+      int nextReserved = seatMap.nextReserved(row, col);
+      int freeRunEnd = nextReserved < 0 ? seatsPerRow : nextReserved;
+      int runBytes = (freeRunEnd - col) * cellWidth;
+      System.arraycopy(availableRow, 0, frame, position, runBytes);
+      position += runBytes;
+      col = freeRunEnd;
+
+      if (col < seatsPerRow) {
+        position = put(otherCell, frame, position);
+        col++;
+      }
+    }
+  }
+
+  /**
+   * Marks a seat as reserved by the viewer, provided the rendering shows it as reserved. A seat that
+   * was released after the row was rendered keeps showing as available.
+   *
+   * @param row The row index.
+   * @param column The column index.
+   * @param frame The viewer's copy of the rendering.
+   */
+  void highlight(int row, int column, byte[] frame) {
+    int offset = seatOffset(row, column);
+    if (frame[offset] == RESERVED_BY_OTHER_SYMBOL.charAt(0)) {
+      frame[offset] = (byte) RESERVED_BY_SELF_SYMBOL.charAt(0);
+    }
+  }
+
+  /**
+   * Copies a window out of a rendering of the whole hall, laid out like a whole rendering with the
+   * screen line and divider narrowed to the window's width. Only the rows inside the window are
+   * read, and each of them only for the columns inside it.
+   *
+   * @param frame A rendering of the whole hall, current at least for the rows inside the window.
+   * @param viewport The window to copy, which must lie inside the hall.
+   * @return A new array holding exactly the rendering of the window.
+   */
+  byte[] renderWindow(byte[] frame, Viewport viewport) {
+    int firstRow = viewport.getFirstRow();
+    int firstColumn = viewport.getFirstColumn();
+    int width = rowWidth + viewport.getColumns() * cellWidth;
+    byte[] screenLine = ascii(buildScreenLine(width));
+    int lineLength = width + LINE_SEPARATOR.length;
+    byte[] window =
+        new byte[screenLine.length + LINE_SEPARATOR.length + (viewport.getRows() + 2) * lineLength];
+
+    int position = put(screenLine, window, 0);
+    position = put(LINE_SEPARATOR, window, position);
+    Arrays.fill(window, position, position + width, (byte) DIVIDER.charAt(0));
+    position = put(LINE_SEPARATOR, window, position + width);
+
+    int seatBytes = viewport.getColumns() * cellWidth;
+    for (int row = firstRow; row < firstRow + viewport.getRows(); row++) {
+      position = put(rowMarkers[row], window, position);
+      System.arraycopy(frame, seatOffset(row, firstColumn), window, position, seatBytes);
+      position = put(LINE_SEPARATOR, window, position + seatBytes);
+    }
+
+    // The column markers of the window are a slice of the full marker line
+    Arrays.fill(window, position, position + rowWidth, (byte) ' ');
+    position += rowWidth;
+    System.arraycopy(footer, rowWidth + firstColumn * cellWidth, window, position, seatBytes);
+    put(LINE_SEPARATOR, window, position + seatBytes);
+    return window;
+  }
+
+  /**
+   * Marks a seat as reserved by the viewer in a {@linkplain #renderWindow(byte[], Viewport)
+   * window}, in the same way as {@link #highlight(int, int, byte[])}. Seats outside the window are
+   * ignored.
+   *
+   * @param row The row index.
+   * @param column The column index.
+   * @param viewport The window the rendering shows.
+   * @param window The viewer's rendering of the window.
+   */
+  void highlight(int row, int column, Viewport viewport, byte[] window) {
+    int windowRow = row - viewport.getFirstRow();
+    int windowColumn = column - viewport.getFirstColumn();
+    if (windowRow < 0
+        || windowRow >= viewport.getRows()
+        || windowColumn < 0
+        || windowColumn >= viewport.getColumns()) {
+      return;
+    }
+
+    int lineLength = rowWidth + viewport.getColumns() * cellWidth + LINE_SEPARATOR.length;
+    int headerLength = window.length - (viewport.getRows() + 1) * lineLength;
+    int offset = headerLength + windowRow * lineLength + rowWidth + windowColumn * cellWidth;
+    if (window[offset] == RESERVED_BY_OTHER_SYMBOL.charAt(0)) {
+      window[offset] = (byte) RESERVED_BY_SELF_SYMBOL.charAt(0);
+    }
+  }
+
+  private int seatOffset(int row, int column) {
+    return header.length + row * rowLineLength + rowMarkers[row].length + column * cellWidth;
+  }
+
+  private static int put(byte[] bytes, byte[] buffer, int position) {
+    System.arraycopy(bytes, 0, buffer, position, bytes.length);
+    return position + bytes.length;
+  }
+}
@@ -0,0 +1,110 @@
+package io.yang.cinema;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Remembers the most recent seat selection for each small party size, tagged with the {@linkplain
+ * SeatMap#getVersion() version} of the seat map it was computed from.
+ *
+ * <p>Most customers previewing seats for the same screening ask for the same few party sizes, and
+ * the seat map changes far less often than previews are shown. A cached selection is served again,
+ * without selecting from the hall, for as long as the seat map stays at the version it was computed
+ * from. Any reservation or release moves the version on, and the next request selects afresh.
+ *
+ * <p>Each selection is stored against a key identifying the policy that chose it, compared with
+ * {@link Object#equals(Object)}, so different policies never see each other's selections. Only the
+ * latest selection per party size is kept. The cache is safe for concurrent use; a cached selection
+ * is a proposal, like any other, and must still be claimed against the seat map.
+ */
+public class SelectionCache {
+
+  /** The largest party size whose selections are cached. */
+  static final int MAX_PARTY_SIZE = 16;
+
+  /** The seat map selections are made from. */
+  private final SeatMap seatMap;
+
+  /** The latest selection for each party size, indexed by size. */
+  private final AtomicReferenceArray<Entry> entries =
+      new AtomicReferenceArray<>(MAX_PARTY_SIZE + 1);
+
+  /**
+   * Creates an empty cache for selections from the given seat map.
+   *
+   * @param seatMap The seat map selections are made from.
+   */
+  public SelectionCache(SeatMap seatMap) {
+    this.seatMap = seatMap;
+  }
+
+  /**
+   * Copies the cached selection for a party into the buffer, if it is still current.
+   *
+   * @param key Identifies the policy the selection was made by.
+   * @param numberOfSeats The party size.
+   * @param selection The buffer receiving the packed seats, from index 0.
+   * @return The number of seats copied, or {@code -1} if there is no current selection.
+   */
+  public int lookup(Object key, int numberOfSeats, int[] selection) {
+    if (numberOfSeats <= 0 || numberOfSeats > MAX_PARTY_SIZE) return -1;
+
+    Entry entry = entries.get(numberOfSeats);
+    if (entry == null || entry.version != seatMap.getVersion() || !entry.key.equals(key)) {
+      return -1;
+    }
+    System.arraycopy(entry.seats, 0, selection, 0, entry.seats.length);
+    return entry.seats.length;
+  }
+
+  /**
+   * Copies the cached selection for a party into the buffer if it is still current, and otherwise
+   * makes a fresh selection and caches it.
+   *
+   * @param key Identifies the policy the selection is made by.
+   * @param numberOfSeats The party size.
+   * @param selection The buffer receiving the packed seats, from index 0.
+   * @param selector Makes the selection when the cache has none.
+   * @return The number of seats in the selection.
+   */
+  public int select(Object key, int numberOfSeats, int[] selection, Selector selector) {
+    int cached = lookup(key, numberOfSeats, selection);
+    if (cached >= 0) return cached;
+
+    // Read the version first, so a change made while selecting leaves the entry already stale
+    long version = seatMap.getVersion();
+    int count = selector.select(numberOfSeats, seatMap, selection);
+    if (numberOfSeats > 0 && numberOfSeats <= MAX_PARTY_SIZE) {
+      entries.set(numberOfSeats, new Entry(key, version, Arrays.copyOf(selection, count)));
+    }
+    return count;
+  }
+
+  /** Selects seats from a seat map into a buffer of packed seats. */
+  @FunctionalInterface
+  public interface Selector {
+
+    /**
+     * Selects up to {@code numberOfSeats} available seats.
+     *
+     * @param numberOfSeats The number of seats to select.
+     * @param seatMap The seat map to select from.
+     * @param selection The buffer receiving the packed seats, from index 0.
+     * @return The number of seats written.
+     */
+    int select(int numberOfSeats, SeatMap seatMap, int[] selection);
+  }
+
+  /** A selection and the version of the seat map it was made from. */
+  private static class Entry {
+    private final Object key;
+    private final long version;
+    private final int[] seats;
+
+    Entry(Object key, long version, int[] seats) {
+      this.key = key;
+      this.version = version;
+      this.seats = seats;
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package io.yang.cinema;
+
+/**
+ * A rectangular window of rows and columns of a seat map, as shown by {@link CinemaVisualizer}.
+ *
+ * <p>Halls larger than {@link #DEFAULT_ROWS} by {@link #DEFAULT_COLUMNS} seats are shown through a
+ * window of that size rather than in full, so the size of the output, and the time spent rendering
+ * it, depend on the window and not on the hall.
+ */
+public class Viewport {
+
+  /** The number of rows shown at once when a hall is too large to be shown whole. */
+  public static final int DEFAULT_ROWS = 30;
+
+  /** The number of columns shown at once when a hall is too large to be shown whole. */
+  public static final int DEFAULT_COLUMNS = 100;
+
+  private final int firstRow;
+  private final int firstColumn;
+  private final int rows;
+  private final int columns;
+
+  /**
+   * Creates a window onto a seat map.
+   *
+   * @param firstRow the index of the first row shown
+   * @param firstColumn the index of the first column shown
+   * @param rows the number of rows shown
+   * @param columns the number of columns shown
+   */
+  public Viewport(int firstRow, int firstColumn, int rows, int columns) {
+    if (firstRow < 0 || firstColumn < 0 || rows <= 0 || columns <= 0) {
+      throw new IllegalArgumentException("Viewport must cover at least one seat.");
+    }
+    this.firstRow = firstRow;
+    this.firstColumn = firstColumn;
+    this.rows = rows;
+    this.columns = columns;
+  }
+
+  /**
+   * Creates the window of a given size that is centred as closely as possible on a seat, while
+   * staying inside the seat map. A window larger than the seat map is shrunk to fit it.
+   *
+   * @param seatMap the seat map to show
+   * @param row the row index of the seat to centre on
+   * @param column the column index of the seat to centre on
+   * @param rows the number of rows to show
+   * @param columns the number of columns to show
+   * @return the window
+   */
+  public static Viewport around(SeatMap seatMap, int row, int column, int rows, int columns) {
+    int shownRows = Math.min(rows, seatMap.getRows());
+    int shownColumns = Math.min(columns, seatMap.getSeatsPerRow());
+    return new Viewport(
+        clamp(row - shownRows / 2, seatMap.getRows() - shownRows),
+        clamp(column - shownColumns / 2, seatMap.getSeatsPerRow() - shownColumns),
+        shownRows,
+        shownColumns);
+  }
+
+  /**
+   * Creates the default-sized window centred on the seats of a booking, or on the middle of the
+   * hall if the booking owns no seats.
+   *
+   * @param seatMap the seat map to show
+   * @param bookingId the booking to centre on, or {@code null} for none
+   * @return the window
+   */
+  public static Viewport around(SeatMap seatMap, String bookingId) {
+    int[] seats = seatMap.getBookedSeatIndexes(bookingId);
+    int seatsPerRow = seatMap.getSeatsPerRow();
+    int centreRow = seatMap.getRows() / 2;
+    int centreColumn = seatsPerRow / 2;
+    if (seats.length > 0) {
+      int minRow = Integer.MAX_VALUE;
+      int maxRow = Integer.MIN_VALUE;
+      int minColumn = Integer.MAX_VALUE;
+      int maxColumn = Integer.MIN_VALUE;
+      for (int seatIndex : seats) {
+        minRow = Math.min(minRow, seatIndex / seatsPerRow);
+        maxRow = Math.max(maxRow, seatIndex / seatsPerRow);
+        minColumn = Math.min(minColumn, seatIndex % seatsPerRow);
+        maxColumn = Math.max(maxColumn, seatIndex % seatsPerRow);
+      }
+      centreRow = (minRow + maxRow + 1) / 2;
+      centreColumn = (minColumn + maxColumn + 1) / 2;
+    }
+    return around(seatMap, centreRow, centreColumn, DEFAULT_ROWS, DEFAULT_COLUMNS);
+  }
+
+  private static int clamp(int first, int last) {
+    return Math.max(0, Math.min(first, last));
+  }
+
+  /**
+   * Checks whether the window shows the whole of a seat map.
+   *
+   * @param seatMap the seat map
+   * @return {@code true} if every seat is inside the window; {@code false} otherwise
+   */
+  public boolean covers(SeatMap seatMap) {
+    return firstRow == 0
+        && firstColumn == 0
+        && rows >= seatMap.getRows()
+        && columns >= seatMap.getSeatsPerRow();
+  }
+
+  /**
+   * Retrieves the index of the first row shown.
+   *
+   * @return the row index
+   */
+  public int getFirstRow() {
+    return firstRow;
+  }
+
+  /**
+   * Retrieves the index of the first column shown.
+   *
+   * @return the column index
+   */
+  public int getFirstColumn() {
+    return firstColumn;
+  }
+
+  /**
+   * Retrieves the number of rows shown.
+   *
+   * @return the number of rows
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  /**
+   * Retrieves the number of columns shown.
+   *
+   * @return the number of columns
+   */
+  public int getColumns() {
+    return columns;
+  }
+}
@@ -7,41 +7,53 @@ import static org.apache.commons.lang3.StringUtils.isNumeric;
 
 public class PositionConverter {
 
+  /** Seat numbers longer than this cannot be parsed safely into an {@code int}. */
+  private static final int MAX_SEAT_NUMBER_DIGITS = 9;
+
   private PositionConverter() {}
 
   public static Position convert(String input, Cinema cinema) {
-    if (input == null || input.length() != 3) {
+    if (input == null || input.length() < 2) {
       throw new IllegalArgumentException(
-          "Input must be 3 characters (letter + 2 digits, e.g. B03).");
+          "Input must be a row letter followed by a seat number (e.g. B03 or AA112).");
     }
 
     char rowChar = input.charAt(0);
     if (!Character.isLetter(rowChar)) {
       throw new IllegalArgumentException("First character must be a letter (A-Z).");
     }
-    if (!Character.isUpperCase(rowChar)) {
-      throw new IllegalArgumentException("First character must be an uppercase letter (A-Z).");
+
+    int labelEnd = 0;
+    while (labelEnd < input.length() && Character.isLetter(input.charAt(labelEnd))) {
+      if (!Character.isUpperCase(input.charAt(labelEnd)) || input.charAt(labelEnd) > 'Z') {
+        throw new IllegalArgumentException("Row letters must be uppercase letters (A-Z).");
+      }
+      labelEnd++;
     }
 
-    // inverse input char and row index
-    int row = cinema.getSeats().length - 1 - (rowChar - 'A');
-    if (row < 0) {
+    // inverse row label and row index
+    int rows = cinema.getSeatMap().getRows();
+    int ordinal = RowLabelConverter.toOrdinal(input.substring(0, labelEnd));
+    if (ordinal < 0 || ordinal >= rows) {
       throw new IllegalArgumentException(
-          "Row marker must be before " + (char) ('A' + cinema.getSeats().length - 1));
+          "Row marker must not be after " + RowLabelConverter.toLabel(rows - 1));
     }
+    int row = rows - 1 - ordinal;
 
-    String colStr = input.substring(1);
-    if (!isNumeric(colStr)) {
-      throw new IllegalArgumentException(
-          "Last two characters must be positive integers (e.g. 03).");
+    String colStr = input.substring(labelEnd);
+    if (colStr.isEmpty() || !isNumeric(colStr)) {
+      throw new IllegalArgumentException("Seat number must be a positive integer (e.g. 03).");
+    }
+    int seatsPerRow = cinema.getSeatMap().getSeatsPerRow();
+    if (colStr.length() > MAX_SEAT_NUMBER_DIGITS) {
+      throw new IllegalArgumentException("Column marker must not exceed " + seatsPerRow);
     }
     int column = Integer.parseInt(colStr) - 1;
     if (column < 0) {
-      throw new IllegalArgumentException("Last two characters must not be zero (e.g. 03).");
+      throw new IllegalArgumentException("Seat number must not be zero (e.g. 03).");
     }
-    if (column >= cinema.getSeats()[row].length) {
-      throw new IllegalArgumentException(
-          "Column marker must not exceed " + cinema.getSeats()[row].length);
+    if (column >= seatsPerRow) {
+      throw new IllegalArgumentException("Column marker must not exceed " + seatsPerRow);
     }
 
     return new Position(row, column);
@@ -0,0 +1,78 @@
+package io.yang.cinema.converter;
+
+/**
+ * Converts between row indexes and their letter labels.
+ *
+ * <p>Labels follow spreadsheet-style numbering: {@code A} to {@code Z} for the first 26 rows, then
+ * {@code AA}, {@code AB}, ... {@code ZZ}, then {@code AAA} and so on. Label {@code A} is the row
+ * furthest from the screen, which is the last row index of the seat map.
+ */
+public class RowLabelConverter {
+
+  /** The number of letters available for labelling rows. */
+  private static final int RADIX = 26;
+
+  private RowLabelConverter() {}
+
+  /**
+   * Converts a zero-based label ordinal into its letter label, e.g. {@code 0 -> A}, {@code 25 ->
+   * Z}, {@code 26 -> AA}.
+   *
+   * @param ordinal the zero-based label ordinal
+   * @return the letter label
+   */
+  public static String toLabel(int ordinal) {
+    char[] buffer = new char[labelLength(ordinal)];
+    int remaining = ordinal;
+    for (int i = buffer.length - 1; i >= 0; i--) {
+      buffer[i] = (char) ('A' + remaining % RADIX);
+      remaining = remaining / RADIX - 1;
+    }
+    return new String(buffer);
+  }
+
+  /**
+   * Converts a letter label into its zero-based label ordinal. The label is assumed to consist of
+   * uppercase letters only.
+   *
+   * @param label the letter label
+   * @return the zero-based label ordinal, or {@code -1} if the label overflows an {@code int}
+   */
+  public static int toOrdinal(CharSequence label) {
+    long ordinal = 0;
+    for (int i = 0; i < label.length(); i++) {
+      ordinal = ordinal * RADIX + (label.charAt(i) - 'A' + 1);
+      if (ordinal > Integer.MAX_VALUE) return -1;
+    }
+    return (int) ordinal - 1;
+  }
+
+  /**
+   * Computes the number of letters in the label of the given ordinal.
+   *
+   * @param ordinal the zero-based label ordinal
+   * @return the label length
+   */
+  public static int labelLength(int ordinal) {
+    int length = 1;
+    long capacity = RADIX;
+    long first = 0;
+    while (ordinal >= first + capacity) {
+      first += capacity;
+      capacity *= RADIX;
+      length++;
+    }
+    return length;
+  }
+
+  /**
+   * Converts a row index into the label displayed for that row.
+   *
+   * @param rowIndex the row index within the seat map
+   * @param rows the number of rows in the seat map
+   * @return the row label
+   */
+  public static String toRowLabel(int rowIndex, int rows) {
+    return toLabel(rows - 1 - rowIndex);
+  }
+}
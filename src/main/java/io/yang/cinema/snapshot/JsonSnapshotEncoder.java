@@ -0,0 +1,182 @@
+package io.yang.cinema.snapshot;
+
+import io.yang.cinema.Cinema;
+import io.yang.cinema.SeatMap;
+import io.yang.cinema.converter.RowLabelConverter;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Encodes seat map snapshots as UTF-8 JSON, for front ends that would rather not decode bits.
+ *
+ * <p>A snapshot looks like this:
+ *
+ * <pre>{@code
+ * {"movieTitle":"Inception","version":7,"rows":3,"seatsPerRow":5,"availableSeats":11,
+ *  "seatMap":[{"row":"C","seats":"....."},{"row":"B","seats":".##o."},{"row":"A","seats":"..o.."}],
+ *  "ownSeats":[{"row":"B","seat":4},{"row":"A","seat":3}]}
+ * }</pre>
+ *
+ * <p>Rows are listed top to bottom as the console shows them, and each seat is one character of
+ * its row's {@code seats} string: {@code .} for an available seat, {@code #} for a seat reserved
+ * by another booking and {@code o} for a seat of the caller's own booking. Seat numbers start at
+ * 1.
+ *
+ * <p>The JSON is written byte by byte into the buffer as the seat map is read, without building
+ * any strings along the way.
+ */
+public class JsonSnapshotEncoder implements SnapshotEncoder {
+
+  /** The media type of JSON snapshots. */
+  public static final String CONTENT_TYPE = "application/json";
+
+  private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+  /** The longest a row label can get, for a row ordinal near {@link Integer#MAX_VALUE}. */
+  private static final int MAX_LABEL_LENGTH = 7;
+
+  /** The longest a non-negative decimal {@code long} can get. */
+  private static final int MAX_NUMBER_LENGTH = 20;
+
+  /** The fixed parts of the snapshot, together with room for its numbers. */
+  private static final int FIXED_LENGTH = 128 + 5 * MAX_NUMBER_LENGTH;
+
+  /** The fixed parts of a row entry, together with its separator. */
+  private static final int ROW_OVERHEAD = 24 + MAX_LABEL_LENGTH;
+
+  /** The longest an entry of the {@code ownSeats} array can get. */
+  private static final int OWN_SEAT_LENGTH = 20 + MAX_LABEL_LENGTH + MAX_NUMBER_LENGTH;
+
+  @Override
+  public ByteBuffer encode(Cinema cinema, String bookingId, ByteBuffer buffer) {
+    SeatMap seatMap = cinema.getSeatMap();
+    int rows = seatMap.getRows();
+    int seatsPerRow = seatMap.getSeatsPerRow();
+    int[] ownSeats = bookingId == null ? new int[0] : seatMap.getPackedBookedSeats(bookingId);
+    String title = cinema.getMovieTitle();
+
+    // Escaping a character of the title takes six bytes, more than any UTF-8 encoding
+    int maxLength =
+        FIXED_LENGTH
+            + 6 * title.length()
+            + rows * (ROW_OVERHEAD + seatsPerRow)
+            + ownSeats.length * OWN_SEAT_LENGTH;
+    ByteBuffer out = SnapshotEncoder.prepare(buffer, maxLength);
+
+    ascii(out, "{\"movieTitle\":\"");
+    string(out, title);
+    ascii(out, "\",\"version\":");
+    number(out, seatMap.getVersion());
+    ascii(out, ",\"rows\":");
+    number(out, rows);
+    ascii(out, ",\"seatsPerRow\":");
+    number(out, seatsPerRow);
+    ascii(out, ",\"availableSeats\":");
+    number(out, seatMap.getAvailableSeats());
+
+    // Packed seats sort in row-major order, so the rows can overlay them in a single pass
+    Arrays.sort(ownSeats);
+    ascii(out, ",\"seatMap\":[");
+    int nextOwn = 0;
+    for (int row = 0; row < rows; row++) {
+      if (row > 0) out.put((byte) ',');
+      ascii(out, "{\"row\":\"");
+      label(out, rows - 1 - row);
+      ascii(out, "\",\"seats\":\"");
+      int start = out.position();
+      seats(out, seatMap, row, seatsPerRow);
+      for (; nextOwn < ownSeats.length && SeatMap.rowOf(ownSeats[nextOwn]) == row; nextOwn++) {
+        int index = start + SeatMap.columnOf(ownSeats[nextOwn]);
+        if (out.get(index) == '#') out.put(index, (byte) 'o');
+      }
+      ascii(out, "\"}");
+    }
+
+    ascii(out, "],\"ownSeats\":[");
+    for (int i = 0; i < ownSeats.length; i++) {
+      if (i > 0) out.put((byte) ',');
+      ascii(out, "{\"row\":\"");
+      label(out, rows - 1 - SeatMap.rowOf(ownSeats[i]));
+      ascii(out, "\",\"seat\":");
+      number(out, SeatMap.columnOf(ownSeats[i]) + 1L);
+      out.put((byte) '}');
+    }
+    ascii(out, "]}");
+    return out.flip();
+  }
+
+  @Override
+  public String getContentType() {
+    return CONTENT_TYPE;
+  }
+
+  /** Writes one character per seat of a row, reading its occupancy a word at a time. */
+  private static void seats(ByteBuffer out, SeatMap seatMap, int row, int seatsPerRow) {
+    for (int base = 0; base < seatsPerRow; base += Long.SIZE) {
+      long word = seatMap.getOccupancyWord(row, base / Long.SIZE);
+      int end = Math.min(base + Long.SIZE, seatsPerRow);
+      for (int column = base; column < end; column++) {
+        out.put((word & (1L << column)) == 0 ? (byte) '.' : (byte) '#');
+      }
+    }
+  }
+
+  /** Writes the letter label of a row ordinal, as {@link RowLabelConverter#toLabel(int)} would. */
+  private static void label(ByteBuffer out, int ordinal) {
+    int length = RowLabelConverter.labelLength(ordinal);
+    int start = out.position();
+    int remaining = ordinal;
+    for (int i = length - 1; i >= 0; i--) {
+      out.put(start + i, (byte) ('A' + remaining % 26));
+      remaining = remaining / 26 - 1;
+    }
+    out.position(start + length);
+  }
+
+  /** Writes a non-negative number in decimal. */
+  private static void number(ByteBuffer out, long value) {
+    long divisor = 1;
+    while (value / divisor >= 10) {
+      divisor *= 10;
+    }
+    for (; divisor > 0; divisor /= 10) {
+      out.put((byte) ('0' + value / divisor % 10));
+    }
+  }
+
+  /** Writes a string known to hold nothing that needs escaping or more than one byte. */
+  private static void ascii(ByteBuffer out, String text) {
+    for (int i = 0; i < text.length(); i++) {
+      out.put((byte) text.charAt(i));
+    }
+  }
+
+  /** Writes the contents of a JSON string, escaped and encoded as UTF-8. */
+  private static void string(ByteBuffer out, String text) {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '"' || c == '\\') {
+        out.put((byte) '\\').put((byte) c);
+      } else if (c < 0x20) {
+        out.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0');
+        out.put(HEX[c >> 4]).put(HEX[c & 0xf]);
+      } else if (c < 0x80) {
+        out.put((byte) c);
+      } else if (c < 0x800) {
+        out.put((byte) (0xc0 | c >> 6)).put((byte) (0x80 | c & 0x3f));
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < text.length()
+          && Character.isLowSurrogate(text.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, text.charAt(++i));
+        out.put((byte) (0xf0 | codePoint >> 18)).put((byte) (0x80 | codePoint >> 12 & 0x3f));
+        out.put((byte) (0x80 | codePoint >> 6 & 0x3f)).put((byte) (0x80 | codePoint & 0x3f));
+      } else if (Character.isSurrogate(c)) {
+        out.put((byte) '?');
+      } else {
+        out.put((byte) (0xe0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3f));
+        out.put((byte) (0x80 | c & 0x3f));
+      }
+    }
+  }
+}
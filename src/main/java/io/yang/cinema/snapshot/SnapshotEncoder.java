@@ -0,0 +1,50 @@
+package io.yang.cinema.snapshot;
+
+import io.yang.cinema.Cinema;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes the seat map of a screening in a machine-readable form, for clients that poll the state
+ * of the hall instead of reading the console rendering.
+ *
+ * <p>Encoders write straight into a caller-supplied {@link ByteBuffer} that is meant to be reused
+ * from one snapshot to the next. If the buffer is too small for a snapshot, a larger one is
+ * allocated in its place and returned, so a caller that keeps whatever buffer it got back stops
+ * allocating once the buffer has grown to fit. Every snapshot carries the {@linkplain
+ * Cinema#getVersion() version} of the seat map, so a client can tell at a glance whether anything
+ * has changed since its last poll.
+ */
+public interface SnapshotEncoder {
+
+  /**
+   * Encodes a snapshot of the screening's seat map.
+   *
+   * @param cinema the screening to encode
+   * @param bookingId the booking whose seats are marked as the caller's own, or {@code null} for
+   *     none
+   * @param buffer the buffer to reuse, which is cleared first; may be {@code null}
+   * @return the buffer holding the snapshot, flipped and ready to be read; either the given buffer
+   *     or a larger one that replaces it
+   */
+  ByteBuffer encode(Cinema cinema, String bookingId, ByteBuffer buffer);
+
+  /**
+   * Retrieves the media type of the encoded snapshots.
+   *
+   * @return the media type, for example {@code application/json}
+   */
+  String getContentType();
+
+  /**
+   * Prepares a buffer for a snapshot of at most the given size, reusing the given buffer when it is
+   * large enough.
+   */
+  static ByteBuffer prepare(ByteBuffer buffer, int maxLength) {
+    if (buffer == null || buffer.capacity() < maxLength) {
+      int capacity = buffer == null ? maxLength : Math.max(maxLength, 2 * buffer.capacity());
+      return ByteBuffer.allocate(capacity);
+    }
+    return buffer.clear();
+  }
+}
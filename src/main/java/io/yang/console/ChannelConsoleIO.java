@@ -0,0 +1,255 @@
+package io.yang.console;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link ConsoleIO} over a pair of byte channels.
+ *
+ * <p>Input is read a buffer at a time and split into lines by scanning the raw bytes for {@code
+ * \n}, so a line that arrives in one read is decoded straight out of the read buffer without any
+ * copying. A line longer than {@link #MAX_LINE_LENGTH} bytes ends the session with an error
+ * rather than being collected without bound.
+ *
+ * <p>Output is encoded into a write buffer of {@value #BUFFER_SIZE} bytes, which is drained to the
+ * output channel when it fills up, before input is read, and on {@link #flush()}. An exchange that
+ * fits the buffer therefore reaches the channel in a single write. Larger output, such as the seat
+ * map of a big hall, takes more than one: the pending text is drained first, and writes too large
+ * for the buffer then go to the channel directly.
+ */
+class ChannelConsoleIO implements ConsoleIO {
+
+  /** The size of the read and write buffers, in bytes. */
+  private static final int BUFFER_SIZE = 8192;
+
+  /** The longest line accepted as input, in bytes, not counting its terminator. */
+  static final int MAX_LINE_LENGTH = 64 * 1024;
+
+  private static final String LINE_SEPARATOR = System.lineSeparator();
+
+  private final ReadableByteChannel inChannel;
+  private final WritableByteChannel outChannel;
+  private final Charset charset;
+  private final CharsetEncoder encoder;
+
+  /** Bytes read but not yet returned as lines, between its position and limit. */
+  private final ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE).flip();
+
+  /** Bytes written but not yet flushed, up to its position. */
+  private final ByteBuffer output = ByteBuffer.allocate(BUFFER_SIZE);
+
+  /** Holds the start of a line that spans more than one read. */
+  private byte[] line = new byte[256];
+
+  /**
+   * Creates a console over the given channels.
+   *
+   * @param inChannel the channel the input is read from
+   * @param outChannel the channel the output is written to
+   * @param charset the charset of both the input and the output
+   */
+  ChannelConsoleIO(ReadableByteChannel inChannel, WritableByteChannel outChannel, Charset charset) {
+    this.inChannel = inChannel;
+    this.outChannel = outChannel;
+    this.charset = charset;
+    this.encoder =
+        charset
+            .newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  }
+
+  @Override
+  public String readLine() {
+    flush();
+    byte[] bytes = input.array();
+    int length = 0;
+    boolean readAny = false;
+    while (input.hasRemaining() || fill()) {
+      readAny = true;
+      int start = input.position();
+      int end = input.limit();
+      int newline = start;
+      while (newline < end && bytes[newline] != '\n') {
+        newline++;
+      }
+
+      if (newline < end && length == 0) {
+        // The whole line is in the read buffer
+        input.position(newline + 1);
+        return decode(bytes, start, newline - start);
+      }
+      int needed = length + newline - start;
+      if (needed > line.length) {
+        // One byte over the limit leaves room for the carriage return of a \r\n terminator
+        if (needed > MAX_LINE_LENGTH + 1) throw lineTooLong();
+        int capacity = Math.min(Math.max(2 * line.length, needed), MAX_LINE_LENGTH + 1);
+        line = Arrays.copyOf(line, capacity);
+      }
+      System.arraycopy(bytes, start, line, length, newline - start);
+      length = needed;
+      if (newline < end) {
+        input.position(newline + 1);
+        return decode(line, 0, length);
+      }
+      input.position(end);
+    }
+
+    if (!readAny) throw new NoSuchElementException("No line found");
+    return decode(line, 0, length);
+  }
+
+  /** Decodes a line, dropping the carriage return of a {@code \r\n} terminator. */
+  private String decode(byte[] bytes, int offset, int length) {
+    if (length > 0 && bytes[offset + length - 1] == '\r') length--;
+    if (length > MAX_LINE_LENGTH) throw lineTooLong();
+    return new String(bytes, offset, length, charset);
+  }
+
+  private static UncheckedIOException lineTooLong() {
+    return new UncheckedIOException(
+        new IOException("Input line longer than " + MAX_LINE_LENGTH + " bytes"));
+  }
+
+  /**
+   * Reads more input into the empty read buffer.
+   *
+   * @return {@code true} if input was read; {@code false} if the input has ended
+   */
+  private boolean fill() {
+    try {
+      input.clear();
+      int read = 0;
+      while (read == 0) {
+        read = inChannel.read(input);
+      }
+      input.flip();
+      return read > 0;
+
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void print(String text) {
+    CharBuffer chars = CharBuffer.wrap(text);
+    while (encoder.encode(chars, output, true).isOverflow()) {
+      drain();
+    }
+    while (encoder.flush(output).isOverflow()) {
+      drain();
+    }
+    encoder.reset();
+  }
+
+  @Override
+  public void println(String text) {
+    print(text);
+    print(LINE_SEPARATOR);
+  }
+
+  @Override
+  public void println() {
+    print(LINE_SEPARATOR);
+  }
+
+  @Override
+  public void printf(String format, Object... args) {
+    print(String.format(format, args));
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int length) {
+    if (length > output.remaining()) {
+      drain();
+    }
+    if (length > output.capacity()) {
+      writeFully(ByteBuffer.wrap(bytes, offset, length));
+    } else {
+      output.put(bytes, offset, length);
+    }
+  }
+
+  @Override
+  public void flush() {
+    drain();
+  }
+
+  /** Writes the contents of the write buffer to the output channel and empties it. */
+  private void drain() {
+    output.flip();
+    writeFully(output);
+    output.clear();
+  }
+
+  private void writeFully(ByteBuffer bytes) {
+    try {
+      while (bytes.hasRemaining()) {
+        outChannel.write(bytes);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Adapts an output stream to a channel that hands each buffer to the stream in a single write,
+   * where {@link java.nio.channels.Channels#newChannel(OutputStream)} would split it into small
+   * chunks.
+   *
+   * @param out the stream to write to
+   * @return the channel
+   */
+  static WritableByteChannel channel(OutputStream out) {
+    return new WritableByteChannel() {
+      private boolean open = true;
+
+      @Override
+      public int write(ByteBuffer bytes) throws IOException {
+        int length = bytes.remaining();
+        if (bytes.hasArray()) {
+          out.write(bytes.array(), bytes.arrayOffset() + bytes.position(), length);
+          bytes.position(bytes.limit());
+        } else {
+          byte[] copy = new byte[length];
+          bytes.get(copy);
+          out.write(copy);
+        }
+        out.flush();
+        return length;
+      }
+
+      @Override
+      public boolean isOpen() {
+        return open;
+      }
+
+      @Override
+      public void close() throws IOException {
+        open = false;
+        out.close();
+      }
+    };
+  }
+
+  @Override
+  public void close() {
+    try (inChannel;
+        outChannel) {
+      flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package io.yang.console;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The text console a booking session talks to: lines typed by the user in, prompts and seat maps
+ * out.
+ *
+ * <p>Output is buffered and only reaches the user when the console is {@linkplain #flush()
+ * flushed}, which happens automatically whenever it {@linkplain #readLine() waits for input}. A
+ * whole exchange with the user, from the menu to the prompt that ends it, therefore costs a single
+ * write to the underlying stream however many lines it prints, as long as it fits the console's
+ * buffer. Output larger than the buffer, such as the seat map of a big hall, is written in a few
+ * pieces instead.
+ *
+ * <p>A console belongs to one session and is not safe for concurrent use.
+ */
+public interface ConsoleIO extends AutoCloseable {
+
+  /**
+   * Creates a console over the standard input and output of the process, using the platform's
+   * default charset as {@link System#in} and {@link System#out} do.
+   *
+   * @return the console
+   */
+  static ConsoleIO system() {
+    return new ChannelConsoleIO(
+        Channels.newChannel(System.in),
+        ChannelConsoleIO.channel(System.out),
+        Charset.defaultCharset());
+  }
+
+  /**
+   * Creates a UTF-8 console over the given streams, such as those of a socket or a script file.
+   *
+   * @param in the stream the user's input is read from
+   * @param out the stream the output is written to
+   * @return the console
+   */
+  static ConsoleIO of(InputStream in, OutputStream out) {
+    return new ChannelConsoleIO(
+        Channels.newChannel(in), ChannelConsoleIO.channel(out), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Flushes any pending output, then reads the next line of input. The line terminator, either
+   * {@code \n} or {@code \r\n}, is not part of the line.
+   *
+   * @return the line, possibly empty
+   * @throws java.util.NoSuchElementException if the input has ended
+   * @throws java.io.UncheckedIOException if reading or writing fails, or if the line is too long
+   *     to be held
+   */
+  String readLine();
+
+  /**
+   * Writes text without ending the line.
+   *
+   * @param text the text to write
+   */
+  void print(String text);
+
+  /**
+   * Writes text followed by the platform line separator.
+   *
+   * @param text the text to write
+   */
+  void println(String text);
+
+  /** Writes the platform line separator. */
+  void println();
+
+  /**
+   * Writes text formatted as by {@link String#format(String, Object...)}.
+   *
+   * @param format the format string
+   * @param args the arguments referenced by the format string
+   */
+  void printf(String format, Object... args);
+
+  /**
+   * Writes bytes that are already encoded in the console's charset, such as a rendered seat map.
+   *
+   * @param bytes the bytes to write
+   * @param offset the index of the first byte to write
+   * @param length the number of bytes to write
+   */
+  void write(byte[] bytes, int offset, int length);
+
+  /**
+   * Sends all pending output to the underlying stream.
+   *
+   * @throws java.io.UncheckedIOException if writing fails
+   */
+  void flush();
+
+  /**
+   * Flushes pending output and closes the underlying streams.
+   *
+   * @throws java.io.UncheckedIOException if writing or closing fails
+   */
+  @Override
+  void close();
+}
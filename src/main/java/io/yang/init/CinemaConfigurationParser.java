@@ -9,6 +9,12 @@ import org.apache.commons.lang3.math.NumberUtils;
  */
 public class CinemaConfigurationParser {
 
+  /** The maximum number of rows, which keeps row labels to at most two letters (A to ZZ). */
+  static final int MAX_ROWS = 702;
+
+  /** The maximum number of seats per row, which keeps seat numbers to at most three digits. */
+  static final int MAX_SEATS_PER_ROW = 999;
+
   /** Private constructor to prevent instantiation of this utility class. */
   private CinemaConfigurationParser() {}
 
@@ -33,7 +39,8 @@ public class CinemaConfigurationParser {
    *
    * @param input The input string containing the number of rows.
    * @return The parsed number of rows as an integer.
-   * @throws IllegalArgumentException if the number of rows is less than 1 or greater than 26.
+   * @throws IllegalArgumentException if the number of rows is less than 1 or greater than {@link
+   *     #MAX_ROWS}.
    */
   private static int parseRows(String input) {
     if (!NumberUtils.isCreatable(input)) {
@@ -44,8 +51,8 @@ public class CinemaConfigurationParser {
     if (rows < 1) {
       throw new IllegalArgumentException("Number of rows cannot be less than 1.\n");
     }
-    if (rows > 26) {
-      throw new IllegalArgumentException("Number of rows cannot exceed 26.\n");
+    if (rows > MAX_ROWS) {
+      throw new IllegalArgumentException("Number of rows cannot exceed " + MAX_ROWS + ".\n");
     }
     return rows;
   }
@@ -56,7 +63,7 @@ public class CinemaConfigurationParser {
    * @param input The input string containing the number of seats per row.
    * @return The parsed number of seats per row as an integer.
    * @throws IllegalArgumentException if the number of seats per row is less than 1 or greater than
-   *     50.
+   *     {@link #MAX_SEATS_PER_ROW}.
    */
   private static int parseSeatsPerRow(String input) {
     if (!NumberUtils.isCreatable(input)) {
@@ -67,8 +74,9 @@ public class CinemaConfigurationParser {
     if (seatsPerRow < 1) {
       throw new IllegalArgumentException("Number of seats per row cannot be less than 1.\n");
     }
-    if (seatsPerRow > 50) {
-      throw new IllegalArgumentException("Number of seats per row cannot exceed 50.\n");
+    if (seatsPerRow > MAX_SEATS_PER_ROW) {
+      throw new IllegalArgumentException(
+          "Number of seats per row cannot exceed " + MAX_SEATS_PER_ROW + ".\n");
     }
     return seatsPerRow;
   }
@@ -1,7 +1,6 @@
 package io.yang.init;
 
-
-import java.util.Scanner;
+import io.yang.console.ConsoleIO;
 
 /**
  * The {@code Initializer} class is a utility class designed to initialize a {@link
@@ -12,8 +11,8 @@ import java.util.Scanner;
  * <p><b>Usage example:</b>
  *
  * <pre>
- *     Scanner scanner = new Scanner(System.in);
- *     CinemaConfiguration config = Initializer.init(scanner);
+ *     ConsoleIO console = ConsoleIO.system();
+ *     CinemaConfiguration config = Initializer.init(console);
  * </pre>
  *
  * <p>This class cannot be instantiated as its constructor is private, and it is intended for static
@@ -42,9 +41,9 @@ public class Initializer {
    *
    * @return The input string entered by the user
    */
-  private static String prompt(Scanner scanner) {
-    System.out.println(PROMPT);
-    return scanner.nextLine();
+  private static String prompt(ConsoleIO console) {
+    console.println(PROMPT);
+    return console.readLine();
   }
 
   /**
@@ -55,16 +54,16 @@ public class Initializer {
    *
    * @return An initialized {@link CinemaConfiguration} object based on valid user input
    */
-  public static CinemaConfiguration init(Scanner scanner) {
+  public static CinemaConfiguration init(ConsoleIO console) {
     CinemaConfiguration cinemaConfiguration = null;
     while (cinemaConfiguration == null) {
 
-      String input = prompt(scanner);
+      String input = prompt(console);
       try {
         cinemaConfiguration = CinemaConfigurationParser.parse(input);
 
       } catch (IllegalArgumentException e) {
-        System.out.println(e.getMessage());
+        console.println(e.getMessage());
       }
     }
     return cinemaConfiguration;
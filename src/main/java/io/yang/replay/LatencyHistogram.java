@@ -0,0 +1,97 @@
+package io.yang.replay;
+
+/**
+ * Counts latencies in logarithmic buckets, so that any number of them can be recorded in a fixed
+ * amount of memory.
+ *
+ * <p>Each power of two is split into 16 buckets of equal width, which keeps every reported value
+ * within about 6% of the latencies it stands for. Values below 16 nanoseconds are counted exactly.
+ */
+class LatencyHistogram {
+
+  /** The number of buckets each power of two is split into, as a power of two. */
+  private static final int SUB_BUCKET_BITS = 4;
+
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  /** The count of each bucket. */
+  private final long[] counts = new long[(Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS];
+
+  private long count;
+  private long total;
+  private long max;
+
+  /**
+   * Records a latency.
+   *
+   * @param nanos the latency in nanoseconds; negative values are recorded as zero
+   */
+  void record(long nanos) {
+    long value = Math.max(nanos, 0);
+    counts[indexOf(value)]++;
+    count++;
+    total += value;
+    max = Math.max(max, value);
+  }
+
+  private static int indexOf(long value) {
+    if (value < SUB_BUCKETS) return (int) value;
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    int shift = exponent - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+    return (shift + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /** Retrieves the largest value counted in a bucket. */
+  private static long highestValueIn(int index) {
+    if (index < SUB_BUCKETS) return index;
+    int shift = index / SUB_BUCKETS - 1;
+    long subBucket = SUB_BUCKETS + index % SUB_BUCKETS;
+    return ((subBucket + 1) << shift) - 1;
+  }
+
+  /**
+   * Retrieves the number of latencies recorded.
+   *
+   * @return the count
+   */
+  long count() {
+    return count;
+  }
+
+  /**
+   * Retrieves the mean of the latencies recorded.
+   *
+   * @return the mean in nanoseconds, or {@code 0} if none were recorded
+   */
+  double mean() {
+    return count == 0 ? 0 : (double) total / count;
+  }
+
+  /**
+   * Retrieves the largest latency recorded.
+   *
+   * @return the exact maximum in nanoseconds, or {@code 0} if none were recorded
+   */
+  long max() {
+    return max;
+  }
+
+  /**
+   * Retrieves a percentile of the latencies recorded.
+   *
+   * @param percentile the percentile, from {@code 0} to {@code 100}
+   * @return the latency in nanoseconds at or below which the given share of latencies fall, or
+   *     {@code 0} if none were recorded
+   */
+  long percentile(double percentile) {
+    if (count == 0) return 0;
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int index = 0; index < counts.length; index++) {
+      seen += counts[index];
+      if (seen >= rank) return Math.min(highestValueIn(index), max);
+    }
+    return max;
+  }
+}
@@ -0,0 +1,124 @@
+package io.yang.replay;
+
+import io.yang.booking.BookingSession;
+import io.yang.cinema.ScreeningRegistry;
+import io.yang.console.ConsoleIO;
+import io.yang.init.Initializer;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.NoSuchElementException;
+
+/**
+ * Replays a recorded console script through a booking session without anyone at the keyboard.
+ *
+ * <p>A script holds exactly what a user would type, one input per line: the {@code [Title] [Row]
+ * [SeatsPerRow]} line that sets up the screening, followed by menu selections, numbers of seats,
+ * seating positions and booking IDs. It is streamed through a {@link ConsoleIO} a buffer at a time,
+ * so replaying takes the same small amount of memory however long the script is. Everything the
+ * session prints goes to an output stream of the caller's choosing, which can simply discard it.
+ *
+ * <p>The time taken to handle each line is recorded, and the replay ends with a {@link Summary} of
+ * the throughput and latency. A script need not exit the session; running out of lines ends the
+ * replay just the same.
+ */
+public class Replay {
+
+  /** The ID the replayed screening is registered under. */
+  private static final String SCREENING_ID = "replay";
+
+  private Replay() {}
+
+  /**
+   * Replays a script.
+   *
+   * @param script the script to replay, read as UTF-8
+   * @param output the stream receiving everything the session prints
+   * @return the throughput and latency of the replay
+   */
+  public static Summary run(InputStream script, OutputStream output) {
+    TimingConsoleIO console = new TimingConsoleIO(ConsoleIO.of(script, output));
+    ScreeningRegistry registry = new ScreeningRegistry();
+    long start = System.nanoTime();
+    try {
+      registry.register(SCREENING_ID, Initializer.init(console));
+      BookingSession.forScreening(registry, SCREENING_ID, console).run();
+
+    } catch (NoSuchElementException e) {
+      // The script ended without exiting the session
+    }
+    console.finish();
+    return new Summary(console.latencies(), System.nanoTime() - start);
+  }
+
+  /** The throughput and latency of a replay. */
+  public static class Summary {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double NANOS_PER_MICRO = 1e3;
+
+    private final LatencyHistogram latencies;
+    private final long elapsedNanos;
+
+    private Summary(LatencyHistogram latencies, long elapsedNanos) {
+      this.latencies = latencies;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Retrieves the number of script lines that were replayed.
+     *
+     * @return the number of lines
+     */
+    public long getLines() {
+      return latencies.count();
+    }
+
+    /**
+     * Retrieves the wall-clock time the replay took.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+
+    /**
+     * Retrieves the number of lines replayed per second.
+     *
+     * @return the throughput
+     */
+    public double getLinesPerSecond() {
+      return elapsedNanos == 0 ? 0 : getLines() * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+    /**
+     * Retrieves a percentile of the time taken to handle a line.
+     *
+     * @param percentile the percentile, from {@code 0} to {@code 100}
+     * @return the latency in nanoseconds, accurate to within about 6%
+     */
+    public long getLatencyPercentileNanos(double percentile) {
+      return latencies.percentile(percentile);
+    }
+
+    /**
+     * Prints the summary as two lines of text.
+     *
+     * @param out the stream to print to
+     */
+    public void print(PrintStream out) {
+      out.printf(
+          "Replayed %d lines in %.3f s (%.0f lines/s)%n",
+          getLines(), elapsedNanos / NANOS_PER_SECOND, getLinesPerSecond());
+      out.printf(
+          "Latency per line: mean %.1f us, p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n",
+          latencies.mean() / NANOS_PER_MICRO,
+          latencies.percentile(50) / NANOS_PER_MICRO,
+          latencies.percentile(99) / NANOS_PER_MICRO,
+          latencies.percentile(99.9) / NANOS_PER_MICRO,
+          latencies.max() / NANOS_PER_MICRO);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package io.yang.replay;
+
+import io.yang.console.ConsoleIO;
+
+/**
+ * A {@link ConsoleIO} that measures how long the session takes to handle each line it reads.
+ *
+ * <p>A line's latency runs from the moment it is handed to the session until the session asks for
+ * the next line and its output for the line has been flushed, so it covers both the booking logic
+ * and the rendering the line triggered.
+ */
+class TimingConsoleIO implements ConsoleIO {
+
+  private final ConsoleIO delegate;
+  private final LatencyHistogram latencies = new LatencyHistogram();
+
+  /** The time the last line was handed out, or {@code -1} before the first line. */
+  private long lineStart = -1;
+
+  TimingConsoleIO(ConsoleIO delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * Retrieves the latencies of the lines handled so far.
+   *
+   * @return the histogram of latencies
+   */
+  LatencyHistogram latencies() {
+    return latencies;
+  }
+
+  @Override
+  public String readLine() {
+    finish();
+    String line = delegate.readLine();
+    lineStart = System.nanoTime();
+    return line;
+  }
+
+  /** Flushes the output of the line being handled and records its latency, if there is one. */
+  void finish() {
+    delegate.flush();
+    if (lineStart >= 0) {
+      latencies.record(System.nanoTime() - lineStart);
+      lineStart = -1;
+    }
+  }
+
+  @Override
+  public void print(String text) {
+    delegate.print(text);
+  }
+
+  @Override
+  public void println(String text) {
+    delegate.println(text);
+  }
+
+  @Override
+  public void println() {
+    delegate.println();
+  }
+
+  @Override
+  public void printf(String format, Object... args) {
+    delegate.printf(format, args);
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int length) {
+    delegate.write(bytes, offset, length);
+  }
+
+  @Override
+  public void flush() {
+    delegate.flush();
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+}
@@ -0,0 +1,384 @@
+package io.yang.server;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.yang.booking.BookingEngine;
+import io.yang.booking.SeatSelector.Position;
+import io.yang.booking.generator.BookingIdGenerator;
+import io.yang.cinema.Cinema;
+import io.yang.cinema.Seat;
+import io.yang.cinema.converter.PositionConverter;
+import io.yang.cinema.converter.RowLabelConverter;
+import io.yang.cinema.snapshot.BinarySnapshotEncoder;
+import io.yang.cinema.snapshot.JsonSnapshotEncoder;
+import io.yang.cinema.snapshot.SnapshotEncoder;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.commons.lang3.StringUtils.isNumeric;
+
+/**
+ * Serves bookings for one screening over HTTP, so that front ends can book programmatically
+ * instead of driving the console menu.
+ *
+ * <p>The endpoints mirror the console actions and call into the same {@link BookingEngine}:
+ *
+ * <ul>
+ *   <li>{@code GET /availability[?bookingId=GIC0001]} returns a seat map snapshot, as JSON or, if
+ *       the request accepts {@value BinarySnapshotEncoder#CONTENT_TYPE}, in the binary format. The
+ *       snapshot's version is sent as its {@code ETag}, so a client polling with {@code
+ *       If-None-Match} gets an empty {@code 304} until the seat map changes;
+ *   <li>{@code GET /preview?seats=3} shows the seats a booking would be offered, without reserving
+ *       them;
+ *   <li>{@code POST /bookings?seats=3[&position=B03]} holds seats under a new booking ID;
+ *   <li>{@code POST /bookings/GIC0001/reseat?position=B03} moves a held booking, keeping its
+ *       number of seats;
+ *   <li>{@code POST /bookings/GIC0001/confirm} confirms a held booking;
+ *   <li>{@code GET /bookings/GIC0001} checks a booking.
+ * </ul>
+ *
+ * <p>Bookings are answered with their ID, status and seats, for example {@code
+ * {"bookingId":"GIC0001","status":"held","seats":[{"row":"A","seat":4},{"row":"A","seat":5}]}},
+ * with seats labelled as in a {@linkplain JsonSnapshotEncoder JSON snapshot}. Errors are answered
+ * with {@code {"error":"..."}} and the same message the console would show: {@code 400} for
+ * malformed parameters, {@code 404} for unknown bookings, {@code 405} for the wrong method and
+ * {@code 409} when there are not enough seats or the booking can no longer be changed.
+ *
+ * <p>Each request runs on a {@linkplain SessionExecutors thread of its own}, and bookings made over
+ * HTTP compete for seats with every other session booking the same {@link Cinema}.
+ */
+public class BookingHttpServer implements AutoCloseable {
+
+  private static final String BOOKINGS = "/bookings";
+  private static final String RESEAT = "reseat";
+  private static final String CONFIRM = "confirm";
+
+  private static final String HELD = "held";
+  private static final String CONFIRMED = "confirmed";
+
+  private static final Comparator<Seat> SEAT_ORDER =
+      Comparator.comparingInt(Seat::getRow).thenComparingInt(Seat::getColumn);
+
+  private static final SnapshotEncoder JSON = new JsonSnapshotEncoder();
+  private static final SnapshotEncoder BINARY = new BinarySnapshotEncoder();
+
+  private final Cinema cinema;
+  private final BookingEngine bookingEngine;
+  private final HttpServer server;
+  private final ExecutorService requests;
+
+  private BookingHttpServer(Cinema cinema, HttpServer server) {
+    this.cinema = cinema;
+    this.bookingEngine = new BookingEngine(cinema);
+    this.server = server;
+    this.requests = SessionExecutors.newThreadPerTaskExecutor("booking-http");
+
+    server.setExecutor(requests);
+    route("/availability", this::availability);
+    route("/preview", this::preview);
+    route(BOOKINGS, this::bookings);
+  }
+
+  /**
+   * Starts a server accepting requests on the given address.
+   *
+   * @param cinema the screening every request books against
+   * @param address the address to listen on; port {@code 0} picks a free port
+   * @return the running server
+   * @throws IOException if the address cannot be bound
+   */
+  public static BookingHttpServer start(Cinema cinema, InetSocketAddress address)
+      throws IOException {
+    BookingHttpServer httpServer = new BookingHttpServer(cinema, HttpServer.create(address, 0));
+    httpServer.server.start();
+    return httpServer;
+  }
+
+  /**
+   * Retrieves the port the server listens on.
+   *
+   * @return the local port
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /** Stops accepting requests and closes every connection without waiting for pending ones. */
+  @Override
+  public void close() {
+    server.stop(0);
+    requests.shutdown();
+  }
+
+  @FunctionalInterface
+  private interface Endpoint {
+    Response serve(HttpExchange exchange, String path, Map<String, String> parameters);
+  }
+
+  /** Serves the requests under a path, answering malformed parameters with {@code 400}. */
+  private void route(String path, Endpoint endpoint) {
+    server.createContext(
+        path,
+        exchange -> {
+          try (exchange) {
+            Response response;
+            try {
+              String rest = exchange.getRequestURI().getPath().substring(path.length());
+              response = endpoint.serve(exchange, rest, parameters(exchange));
+            } catch (IllegalArgumentException e) {
+              response = Response.error(400, e.getMessage());
+            }
+            send(exchange, response);
+          }
+        });
+  }
+
+  private Response availability(
+      HttpExchange exchange, String path, Map<String, String> parameters) {
+    if (!path.isEmpty()) return Response.notFound();
+    if (!isMethod(exchange, "GET")) return Response.methodNotAllowed(exchange, "GET");
+
+    String tag = "\"" + cinema.getVersion() + "\"";
+    exchange.getResponseHeaders().set("ETag", tag);
+    exchange.getResponseHeaders().set("Vary", "Accept");
+    if (tag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+      // The JDK server drops the connection after a 304 without saying so, and a client reusing
+      // it would see its next request fail. Announcing the close makes clients reconnect instead
+      exchange.getResponseHeaders().set("Connection", "close");
+      return Response.NOT_MODIFIED;
+    }
+
+    String accept = exchange.getRequestHeaders().getFirst("Accept");
+    SnapshotEncoder encoder =
+        accept != null && accept.contains(BINARY.getContentType()) ? BINARY : JSON;
+    ByteBuffer snapshot = encoder.encode(cinema, parameters.get("bookingId"), null);
+    return new Response(200, encoder.getContentType(), snapshot);
+  }
+
+  private Response preview(HttpExchange exchange, String path, Map<String, String> parameters) {
+    if (!path.isEmpty()) return Response.notFound();
+    if (!isMethod(exchange, "GET")) return Response.methodNotAllowed(exchange, "GET");
+
+    Seat[] seats = bookingEngine.preview(numberOfSeats(parameters));
+    StringBuilder json = new StringBuilder("{\"seats\":");
+    seats(json, List.of(seats));
+    return Response.json(200, json.append('}'));
+  }
+
+  /** Routes {@code /bookings} and the paths of individual bookings below it. */
+  private Response bookings(HttpExchange exchange, String path, Map<String, String> parameters) {
+    if (path.isEmpty()) {
+      if (!isMethod(exchange, "POST")) return Response.methodNotAllowed(exchange, "POST");
+      return book(exchange, parameters);
+    }
+
+    if (!path.startsWith("/")) return Response.notFound();
+    String[] segments = path.substring(1).split("/", -1);
+    if (segments[0].isEmpty() || segments.length > 2) return Response.notFound();
+    String bookingId = segments[0];
+    if (segments.length == 1) {
+      if (!isMethod(exchange, "GET")) return Response.methodNotAllowed(exchange, "GET");
+      return check(bookingId);
+    }
+    if (!segments[1].equals(RESEAT) && !segments[1].equals(CONFIRM)) return Response.notFound();
+    if (!isMethod(exchange, "POST")) return Response.methodNotAllowed(exchange, "POST");
+    return segments[1].equals(RESEAT) ? reseat(bookingId, parameters) : confirm(bookingId);
+  }
+
+  private Response book(HttpExchange exchange, Map<String, String> parameters) {
+    int numberOfSeats = numberOfSeats(parameters);
+    String input = parameters.get("position");
+    Position position = input == null ? null : PositionConverter.convert(input, cinema);
+
+    // Each request runs on a thread of its own, which would waste a whole block of IDs
+    String bookingId = BookingIdGenerator.nextSharedId();
+    try {
+      Seat[] seats =
+          position == null
+              ? bookingEngine.hold(bookingId, numberOfSeats)
+              : bookingEngine.hold(bookingId, numberOfSeats, position);
+      exchange.getResponseHeaders().set("Location", BOOKINGS + "/" + bookingId);
+      return booking(201, bookingId, HELD, List.of(seats));
+
+    } catch (IllegalArgumentException e) {
+      return Response.error(409, e.getMessage());
+    }
+  }
+
+  private Response check(String bookingId) {
+    List<Seat> seats = cinema.getBookedSeats(bookingId);
+    if (seats.isEmpty()) return bookingNotFound(bookingId);
+    return booking(200, bookingId, cinema.isOnHold(bookingId) ? HELD : CONFIRMED, seats);
+  }
+
+  /**
+   * Moves a held booking to seats selected from a new position. A booking that cannot be moved
+   * keeps its seats, so that the client can try another position.
+   */
+  private Response reseat(String bookingId, Map<String, String> parameters) {
+    String input = parameters.get("position");
+    if (input == null) throw new IllegalArgumentException("Missing parameter: position");
+    Position position = PositionConverter.convert(input, cinema);
+
+    int numberOfSeats = cinema.getSeatMap().getPackedBookedSeats(bookingId).length;
+    if (numberOfSeats == 0) return bookingNotFound(bookingId);
+
+    // Whether the booking is still on hold is decided atomically with the move itself
+    try {
+      Seat[] seats = bookingEngine.reseat(bookingId, numberOfSeats, position);
+      return booking(200, bookingId, HELD, List.of(seats));
+
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      return Response.error(409, e.getMessage());
+    }
+  }
+
+  /** Confirms a held booking. Confirming a booking that is already confirmed changes nothing. */
+  private Response confirm(String bookingId) {
+    if (!bookingEngine.confirm(bookingId) && !cinema.hasBooking(bookingId)) {
+      return bookingNotFound(bookingId);
+    }
+    return check(bookingId);
+  }
+
+  private Response booking(int status, String bookingId, String state, List<Seat> seats) {
+    StringBuilder json = new StringBuilder("{\"bookingId\":");
+    string(json, bookingId);
+    json.append(",\"status\":\"").append(state).append("\",\"seats\":");
+    seats(json, seats);
+    return Response.json(status, json.append('}'));
+  }
+
+  private static Response bookingNotFound(String bookingId) {
+    return Response.error(404, "Booking id: " + bookingId + " not found.");
+  }
+
+  /** Parses the number of seats to book, as the console would. */
+  private static int numberOfSeats(Map<String, String> parameters) {
+    String input = parameters.get("seats");
+    if (input == null
+        || !isNumeric(input)
+        || input.length() > 9
+        || Integer.parseInt(input) <= 0) {
+      throw new IllegalArgumentException("Number of tickets must be an integer greater than 0");
+    }
+    return Integer.parseInt(input);
+  }
+
+  private static boolean isMethod(HttpExchange exchange, String method) {
+    return exchange.getRequestMethod().equals(method);
+  }
+
+  /** Decodes the query parameters of a request. Only the first value of each name is kept. */
+  private static Map<String, String> parameters(HttpExchange exchange) {
+    Map<String, String> parameters = new HashMap<>();
+    String query = exchange.getRequestURI().getRawQuery();
+    if (query == null || query.isEmpty()) return parameters;
+
+    for (String pair : query.split("&")) {
+      int separator = pair.indexOf('=');
+      String name = separator < 0 ? pair : pair.substring(0, separator);
+      String value = separator < 0 ? "" : pair.substring(separator + 1);
+      parameters.putIfAbsent(
+          URLDecoder.decode(name, StandardCharsets.UTF_8),
+          URLDecoder.decode(value, StandardCharsets.UTF_8));
+    }
+    return parameters;
+  }
+
+  /**
+   * Writes seats as a JSON array of row labels and seat numbers starting at 1, in the order a
+   * {@linkplain JsonSnapshotEncoder JSON snapshot} lists its own seats.
+   */
+  private void seats(StringBuilder json, List<Seat> seats) {
+    int rows = cinema.getSeatMap().getRows();
+    Seat[] sorted = seats.toArray(new Seat[0]);
+    Arrays.sort(sorted, SEAT_ORDER);
+    json.append('[');
+    for (int i = 0; i < sorted.length; i++) {
+      if (i > 0) json.append(',');
+      Seat seat = sorted[i];
+      json.append("{\"row\":\"").append(RowLabelConverter.toRowLabel(seat.getRow(), rows));
+      json.append("\",\"seat\":").append(seat.getColumn() + 1).append('}');
+    }
+    json.append(']');
+  }
+
+  /** Writes a JSON string, escaping quotes, backslashes and control characters. */
+  private static void string(StringBuilder json, String text) {
+    json.append('"');
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '"' || c == '\\') {
+        json.append('\\').append(c);
+      } else if (c < 0x20) {
+        json.append(String.format("\\u%04x", (int) c));
+      } else {
+        json.append(c);
+      }
+    }
+    json.append('"');
+  }
+
+  private static void send(HttpExchange exchange, Response response) throws IOException {
+    ByteBuffer body = response.body;
+    if (body == null || !body.hasRemaining()) {
+      exchange.sendResponseHeaders(response.status, -1);
+      return;
+    }
+
+    exchange.getResponseHeaders().set("Content-Type", response.contentType);
+    exchange.sendResponseHeaders(response.status, body.remaining());
+    exchange
+        .getResponseBody()
+        .write(body.array(), body.arrayOffset() + body.position(), body.remaining());
+  }
+
+  /** The status, media type and body of a response. */
+  private static class Response {
+
+    private static final Response NOT_MODIFIED = new Response(304, null, null);
+
+    private final int status;
+    private final String contentType;
+    private final ByteBuffer body;
+
+    private Response(int status, String contentType, ByteBuffer body) {
+      this.status = status;
+      this.contentType = contentType;
+      this.body = body;
+    }
+
+    private static Response json(int status, CharSequence json) {
+      ByteBuffer body = ByteBuffer.wrap(json.toString().getBytes(StandardCharsets.UTF_8));
+      return new Response(status, JsonSnapshotEncoder.CONTENT_TYPE, body);
+    }
+
+    private static Response error(int status, String message) {
+      StringBuilder json = new StringBuilder("{\"error\":");
+      string(json, message == null ? "" : message);
+      return json(status, json.append('}'));
+    }
+
+    private static Response notFound() {
+      return error(404, "Not found.");
+    }
+
+    private static Response methodNotAllowed(HttpExchange exchange, String allowed) {
+      Headers headers = exchange.getResponseHeaders();
+      headers.set("Allow", allowed);
+      return error(405, "Method not allowed.");
+    }
+  }
+}
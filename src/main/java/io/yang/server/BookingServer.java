@@ -0,0 +1,128 @@
+package io.yang.server;
+
+import io.yang.booking.BookingSession;
+import io.yang.cinema.Cinema;
+import io.yang.console.ConsoleIO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Serves booking sessions over TCP, one session per connection, all booking against one screening.
+ *
+ * <p>A client sees exactly what a user at the console would: it sends one line per input and reads
+ * back the menu, prompts and seat maps. Each connection gets its own {@link BookingSession}, with
+ * its own menu and actions, running on a {@linkplain SessionExecutors thread of its own}. The
+ * sessions share the screening's {@link Cinema}, which is safe for concurrent use, so customers on
+ * different connections compete for seats exactly as they would at neighbouring kiosks.
+ *
+ * <p>A client that disconnects ends its session; seats it had on hold are released when the hold
+ * expires. Closing the server stops accepting connections and disconnects every client.
+ */
+public class BookingServer implements AutoCloseable {
+
+  private final Cinema cinema;
+  private final ServerSocket serverSocket;
+  private final ExecutorService sessions;
+
+  /** The sockets of the sessions in progress, closed when the server closes. */
+  private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+  private BookingServer(Cinema cinema, ServerSocket serverSocket) {
+    this.cinema = cinema;
+    this.serverSocket = serverSocket;
+    this.sessions = SessionExecutors.newThreadPerTaskExecutor("booking-session");
+  }
+
+  /**
+   * Starts a server accepting connections on the given address.
+   *
+   * @param cinema the screening every session books against
+   * @param address the address to listen on; port {@code 0} picks a free port
+   * @return the running server
+   * @throws IOException if the address cannot be bound
+   */
+  public static BookingServer start(Cinema cinema, InetSocketAddress address) throws IOException {
+    ServerSocket serverSocket = new ServerSocket();
+    try {
+      serverSocket.bind(address);
+    } catch (IOException e) {
+      serverSocket.close();
+      throw e;
+    }
+
+    BookingServer server = new BookingServer(cinema, serverSocket);
+    Thread acceptor = new Thread(server::acceptConnections, "booking-server");
+    acceptor.start();
+    return server;
+  }
+
+  /**
+   * Retrieves the port the server listens on.
+   *
+   * @return the local port
+   */
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  private void acceptConnections() {
+    while (!serverSocket.isClosed()) {
+      Socket socket;
+      try {
+        socket = serverSocket.accept();
+      } catch (IOException e) {
+        // Either the server was closed, or the connection failed before it was accepted
+        continue;
+      }
+
+      connections.add(socket);
+      try {
+        sessions.execute(() -> serve(socket));
+      } catch (RejectedExecutionException e) {
+        disconnect(socket);
+      }
+    }
+  }
+
+  /** Runs a booking session over a connection until the client exits or disconnects. */
+  private void serve(Socket socket) {
+    try {
+      socket.setTcpNoDelay(true);
+      ConsoleIO console = ConsoleIO.of(socket.getInputStream(), socket.getOutputStream());
+      BookingSession.forScreening(cinema, console).run();
+
+    } catch (NoSuchElementException | IOException | UncheckedIOException e) {
+      // The client disconnected; the other sessions carry on
+    } finally {
+      disconnect(socket);
+    }
+  }
+
+  private void disconnect(Socket socket) {
+    connections.remove(socket);
+    try {
+      socket.close();
+    } catch (IOException e) {
+      // Nothing more can be done for this connection
+    }
+  }
+
+  /** Stops accepting connections and disconnects every client. */
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+    sessions.shutdown();
+    for (Socket socket : connections) {
+      disconnect(socket);
+    }
+  }
+}
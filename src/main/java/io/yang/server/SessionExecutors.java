@@ -0,0 +1,43 @@
+package io.yang.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the executors that run one task per client session or HTTP request.
+ *
+ * <p>Sessions and requests spend nearly all their time blocked on the network, so on a runtime with
+ * virtual threads each one gets a virtual thread of its own, and an idle connection costs little
+ * more than its buffers. The project still targets Java 17, so the virtual-thread executor is
+ * looked up reflectively; on runtimes without it, or where it is only a preview feature, tasks fall
+ * back to a cached pool of daemon platform threads.
+ */
+class SessionExecutors {
+
+  private SessionExecutors() {}
+
+  /**
+   * Creates an executor that starts a new thread for every task.
+   *
+   * @param name the name given to the platform threads of the fallback pool, followed by a number
+   * @return a virtual-thread-per-task executor if the runtime supports one, otherwise a cached
+   *     thread pool
+   */
+  static ExecutorService newThreadPerTaskExecutor(String name) {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+
+    } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+      AtomicInteger threadIds = new AtomicInteger();
+      return Executors.newCachedThreadPool(
+          task -> {
+            Thread thread = new Thread(task, name + "-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          });
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package io.yang.booking;
+
+import io.yang.booking.SeatSelector.Position;
+import io.yang.cinema.Cinema;
+import io.yang.init.CinemaConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures reservation throughput while every thread competes for the same centre rows, as during
+ * an on-sale spike. Each operation books a party of four and releases it again.
+ *
+ * <p>Compare thread counts with {@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark="BookingEngineBenchmark -t 1"} against {@code -t 4}, {@code -t 8} and so on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class BookingEngineBenchmark {
+
+  private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+  private Cinema cinema;
+  private Position centre;
+
+  @Setup
+  public void setUp() {
+    cinema = new Cinema(new CinemaConfiguration("Movie", 50, 200));
+    centre = new Position(25, 98);
+  }
+
+  @State(Scope.Thread)
+  public static class Client {
+    private final String bookingId = "GIC" + THREAD_IDS.incrementAndGet();
+    private BookingEngine engine;
+
+    @Setup
+    public void setUp(BookingEngineBenchmark benchmark) {
+      engine = new BookingEngine(benchmark.cinema);
+    }
+  }
+
+  @Benchmark
+  public void bookAndReleaseHotRow(Client client) {
+    client.engine.book(client.bookingId, 4, centre);
+    client.engine.release(client.bookingId);
+  }
+}
@@ -0,0 +1,403 @@
+package io.yang.booking;
+
+import io.yang.booking.BookingEngine.BatchRequest;
+import io.yang.booking.BookingEngine.BatchResult;
+import io.yang.booking.SeatSelector.Position;
+import io.yang.cinema.Cinema;
+import io.yang.cinema.Seat;
+import io.yang.cinema.SeatMap;
+import io.yang.init.CinemaConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingEngineTest {
+
+  private static final int THREADS = 16;
+
+  @Test
+  void testBookAndRelease() {
+    // Given
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 3, 5));
+    BookingEngine engine = new BookingEngine(cinema);
+
+    // When
+    Seat[] seats = engine.book("GIC0001", 3);
+
+    // Then
+    assertEquals(3, seats.length);
+    assertEquals(12, cinema.getAvailableSeatsCount());
+    assertTrue(cinema.hasBooking("GIC0001"));
+
+    // When
+    engine.release("GIC0001");
+
+    // Then
+    assertEquals(15, cinema.getAvailableSeatsCount());
+    assertFalse(cinema.hasBooking("GIC0001"));
+  }
+
+  @Test
+  void testBookNotEnoughSeats() {
+    // Given
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 2, 2));
+    BookingEngine engine = new BookingEngine(cinema);
+    engine.book("GIC0001", 3);
+
+    // When
+    IllegalArgumentException exception =
+        assertThrows(
+            IllegalArgumentException.class, () -> engine.book("GIC0002", 2, new Position(0, 0)));
+
+    // Then nothing is reserved for the failed booking
+    assertEquals("Sorry, there are only 1 seats available", exception.getMessage());
+    assertFalse(cinema.hasBooking("GIC0002"));
+    assertEquals(1, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testConcurrentBookingsNeverDoubleBook() throws Exception {
+    // Given a hall that all threads fight over until it sells out
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 20, 30));
+    Map<String, Seat[]> bookings = new ConcurrentHashMap<>();
+
+    // When
+    runConcurrently(
+        thread -> {
+          BookingEngine engine = new BookingEngine(cinema);
+          SplittableRandom random = new SplittableRandom(thread);
+          for (int i = 0; cinema.getAvailableSeatsCount() > 0; i++) {
+            String bookingId = "T" + thread + "-" + i;
+            int numberOfSeats = 1 + random.nextInt(4);
+            try {
+              Seat[] seats =
+                  random.nextBoolean()
+                      ? engine.book(bookingId, numberOfSeats)
+                      : engine.book(bookingId, numberOfSeats, randomPosition(random, cinema));
+              bookings.put(bookingId, seats);
+            } catch (IllegalArgumentException soldOut) {
+              // Fewer seats left than requested; try a smaller party next time
+            }
+          }
+        });
+
+    // Then every seat belongs to exactly one booking
+    Set<Seat> bookedSeats = new HashSet<>();
+    for (Map.Entry<String, Seat[]> booking : bookings.entrySet()) {
+      for (Seat seat : booking.getValue()) {
+        assertTrue(bookedSeats.add(seat), "Seat was booked twice");
+        assertEquals(booking.getKey(), seat.getBookingId());
+      }
+    }
+    assertEquals(600, bookedSeats.size());
+    assertEquals(0, cinema.getAvailableSeatsCount());
+    assertCountersMatchSeatMap(cinema.getSeatMap());
+  }
+
+  @Test
+  void testConcurrentBookAndReleaseKeepsStateConsistent() throws Exception {
+    // Given
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 10, 20));
+
+    // When threads keep booking and releasing near the same rows
+    runConcurrently(
+        thread -> {
+          BookingEngine engine = new BookingEngine(cinema);
+          SplittableRandom random = new SplittableRandom(thread);
+          List<String> held = new ArrayList<>();
+          for (int i = 0; i < 500; i++) {
+            String bookingId = "T" + thread + "-" + i;
+            try {
+              engine.book(bookingId, 1 + random.nextInt(3), new Position(4, 10));
+              held.add(bookingId);
+            } catch (IllegalArgumentException soldOut) {
+              // Hall is momentarily full
+            }
+            if (!held.isEmpty() && random.nextBoolean()) {
+              engine.release(held.remove(random.nextInt(held.size())));
+            }
+          }
+        });
+
+    // Then
+    SeatMap seatMap = cinema.getSeatMap();
+    for (int row = 0; row < seatMap.getRows(); row++) {
+      for (int col = 0; col < seatMap.getSeatsPerRow(); col++) {
+        String owner = seatMap.getBookingId(row, col);
+        assertEquals(seatMap.isAvailable(row, col), owner == null);
+        if (owner != null) {
+          assertTrue(cinema.getBookedSeats(owner).contains(seatMap.getSeat(row, col)));
+        }
+      }
+    }
+    assertCountersMatchSeatMap(seatMap);
+  }
+
+  @Test
+  void testReseatKeepsSharedSeats() {
+    // Given a party of three at the start of the front row
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 2, 6));
+    BookingEngine engine = new BookingEngine(cinema);
+    engine.hold("GIC0001", 3, new Position(0, 0));
+
+    // When the party moves one seat to the right
+    Seat[] seats = engine.reseat("GIC0001", 3, new Position(0, 1));
+
+    // Then only the seats at either end change hands
+    SeatMap seatMap = cinema.getSeatMap();
+    assertArrayEquals(
+        new Seat[] {seatMap.getSeat(0, 1), seatMap.getSeat(0, 2), seatMap.getSeat(0, 3)}, seats);
+    assertTrue(seatMap.isAvailable(0, 0));
+    assertEquals(3, cinema.getBookedSeats("GIC0001").size());
+    assertTrue(cinema.isOnHold("GIC0001"));
+    assertEquals(9, cinema.getAvailableSeatsCount());
+    assertCountersMatchSeatMap(seatMap);
+  }
+
+  @Test
+  void testConcurrentReseatNeverLosesSeats() throws Exception {
+    // Given one party per thread
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 10, 20));
+    int partySize = 3;
+
+    // When every thread keeps moving its party around the hall
+    runConcurrently(
+        thread -> {
+          BookingEngine engine = new BookingEngine(cinema);
+          SplittableRandom random = new SplittableRandom(thread);
+          String bookingId = "T" + thread;
+          engine.hold(bookingId, partySize, randomPosition(random, cinema));
+          for (int i = 0; i < 500; i++) {
+            Seat[] seats = engine.reseat(bookingId, partySize, randomPosition(random, cinema));
+
+            // Then the party always ends up owning exactly the seats it was given
+            assertEquals(partySize, seats.length);
+            for (Seat seat : seats) {
+              assertEquals(bookingId, seat.getBookingId());
+            }
+          }
+        });
+
+    // Then
+    assertEquals(200 - THREADS * partySize, cinema.getAvailableSeatsCount());
+    assertCountersMatchSeatMap(cinema.getSeatMap());
+  }
+
+  @Test
+  void testBookAllSeatsEveryParty() {
+    // Given
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 3, 5));
+    BookingEngine engine = new BookingEngine(cinema);
+
+    // When
+    List<BatchResult> results =
+        engine.bookAll(List.of(new BatchRequest(3), new BatchRequest(2, new Position(0, 0))));
+
+    // Then
+    assertEquals(2, results.size());
+    assertTrue(results.get(0).isBooked());
+    assertEquals(3, results.get(0).getSeats().length);
+    assertTrue(cinema.hasBooking(results.get(0).getBookingId()));
+    Seat[] positioned = results.get(1).getSeats();
+    assertEquals(0, positioned[0].getRow());
+    assertEquals(0, positioned[0].getColumn());
+    assertEquals(10, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testBookAllRejectsPartiesThatDoNotFit() {
+    // Given
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 2, 3));
+    BookingEngine engine = new BookingEngine(cinema);
+
+    // When the second party no longer fits and the third is invalid
+    List<BatchResult> results =
+        engine.bookAll(
+            List.of(
+                new BatchRequest(4),
+                new BatchRequest(3),
+                new BatchRequest(0),
+                new BatchRequest(2)));
+
+    // Then the other parties are still seated
+    assertTrue(results.get(0).isBooked());
+    assertFalse(results.get(1).isBooked());
+    assertNull(results.get(1).getBookingId());
+    assertEquals(0, results.get(1).getSeats().length);
+    assertEquals("Sorry, there are only 2 seats available", results.get(1).getFailureReason());
+    assertEquals(
+        "Number of tickets must be an integer greater than 0", results.get(2).getFailureReason());
+    assertTrue(results.get(3).isBooked());
+    assertEquals(0, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testBookAllLargeAllotment() {
+    // Given hundreds of parties that together fill most of a large hall
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 100, 200));
+    BookingEngine engine = new BookingEngine(cinema);
+    SplittableRandom random = new SplittableRandom(3);
+    List<BatchRequest> requests = new ArrayList<>();
+    int requestedSeats = 0;
+    while (requestedSeats < 15_000) {
+      int partySize = 1 + random.nextInt(30);
+      requests.add(new BatchRequest(partySize));
+      requestedSeats += partySize;
+    }
+
+    // When
+    List<BatchResult> results = engine.bookAll(requests);
+
+    // Then every party is seated on seats no other party holds
+    Set<Seat> seats = new HashSet<>();
+    for (BatchResult result : results) {
+      assertTrue(result.isBooked());
+      for (Seat seat : result.getSeats()) {
+        assertTrue(seats.add(seat));
+      }
+    }
+    assertEquals(20_000 - requestedSeats, cinema.getAvailableSeatsCount());
+    assertCountersMatchSeatMap(cinema.getSeatMap());
+  }
+
+  @Test
+  void testBookAllWhileOthersBook() throws Exception {
+    // Given an allotment of pairs that would fill most of the hall on its own
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 20, 20));
+    List<BatchRequest> requests = new ArrayList<>();
+    for (int i = 0; i < 150; i++) {
+      requests.add(new BatchRequest(2));
+    }
+    List<BatchResult> results = new ArrayList<>();
+    Map<String, Integer> singles = new ConcurrentHashMap<>();
+
+    // When one thread books the allotment while the others book pairs until the hall is full
+    runConcurrently(
+        thread -> {
+          BookingEngine engine = new BookingEngine(cinema);
+          if (thread == 0) {
+            results.addAll(engine.bookAll(requests));
+            return;
+          }
+          for (int i = 0; ; i++) {
+            String bookingId = "T" + thread + "-" + i;
+            try {
+              engine.book(bookingId, 2);
+              singles.put(bookingId, 2);
+            } catch (IllegalArgumentException e) {
+              return;
+            }
+          }
+        });
+
+    // Then every party that was seated owns exactly its seats, and no seat is counted twice
+    int bookedSeats = 0;
+    for (BatchResult result : results) {
+      if (!result.isBooked()) continue;
+      assertEquals(2, result.getSeats().length);
+      for (Seat seat : result.getSeats()) {
+        assertEquals(result.getBookingId(), seat.getBookingId());
+      }
+      assertEquals(2, cinema.getBookedSeats(result.getBookingId()).size());
+      bookedSeats += 2;
+    }
+    for (String bookingId : singles.keySet()) {
+      assertEquals(2, cinema.getBookedSeats(bookingId).size());
+      bookedSeats += 2;
+    }
+    assertEquals(150, results.size());
+    assertEquals(400, bookedSeats);
+    assertEquals(0, cinema.getAvailableSeatsCount());
+    assertCountersMatchSeatMap(cinema.getSeatMap());
+  }
+
+  @Test
+  void testPreviewDoesNotReserveAndMatchesBooking() {
+    // Given
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 3, 5));
+    BookingEngine engine = new BookingEngine(cinema);
+    long version = cinema.getVersion();
+
+    // When
+    Seat[] previewed = engine.preview(3);
+
+    // Then nothing is reserved, and a second kiosk sees the same seats
+    assertEquals(15, cinema.getAvailableSeatsCount());
+    assertEquals(version, cinema.getVersion());
+    assertArrayEquals(previewed, new BookingEngine(cinema).preview(3));
+
+    // When the party books
+    Seat[] booked = engine.book("GIC0001", 3);
+
+    // Then it gets the previewed seats, and the next preview moves on
+    assertArrayEquals(previewed, booked);
+    assertFalse(List.of(engine.preview(3)).contains(booked[0]));
+  }
+
+  private static Position randomPosition(SplittableRandom random, Cinema cinema) {
+    SeatMap seatMap = cinema.getSeatMap();
+    return new Position(
+        random.nextInt(seatMap.getRows()), random.nextInt(seatMap.getSeatsPerRow()));
+  }
+
+  private static void assertCountersMatchSeatMap(SeatMap seatMap) {
+    int total = 0;
+    for (int row = 0; row < seatMap.getRows(); row++) {
+      int available = 0;
+      for (int col = 0; col < seatMap.getSeatsPerRow(); col++) {
+        if (seatMap.isAvailable(row, col)) available++;
+      }
+      assertEquals(available, seatMap.getAvailableSeats(row));
+      total += available;
+    }
+    assertEquals(total, seatMap.getAvailableSeats());
+  }
+
+  private static void runConcurrently(ThreadTask task) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < THREADS; thread++) {
+        int threadId = thread;
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  task.run(threadId);
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @FunctionalInterface
+  private interface ThreadTask {
+    void run(int thread);
+  }
+}
@@ -1,42 +1,39 @@
 package io.yang.booking;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.yang.booking.option.ExitOption;
 import io.yang.booking.option.Option;
+import io.yang.cinema.Cinema;
+import io.yang.cinema.ScreeningRegistry;
+import io.yang.console.ConsoleIO;
+import io.yang.init.CinemaConfiguration;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
-import java.util.Scanner;
+import java.nio.charset.StandardCharsets;
 
-import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 class BookingSessionTest {
 
   private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
-  private final PrintStream originalOut = System.out;
 
-  @BeforeEach
-  void setUp() {
-    System.setOut(new PrintStream(outContent));
-  }
-
-  @AfterEach
-  void tearDown() {
-    System.setOut(originalOut);
-    outContent.reset();
+  private ConsoleIO consoleWith(String input) {
+    return ConsoleIO.of(
+        new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), outContent);
   }
 
   @Test
   void testRunStopsWhenCommandReturnsFalse() {
     // Given
     Option[] options = {new ExitOption()};
-    Scanner scanner = new Scanner("1\n");
+    ConsoleIO console = consoleWith("1\n");
 
     // When
-    new BookingSession(options, scanner).run();
+    new BookingSession(options, console).run();
     String output = outContent.toString();
 
     // If the session loop ends without issues, the test passes
@@ -44,4 +41,29 @@ class BookingSessionTest {
         output.contains("Thank you for using GIC Cinemas system, Bye!"),
         "Should display exit message");
   }
+
+  @Test
+  void testForScreeningBooksAgainstSelectedScreening() {
+    // Given
+    ScreeningRegistry registry = new ScreeningRegistry();
+    Cinema first = registry.register("S1", new CinemaConfiguration("Inception", 2, 3));
+    Cinema second = registry.register("S2", new CinemaConfiguration("Tenet", 2, 3));
+    ConsoleIO console = consoleWith("1\n2\n\n3\n");
+
+    // When
+    BookingSession.forScreening(registry, "S2", console).run();
+
+    // Then
+    assertEquals(6, first.getAvailableSeatsCount());
+    assertEquals(4, second.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testForUnknownScreening() {
+    ScreeningRegistry registry = new ScreeningRegistry();
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> BookingSession.forScreening(registry, "S9", consoleWith("")));
+  }
 }
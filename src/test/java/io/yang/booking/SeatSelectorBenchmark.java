@@ -0,0 +1,87 @@
+package io.yang.booking;
+
+import io.yang.booking.SeatSelector.Position;
+import io.yang.cinema.Seat;
+import io.yang.cinema.SeatMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures seat selection latency on stadium-scale halls.
+ *
+ * <p>Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=SeatSelectorBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatSelectorBenchmark {
+
+  /** Hall layouts as {@code rows x seatsPerRow}; both exceed 100k seats. */
+  @Param({"250x400", "702x999"})
+  public String layout;
+
+  /** Percentage of seats reserved before selection starts. */
+  @Param({"50", "90", "99"})
+  public int occupancyPercent;
+
+  @Param({"4"})
+  public int numberOfSeats;
+
+  private SeatMap seatMap;
+  private Position middle;
+  private int[] selection;
+
+  @Setup
+  public void setUp() {
+    String[] dimensions = layout.split("x");
+    int rows = Integer.parseInt(dimensions[0]);
+    int seatsPerRow = Integer.parseInt(dimensions[1]);
+
+    seatMap = new SeatMap(rows, seatsPerRow);
+    SplittableRandom random = new SplittableRandom(42);
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < seatsPerRow; col++) {
+        if (random.nextInt(100) < occupancyPercent) {
+          seatMap.reserve(row, col, "GIC0001");
+        }
+      }
+    }
+    middle = new Position(rows / 2, seatsPerRow / 2);
+    selection = new int[numberOfSeats];
+  }
+
+  @Benchmark
+  public Seat[] defaultSelection() {
+    return SeatSelector.selectSeats(numberOfSeats, seatMap);
+  }
+
+  @Benchmark
+  public Seat[] selectionFromPosition() {
+    return SeatSelector.selectSeats(numberOfSeats, seatMap, middle);
+  }
+
+  @Benchmark
+  public int packedDefaultSelection() {
+    return SeatSelector.selectSeats(numberOfSeats, seatMap, selection);
+  }
+
+  @Benchmark
+  public int packedSelectionFromPosition() {
+    return SeatSelector.selectSeats(numberOfSeats, seatMap, middle, selection);
+  }
+}
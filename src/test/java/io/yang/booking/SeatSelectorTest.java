@@ -2,23 +2,31 @@ package io.yang.booking;
 
 import io.yang.booking.SeatSelector.Position;
 import io.yang.cinema.Seat;
+import io.yang.cinema.SeatMap;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
 import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class SeatSelectorTest {
 
   @Test
   void testSelectSeatsWithPosition_FrontToBack() {
     // Given
-    Seat[][] seats = createSeatMatrix(3, 2);
-    Seat[] shouldBeReserved = new Seat[] {seats[0][0], seats[0][1], seats[1][1]};
-    Seat[] shouldBeAvailable = new Seat[] {seats[1][0], seats[2][0], seats[2][1]};
+    SeatMap seats = createSeatMatrix(3, 2);
+    Seat[] shouldBeReserved =
+        new Seat[] {seats.getSeat(0, 0), seats.getSeat(0, 1), seats.getSeat(1, 1)};
+    Seat[] shouldBeAvailable =
+        new Seat[] {seats.getSeat(1, 0), seats.getSeat(2, 0), seats.getSeat(2, 1)};
 
     // When
     Seat[] selected = SeatSelector.selectSeats(3, seats, new Position(0, 0));
@@ -34,9 +42,11 @@ class SeatSelectorTest {
   @Test
   void testSelectSeatsWithPosition_BackToFront() {
     // Given
-    Seat[][] seats = createSeatMatrix(3, 2);
-    Seat[] shouldBeReserved = new Seat[] {seats[2][0], seats[2][1], seats[1][1]};
-    Seat[] shouldBeAvailable = new Seat[] {seats[0][0], seats[0][1], seats[1][0]};
+    SeatMap seats = createSeatMatrix(3, 2);
+    Seat[] shouldBeReserved =
+        new Seat[] {seats.getSeat(2, 0), seats.getSeat(2, 1), seats.getSeat(1, 1)};
+    Seat[] shouldBeAvailable =
+        new Seat[] {seats.getSeat(0, 0), seats.getSeat(0, 1), seats.getSeat(1, 0)};
 
     // When
     Seat[] selected = SeatSelector.selectSeats(3, seats, new Position(2, 0));
@@ -52,9 +62,12 @@ class SeatSelectorTest {
   @Test
   void testSelectSeatsWithPosition_LeftToRight() {
     // Given
-    Seat[][] seats = createSeatMatrix(2, 3);
-    Seat[] shouldBeReserved = new Seat[] {seats[0][0], seats[0][1]};
-    Seat[] shouldBeAvailable = new Seat[] {seats[0][2], seats[1][0], seats[1][1], seats[1][2]};
+    SeatMap seats = createSeatMatrix(2, 3);
+    Seat[] shouldBeReserved = new Seat[] {seats.getSeat(0, 0), seats.getSeat(0, 1)};
+    Seat[] shouldBeAvailable =
+        new Seat[] {
+          seats.getSeat(0, 2), seats.getSeat(1, 0), seats.getSeat(1, 1), seats.getSeat(1, 2)
+        };
 
     // When
     Seat[] selected = SeatSelector.selectSeats(2, seats, new Position(0, 0));
@@ -70,9 +83,12 @@ class SeatSelectorTest {
   @Test
   void testSelectSeatsWithPosition_RightToLeft() {
     // Given
-    Seat[][] seats = createSeatMatrix(2, 3);
-    Seat[] shouldBeReserved = new Seat[] {seats[0][1], seats[0][2]};
-    Seat[] shouldBeAvailable = new Seat[] {seats[0][0], seats[1][0], seats[1][1], seats[1][2]};
+    SeatMap seats = createSeatMatrix(2, 3);
+    Seat[] shouldBeReserved = new Seat[] {seats.getSeat(0, 1), seats.getSeat(0, 2)};
+    Seat[] shouldBeAvailable =
+        new Seat[] {
+          seats.getSeat(0, 0), seats.getSeat(1, 0), seats.getSeat(1, 1), seats.getSeat(1, 2)
+        };
 
     // When
     Seat[] selected = SeatSelector.selectSeats(2, seats, new Position(0, 2));
@@ -88,12 +104,13 @@ class SeatSelectorTest {
   @Test
   void testSelectSeatsWithPosition_OutsideOfMatrix() {
     // Given
-    Seat[][] seats = createSeatMatrix(3, 3);
+    SeatMap seats = createSeatMatrix(3, 3);
     Seat[] shouldBeReserved =
         new Seat[] {
-          seats[0][0], seats[0][1], seats[0][2], seats[1][0], seats[1][1], seats[1][2], seats[2][1]
+          seats.getSeat(0, 0), seats.getSeat(0, 1), seats.getSeat(0, 2), seats.getSeat(1, 0),
+          seats.getSeat(1, 1), seats.getSeat(1, 2), seats.getSeat(2, 1)
         };
-    Seat[] shouldBeAvailable = new Seat[] {seats[2][0], seats[2][2]};
+    Seat[] shouldBeAvailable = new Seat[] {seats.getSeat(2, 0), seats.getSeat(2, 2)};
 
     // When
     Seat[] selected = SeatSelector.selectSeats(7, seats, new Position(1, 1));
@@ -109,8 +126,8 @@ class SeatSelectorTest {
   @Test
   void testSelectSeatsWithoutPosition() {
     // Given
-    Seat[][] seats = createSeatMatrix(5, 5);
-    Seat[] expected = new Seat[] {seats[4][1], seats[4][2], seats[4][3]};
+    SeatMap seats = createSeatMatrix(5, 5);
+    Seat[] expected = new Seat[] {seats.getSeat(4, 1), seats.getSeat(4, 2), seats.getSeat(4, 3)};
 
     // When
     Seat[] selected = SeatSelector.selectSeats(3, seats);
@@ -125,11 +142,11 @@ class SeatSelectorTest {
   @Test
   void testSelectSeatsZeroRequested() {
     // Given
-    Seat[][] seats = createSeatMatrix(2, 2);
+    SeatMap seats = createSeatMatrix(2, 2);
 
     // When
     Seat[] selectedWithPos = SeatSelector.selectSeats(0, seats, new Position(0, 0));
-    List<Seat> selectedRow = SeatSelector.selectSeats(0, createSeatRow(2));
+    List<Seat> selectedRow = SeatSelector.selectSeats(0, seats, 0);
     Seat[] selectedNoPos = SeatSelector.selectSeats(0, seats);
 
     // Then
@@ -147,7 +164,7 @@ class SeatSelectorTest {
   @Test
   void testSelectSeatsNotEnoughAvailable() {
     // Given
-    Seat[][] seats = createSeatMatrix(2, 2);
+    SeatMap seats = createSeatMatrix(2, 2);
     Position position = new Position(0, 0);
 
     // When
@@ -158,17 +175,92 @@ class SeatSelectorTest {
     assertEquals(4, result.length, "Should return whatever seats are available");
   }
 
-  /** Helper method to create a 2D array (matrix) of Seat objects. */
-  private Seat[][] createSeatMatrix(int rows, int cols) {
-    return java.util.stream.IntStream.range(0, rows)
-        .mapToObj(r -> createSeatRow(cols))
-        .toArray(Seat[][]::new);
+  @Test
+  void testPackedSelectionMatchesSeatSelection() {
+    // Given
+    SeatMap seats = createPartlyReservedSeatMatrix(20, 70);
+    Position position = new Position(10, 30);
+    int[] selection = new int[50];
+
+    // When
+    int fromPosition = SeatSelector.selectSeats(50, seats, position, selection);
+    Seat[] expectedFromPosition = SeatSelector.selectSeats(50, seats, position);
+
+    // Then
+    assertEquals(expectedFromPosition.length, fromPosition);
+    assertArrayEquals(expectedFromPosition, toSeats(seats, selection, fromPosition));
+
+    // When
+    int withoutPosition = SeatSelector.selectSeats(50, seats, selection);
+    Seat[] expectedWithoutPosition = SeatSelector.selectSeats(50, seats);
+
+    // Then
+    assertEquals(expectedWithoutPosition.length, withoutPosition);
+    assertArrayEquals(expectedWithoutPosition, toSeats(seats, selection, withoutPosition));
+  }
+
+  @Test
+  void testPackedSelectionRejectsShortBuffer() {
+    // Given
+    SeatMap seats = createSeatMatrix(2, 2);
+
+    // Then
+    assertThrows(
+        IllegalArgumentException.class, () -> SeatSelector.selectSeats(3, seats, new int[2]));
+  }
+
+  @Test
+  void testPackedSelectionDoesNotAllocate() {
+    // Given
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(threads.isThreadAllocatedMemorySupported());
+    assumeTrue(threads.isThreadAllocatedMemoryEnabled());
+
+    SeatMap seats = createPartlyReservedSeatMatrix(50, 200);
+    Position position = new Position(25, 100);
+    int[] selection = new int[8];
+    long threadId = Thread.currentThread().getId();
+    selectRepeatedly(seats, position, selection);
+
+    // When
+    long before = threads.getThreadAllocatedBytes(threadId);
+    selectRepeatedly(seats, position, selection);
+    long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+    // Then only the measurement itself may allocate, not the 20,000 selections
+    assertTrue(allocated < 1024, "Selection allocated " + allocated + " bytes");
+  }
+
+  private static void selectRepeatedly(SeatMap seats, Position position, int[] selection) {
+    for (int i = 0; i < 10_000; i++) {
+      SeatSelector.selectSeats(8, seats, position, selection);
+      SeatSelector.selectSeats(8, seats, selection);
+    }
+  }
+
+  private static Seat[] toSeats(SeatMap seats, int[] selection, int count) {
+    Seat[] result = new Seat[count];
+    for (int i = 0; i < count; i++) {
+      result[i] = seats.getSeat(SeatMap.rowOf(selection[i]), SeatMap.columnOf(selection[i]));
+    }
+    return result;
+  }
+
+  /** Helper method to create a seat map where about half of the seats are reserved. */
+  private SeatMap createPartlyReservedSeatMatrix(int rows, int cols) {
+    SeatMap seats = createSeatMatrix(rows, cols);
+    SplittableRandom random = new SplittableRandom(7);
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < cols; col++) {
+        if (random.nextBoolean()) seats.reserve(row, col, "other");
+      }
+    }
+    return seats;
   }
 
-  /** Helper method to create a single row of Seat objects. */
-  private Seat[] createSeatRow(int length) {
-    return java.util.stream.IntStream.range(0, length)
-        .mapToObj(i -> new Seat())
-        .toArray(Seat[]::new);
+  /** Helper method to create a seat map (matrix) of available seats. */
+  private SeatMap createSeatMatrix(int rows, int cols) {
+    return new SeatMap(rows, cols);
   }
 }
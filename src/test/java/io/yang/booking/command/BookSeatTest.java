@@ -1,47 +1,57 @@
 package io.yang.booking.command;
 
+import io.yang.booking.SeatSelector.Position;
+import io.yang.booking.strategy.BestAvailableStrategy;
+import io.yang.booking.strategy.CentreOutStrategy;
+import io.yang.booking.strategy.SeatSelectionStrategy;
 import io.yang.cinema.Cinema;
+import io.yang.cinema.HoldTimer;
+import io.yang.cinema.SeatMap;
+import io.yang.console.ConsoleIO;
 import io.yang.init.CinemaConfiguration;
-import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
-import java.util.Scanner;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
-import static org.mockito.Mockito.when;
 
 class BookSeatTest {
 
-  private Scanner scanner;
-
   private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
-  private final PrintStream originalOut = System.out;
 
-  @BeforeEach
-  void setUp() {
-    scanner = mock(Scanner.class);
-    System.setOut(new PrintStream(outContent));
+  private ConsoleIO console;
+
+  /** Creates a console that reads the given lines, one per prompt, and prints into the capture. */
+  private ConsoleIO consoleWith(String... lines) {
+    String input = String.join("\n", lines) + "\n";
+    return consoleWith(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private ConsoleIO consoleWith(InputStream input) {
+    console = ConsoleIO.of(input, outContent);
+    return console;
   }
 
-  @AfterEach
-  void tearDown() {
-    System.setOut(originalOut);
-    outContent.reset();
+  private String output() {
+    console.flush();
+    return outContent.toString();
   }
 
   @Test
   void testExecute_ReturnsToMainMenu() {
     // Given
     Cinema cinema = mock(Cinema.class);
-    when(scanner.nextLine()).thenReturn("");
 
     // When
-    new BookSeat(cinema, scanner).execute();
+    new BookSeat(cinema, consoleWith("")).execute();
 
     // Then
     verifyNoMoreInteractions(cinema);
@@ -51,16 +61,17 @@ class BookSeatTest {
   void testExecute_InvalidNumberOfSeats() {
     // Given
     Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 2, 3));
-    BookSeat bookSeat = new BookSeat(cinema, scanner);
-    when(scanner.nextLine())
-        .thenReturn("not-a-number") // will cause isValidNumber to fail
-        .thenReturn("10") // exceed capacity
-        .thenReturn("") // assume done or back to main
-    ;
+    ConsoleIO console =
+        consoleWith(
+            "not-a-number", // will cause isValidNumber to fail
+            "10", // exceed capacity
+            "" // assume done or back to main
+            );
+    BookSeat bookSeat = new BookSeat(cinema, console);
 
     // When
     bookSeat.execute();
-    String output = outContent.toString();
+    String output = output();
 
     // Then
     assertTrue(output.contains("Number of tickets must be an integer greater than 0"));
@@ -71,17 +82,18 @@ class BookSeatTest {
   void testExecute_ValidNumberOfSeatsWithConfirmAndBook() {
     // Given
     Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 2, 3));
-    BookSeat bookSeat = new BookSeat(cinema, scanner);
-    when(scanner.nextLine())
-        .thenReturn("2") // number of seats
-        .thenReturn("A01") // seat label or something similar
-        .thenReturn("") // confirm acceptance
-        .thenReturn("") // exit
-    ;
+    ConsoleIO console =
+        consoleWith(
+            "2", // number of seats
+            "A01", // seat label or something similar
+            "", // confirm acceptance
+            "" // exit
+            );
+    BookSeat bookSeat = new BookSeat(cinema, console);
 
     // When
     bookSeat.execute();
-    String output = outContent.toString();
+    String output = output();
 
     // Then
     assertTrue(output.contains("Successfully reserved 2 Movie tickets."));
@@ -92,18 +104,112 @@ class BookSeatTest {
   void testExecute_InvalidPosition() {
     // Given
     Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 2, 3));
-    BookSeat bookSeat = new BookSeat(cinema, scanner);
-    when(scanner.nextLine())
-            .thenReturn("2") // number of seats
-            .thenReturn("a") // seat label or something similar
-            .thenReturn("") // confirm acceptance
-    ;
+    ConsoleIO console =
+        consoleWith(
+            "2", // number of seats
+            "a", // seat label or something similar
+            "" // confirm acceptance
+            );
+    BookSeat bookSeat = new BookSeat(cinema, console);
+
+    // When
+    bookSeat.execute();
+    String output = output();
+
+    // Then
+    assertTrue(
+        output.contains(
+            "Input must be a row letter followed by a seat number (e.g. B03 or AA112)."));
+  }
+
+  @Test
+  void testExecute_HoldExpiresBeforeAcceptance() {
+    // Given seats that are only held for an instant
+    HoldTimer timer = new HoldTimer(Duration.ofMillis(1), 8);
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 2, 3), timer, Duration.ZERO);
+    InputStream input =
+        new ByteArrayInputStream("2\n\n".getBytes(StandardCharsets.UTF_8)) {
+          @Override
+          public synchronized int read(byte[] bytes, int offset, int length) {
+            if (pos > 0) {
+              // The user walks away until the hold has run out before accepting
+              try {
+                Thread.sleep(5);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              timer.advance();
+            }
+            // Hand out one line per read, as a user typing at a terminal would
+            return super.read(bytes, offset, Math.min(length, 2));
+          }
+
+          @Override
+          public synchronized int available() {
+            return 0;
+          }
+        };
+    BookSeat bookSeat = new BookSeat(cinema, consoleWith(input));
+
+    // When
+    bookSeat.execute();
+    String output = output();
+
+    // Then
+    assertTrue(output.matches("(?s).*Booking id: GIC\\w* expired.*"));
+    assertFalse(output.contains("confirmed"));
+    assertEquals(6, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testExecute_FailedReseatKeepsBooking() {
+    // Given a strategy that never finds seats around a chosen position
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 2, 3));
+    SeatSelectionStrategy strategy =
+        new CentreOutStrategy() {
+          @Override
+          public int selectSeats(
+              int numberOfSeats, SeatMap seatMap, Position position, int[] selection) {
+            return 0;
+          }
+        };
+    ConsoleIO console =
+        consoleWith(
+            "2", // number of seats
+            "A01", // new position, which cannot be honoured
+            "" // accept the original selection
+            );
+    BookSeat bookSeat = new BookSeat(cinema, console, strategy);
+
+    // When
+    bookSeat.execute();
+    String output = output();
+
+    // Then the customer keeps the held seats and can still confirm them
+    assertTrue(output.contains("Sorry, there are only 4 seats available"));
+    assertTrue(output.matches("(?s).*Booking id: GIC\\w* confirmed.*"));
+    assertFalse(output.contains("cancelled"));
+    assertEquals(4, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testExecute_UsesInjectedStrategy() {
+    // Given a strategy that prefers the front-left seat
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 2, 3));
+    BestAvailableStrategy strategy =
+        new BestAvailableStrategy((row, column, rows, perRow) -> -(row * perRow + column));
+    ConsoleIO console =
+        consoleWith(
+            "1", // number of seats
+            "" // confirm acceptance
+            );
+    BookSeat bookSeat = new BookSeat(cinema, console, strategy);
 
     // When
     bookSeat.execute();
-    String output = outContent.toString();
 
     // Then
-    assertTrue(output.contains("Input must be 3 characters (letter + 2 digits, e.g. B03)."));
+    assertFalse(cinema.getSeatMap().isAvailable(0, 0));
+    assertEquals(5, cinema.getAvailableSeatsCount());
   }
 }
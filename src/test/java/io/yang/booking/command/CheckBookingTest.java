@@ -2,15 +2,14 @@ package io.yang.booking.command;
 
 import io.yang.cinema.Cinema;
 import io.yang.cinema.CinemaVisualizer;
-import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.BeforeEach;
+import io.yang.console.ConsoleIO;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
-import java.util.Scanner;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -20,28 +19,21 @@ import static org.mockito.Mockito.when;
 class CheckBookingTest {
 
   private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
-  private PrintStream originalOut;
 
-  @BeforeEach
-  void setUpStreams() {
-    originalOut = System.out;
-    System.setOut(new PrintStream(outContent));
-  }
-
-  @AfterEach
-  void restoreStreams() {
-    System.setOut(originalOut);
+  private ConsoleIO consoleWith(String line) {
+    return ConsoleIO.of(
+        new ByteArrayInputStream((line + "\n").getBytes(StandardCharsets.UTF_8)), outContent);
   }
 
   @Test
   void testExecute_WhenBookingIdIsEmpty() {
-    Scanner scannerMock = mock(Scanner.class);
-    when(scannerMock.nextLine()).thenReturn("");
+    ConsoleIO console = consoleWith("");
 
     Cinema cinemaMock = mock(Cinema.class);
 
-    CheckBooking checkBooking = new CheckBooking(cinemaMock, scannerMock);
+    CheckBooking checkBooking = new CheckBooking(cinemaMock, console);
     checkBooking.execute();
+    console.flush();
 
     // Verify no calls made to visualize (since booking ID is empty)
     // and confirm output does not contain the booking ID line
@@ -53,18 +45,20 @@ class CheckBookingTest {
 
   @Test
   void testExecute_WhenBookingIdIsNonEmpty() {
-    Scanner scannerMock = mock(Scanner.class);
-    when(scannerMock.nextLine()).thenReturn("ABC123");
+    ConsoleIO console = consoleWith("ABC123");
 
     Cinema cinemaMock = mock(Cinema.class);
+    when(cinemaMock.hasBooking("ABC123")).thenReturn(true);
 
     // Use a mocked static call for CinemaVisualizer
     try (MockedStatic<CinemaVisualizer> mockedStatic = Mockito.mockStatic(CinemaVisualizer.class)) {
-      CheckBooking checkBooking = new CheckBooking(cinemaMock, scannerMock);
+      CheckBooking checkBooking = new CheckBooking(cinemaMock, console);
       checkBooking.execute();
+      console.flush();
 
       // Verify that CinemaVisualizer.visualize was called with the correct arguments
-      mockedStatic.verify(() -> CinemaVisualizer.visualize(cinemaMock, "ABC123"), times(1));
+      mockedStatic.verify(
+          () -> CinemaVisualizer.visualize(cinemaMock, "ABC123", console), times(1));
     }
 
     // Confirm the console output
@@ -73,4 +67,24 @@ class CheckBookingTest {
     assertTrue(
         output.contains("Booking id: ABC123"), "Should print booking details for non-empty ID.");
   }
+
+  @Test
+  void testExecute_WhenBookingIdIsUnknown() {
+    ConsoleIO console = consoleWith("GIC9999");
+
+    Cinema cinemaMock = mock(Cinema.class);
+    when(cinemaMock.hasBooking("GIC9999")).thenReturn(false);
+
+    try (MockedStatic<CinemaVisualizer> mockedStatic = Mockito.mockStatic(CinemaVisualizer.class)) {
+      new CheckBooking(cinemaMock, console).execute();
+      console.flush();
+
+      // The hall should not be rendered for a booking that does not exist
+      mockedStatic.verifyNoInteractions();
+    }
+
+    assertTrue(
+        outContent.toString().contains("Booking id: GIC9999 not found."),
+        "Should report that the booking does not exist.");
+  }
 }
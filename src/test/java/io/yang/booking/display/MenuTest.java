@@ -2,13 +2,13 @@ package io.yang.booking.display;
 
 import io.yang.booking.command.Action;
 import io.yang.booking.option.Option;
-import org.junit.jupiter.api.AfterEach;
+import io.yang.console.ConsoleIO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
-import java.util.Scanner;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -17,36 +17,35 @@ import static org.mockito.Mockito.when;
 
 class MenuTest {
 
-  private Scanner mockScanner;
   private Option mockOption1;
   private Option mockOption2;
 
-  // Streams for capturing printed output
-  private final PrintStream standardOut = System.out;
+  // Stream for capturing printed output
   private final ByteArrayOutputStream outputStreamCaptor = new ByteArrayOutputStream();
 
   @BeforeEach
   void setUp() {
-    mockScanner = mock(Scanner.class);
     mockOption1 = mock(Option.class);
     mockOption2 = mock(Option.class);
-
-    System.setOut(new PrintStream(outputStreamCaptor));
   }
 
-  @AfterEach
-  void tearDown() {
-    System.setOut(standardOut);
+  /** Creates a console that reads the given lines and prints into the captor. */
+  private ConsoleIO consoleWith(String... lines) {
+    String input = lines.length == 0 ? "" : String.join("\n", lines) + "\n";
+    return ConsoleIO.of(
+        new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), outputStreamCaptor);
   }
 
   @Test
   void testDisplayOptions_capturesOutput() {
     // Arrange
     Option[] options = { mockOption1, mockOption2 };
-    Menu menu = new Menu(options);
+    ConsoleIO console = consoleWith();
+    Menu menu = new Menu(options, console);
 
     // Act
     menu.displayOptions();
+    console.flush();
     String printedOutput = outputStreamCaptor.toString();
 
     // Assert
@@ -66,10 +65,12 @@ class MenuTest {
   void testDisplayExitMessage_capturesOutput() {
     // Arrange
     Option[] options = { mockOption1, mockOption2 };
-    Menu menu = new Menu(options);
+    ConsoleIO console = consoleWith();
+    Menu menu = new Menu(options, console);
 
     // Act
     menu.displayExitMessage();
+    console.flush();
     String printedOutput = outputStreamCaptor.toString();
 
     // Assert
@@ -80,12 +81,11 @@ class MenuTest {
   @Test
   void testPromptForSelection_numericValidInput() {
     // Arrange
-    when(mockScanner.nextLine()).thenReturn("1");
     Option[] options = { mockOption1, mockOption2 };
-    Menu menu = new Menu(options);
+    Menu menu = new Menu(options, consoleWith("1"));
 
     // Act
-    int selectionIndex = menu.promptForSelection(mockScanner);
+    int selectionIndex = menu.promptForSelection();
 
     // Assert
     // "1" => index 0
@@ -95,15 +95,17 @@ class MenuTest {
   @Test
   void testPromptForSelection_numericInvalidInputThenValid() {
     // Arrange
-    when(mockScanner.nextLine())
-            .thenReturn("0") // invalid numeric (out of range)
-            .thenReturn("3") // invalid numeric (out of range)
-            .thenReturn("2"); // valid
+    ConsoleIO console =
+        consoleWith(
+            "0", // invalid numeric (out of range)
+            "3", // invalid numeric (out of range)
+            "2"); // valid
     Option[] options = { mockOption1, mockOption2 };
-    Menu menu = new Menu(options);
+    Menu menu = new Menu(options, console);
 
     // Act
-    int selectionIndex = menu.promptForSelection(mockScanner);
+    int selectionIndex = menu.promptForSelection();
+    console.flush();
 
     // Assert
     // "2" => index 1
@@ -118,14 +120,16 @@ class MenuTest {
   @Test
   void testPromptForSelection_nonNumericInputThenValid() {
     // Arrange
-    when(mockScanner.nextLine())
-            .thenReturn("abc") // non-numeric
-            .thenReturn("1");  // valid
+    ConsoleIO console =
+        consoleWith(
+            "abc", // non-numeric
+            "1"); // valid
     Option[] options = { mockOption1, mockOption2 };
-    Menu menu = new Menu(options);
+    Menu menu = new Menu(options, console);
 
     // Act
-    int selectionIndex = menu.promptForSelection(mockScanner);
+    int selectionIndex = menu.promptForSelection();
+    console.flush();
 
     // Assert
     // "1" => index 0
@@ -147,7 +151,7 @@ class MenuTest {
     when(mockOption2.getAction()).thenReturn(action2);
 
     Option[] options = { mockOption1, mockOption2 };
-    Menu menu = new Menu(options);
+    Menu menu = new Menu(options, consoleWith());
 
     // Act & Assert
     assertEquals(action1, menu.getAction(0),
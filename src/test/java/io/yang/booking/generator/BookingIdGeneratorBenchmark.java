@@ -0,0 +1,41 @@
+package io.yang.booking.generator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares booking ID generation against a shared counter formatted with {@link String#format},
+ * which is how IDs used to be generated.
+ *
+ * <p>Compare thread counts with {@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark="BookingIdGeneratorBenchmark -t 1"} against {@code -t 4}, {@code -t 8} and so on.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class BookingIdGeneratorBenchmark {
+
+  private static final AtomicInteger sharedCount = new AtomicInteger();
+
+  @Benchmark
+  public String blockAllocated() {
+    return BookingIdGenerator.nextId();
+  }
+
+  @Benchmark
+  public String sharedCounterFormatted() {
+    return BookingIdGenerator.PREFIX + String.format("%04d", sharedCount.incrementAndGet());
+  }
+}
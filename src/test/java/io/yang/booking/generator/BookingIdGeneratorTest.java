@@ -2,16 +2,120 @@ package io.yang.booking.generator;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class BookingIdGeneratorTest {
 
   @Test
   void testNextId() {
+    // When, on a sequence that other tests may already have advanced
     String firstId = BookingIdGenerator.nextId();
-    assertEquals("GIC0001", firstId, "First generated ID should be 'GIC0001'");
-
     String secondId = BookingIdGenerator.nextId();
-    assertEquals("GIC0002", secondId, "Second generated ID should be 'GIC0002'");
+
+    // Then both IDs are well formed and ascend within the thread
+    assertTrue(firstId.matches("GIC\\d{4,}"), "Unexpected booking ID: " + firstId);
+    assertTrue(secondId.matches("GIC\\d{4,}"), "Unexpected booking ID: " + secondId);
+    assertTrue(sequence(secondId) > sequence(firstId), "IDs should ascend within a thread");
+  }
+
+  @Test
+  void testSharedIdsAscend() {
+    // When
+    String firstId = BookingIdGenerator.nextSharedId();
+    String secondId = BookingIdGenerator.nextSharedId();
+
+    // Then
+    assertTrue(sequence(secondId) > sequence(firstId), "Shared IDs should ascend");
+  }
+
+  @Test
+  void testEncode() {
+    assertEquals("GIC0007", BookingIdGenerator.encode(7));
+    assertEquals("GIC9999", BookingIdGenerator.encode(9999));
+    assertEquals("GIC10000", BookingIdGenerator.encode(10_000));
+    assertEquals("GIC" + Long.MAX_VALUE, BookingIdGenerator.encode(Long.MAX_VALUE));
+  }
+
+  @Test
+  void testConcurrentIdsAreUnique() throws Exception {
+    // Given
+    int threads = 8;
+    int idsPerThread = 10_000;
+    Set<String> ids = ConcurrentHashMap.newKeySet();
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    // When
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < threads; thread++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int i = 0; i < idsPerThread; i++) {
+                    assertTrue(ids.add(BookingIdGenerator.nextId()), "Duplicate booking ID");
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Then
+    assertEquals(threads * idsPerThread, ids.size());
+    assertTrue(ids.stream().allMatch(id -> id.matches("GIC\\d{4,}")));
+  }
+
+  @Test
+  void testSharedIdsDoNotCollideWithBlocks() throws Exception {
+    // Given
+    int threads = 4;
+    int idsPerThread = 2_000;
+    Set<String> ids = ConcurrentHashMap.newKeySet();
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    // When
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < threads; thread++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int i = 0; i < idsPerThread; i++) {
+                    String id =
+                        i % 2 == 0
+                            ? BookingIdGenerator.nextId()
+                            : BookingIdGenerator.nextSharedId();
+                    assertTrue(ids.add(id), "Duplicate booking ID");
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Then
+    assertEquals(threads * idsPerThread, ids.size());
+  }
+
+  private static long sequence(String bookingId) {
+    return Long.parseLong(bookingId.substring(BookingIdGenerator.PREFIX.length()));
   }
 }
@@ -0,0 +1,73 @@
+package io.yang.booking.strategy;
+
+import io.yang.cinema.SeatMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BestAvailableStrategyTest {
+
+  @Test
+  void testSelectsMostDesirableSeats() {
+    // Given a hall of 4 rows where the ideal row is two thirds of the way back
+    SeatMap seatMap = new SeatMap(4, 5);
+    BestAvailableStrategy strategy = new BestAvailableStrategy();
+    int[] selection = new int[3];
+
+    // When
+    int count = strategy.selectSeats(3, seatMap, selection);
+
+    // Then the centre seat of row 2 comes first, then its neighbours
+    assertEquals(3, count);
+    assertEquals(SeatMap.pack(2, 2), selection[0]);
+    assertEquals(SeatMap.pack(2, 1), selection[1]);
+    assertEquals(SeatMap.pack(2, 3), selection[2]);
+  }
+
+  @Test
+  void testSkipsTakenSeats() {
+    // Given seats ranked simply by row-major order
+    SeatMap seatMap = new SeatMap(2, 3);
+    BestAvailableStrategy strategy =
+        new BestAvailableStrategy((row, column, rows, perRow) -> -(row * perRow + column));
+    seatMap.reserve(0, 0, "A");
+    seatMap.reserve(0, 2, "A");
+    int[] selection = new int[6];
+
+    // When more seats are requested than are left
+    int count = strategy.selectSeats(6, seatMap, selection);
+
+    // Then
+    assertEquals(4, count);
+    assertArrayEquals(
+        new int[] {SeatMap.pack(0, 1), SeatMap.pack(1, 0), SeatMap.pack(1, 1), SeatMap.pack(1, 2)},
+        Arrays.copyOf(selection, count));
+  }
+
+  @Test
+  void testRankingIsComputedOncePerLayout() {
+    // Given
+    BestAvailableStrategy strategy = new BestAvailableStrategy();
+
+    // When
+    int[] first = strategy.getRanking(10, 20);
+    int[] second = strategy.getRanking(10, 20);
+
+    // Then
+    assertSame(first, second);
+    assertEquals(200, first.length);
+  }
+
+  @Test
+  void testRejectsShortBuffer() {
+    BestAvailableStrategy strategy = new BestAvailableStrategy();
+    SeatMap seatMap = new SeatMap(2, 2);
+    assertThrows(
+        IllegalArgumentException.class, () -> strategy.selectSeats(2, seatMap, new int[1]));
+  }
+}
@@ -0,0 +1,78 @@
+package io.yang.booking.strategy;
+
+import io.yang.booking.SeatSelector.Position;
+import io.yang.cinema.SeatMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures group seating latency on a full-size hall that has been booked by parties of mixed
+ * sizes, leaving the ragged gaps a real screening has at peak.
+ *
+ * <p>Run with {@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark=GroupSeatingStrategyBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupSeatingStrategyBenchmark {
+
+  /** Percentage of seats booked before selection starts. */
+  @Param({"50", "90", "99"})
+  public int occupancyPercent;
+
+  @Param({"2", "6", "12"})
+  public int groupSize;
+
+  private final GroupSeatingStrategy strategy = new GroupSeatingStrategy();
+
+  private SeatMap seatMap;
+  private Position middle;
+  private int[] selection;
+
+  @Setup
+  public void setUp() {
+    int rows = 702;
+    int seatsPerRow = 999;
+    seatMap = new SeatMap(rows, seatsPerRow);
+    SplittableRandom random = new SplittableRandom(42);
+    for (int row = 0; row < rows; row++) {
+      // Alternate booked parties and gaps of one to eight seats
+      int col = 0;
+      while (col < seatsPerRow) {
+        int length = 1 + random.nextInt(8);
+        boolean booked = random.nextInt(100) < occupancyPercent;
+        for (int end = Math.min(col + length, seatsPerRow); col < end; col++) {
+          if (booked) seatMap.reserve(row, col, "GIC0001");
+        }
+      }
+    }
+    middle = new Position(rows / 2, seatsPerRow / 2);
+    selection = new int[groupSize];
+  }
+
+  @Benchmark
+  public int groupSelection() {
+    return strategy.selectSeats(groupSize, seatMap, selection);
+  }
+
+  @Benchmark
+  public int groupSelectionFromPosition() {
+    return strategy.selectSeats(groupSize, seatMap, middle, selection);
+  }
+}
@@ -0,0 +1,252 @@
+package io.yang.booking.strategy;
+
+import io.yang.booking.SeatSelector.Position;
+import io.yang.cinema.SeatMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GroupSeatingStrategyTest {
+
+  private final GroupSeatingStrategy strategy = new GroupSeatingStrategy();
+
+  @Test
+  void testSeatsGroupInCentreOfBackRow() {
+    // Given
+    SeatMap seatMap = new SeatMap(3, 10);
+    int[] selection = new int[4];
+
+    // When
+    int count = strategy.selectSeats(4, seatMap, selection);
+
+    // Then
+    assertEquals(4, count);
+    assertArrayEquals(block(2, 3, 4), selection);
+  }
+
+  @Test
+  void testShiftsGroupToAvoidOrphanSeat() {
+    // Given a free run of 7 seats, where the centred block would strand the seat at column 1
+    SeatMap seatMap = new SeatMap(1, 9);
+    seatMap.reserve(0, 0, "A");
+    seatMap.reserve(0, 8, "A");
+    int[] selection = new int[4];
+
+    // When
+    int count = strategy.selectSeats(4, seatMap, selection);
+
+    // Then the group moves against a reserved seat, the right-hand one winning the tie
+    assertEquals(4, count);
+    assertArrayEquals(block(0, 4, 4), selection);
+  }
+
+  @Test
+  void testPrefersRowWithoutOrphansOverBackRow() {
+    // Given a back row whose only run is one seat longer than the group
+    SeatMap seatMap = new SeatMap(2, 6);
+    seatMap.reserve(1, 0, "A");
+    int[] selection = new int[4];
+
+    // When
+    int count = strategy.selectSeats(4, seatMap, selection);
+
+    // Then the front row is used, flush against its right-hand end
+    assertEquals(4, count);
+    assertArrayEquals(block(0, 2, 4), selection);
+  }
+
+  @Test
+  void testFillsExactGap() {
+    // Given
+    SeatMap seatMap = new SeatMap(1, 10);
+    for (int col = 0; col < 10; col++) {
+      if (col < 2 || col > 4) seatMap.reserve(0, col, "A");
+    }
+    int[] selection = new int[3];
+
+    // When
+    int count = strategy.selectSeats(3, seatMap, selection);
+
+    // Then
+    assertEquals(3, count);
+    assertArrayEquals(block(0, 2, 3), selection);
+  }
+
+  @Test
+  void testSplitsGroupOverLongestRuns() {
+    // Given no row with four seats side by side
+    SeatMap seatMap = new SeatMap(2, 5);
+    seatMap.reserve(1, 2, "A");
+    seatMap.reserve(0, 1, "A");
+    seatMap.reserve(0, 3, "A");
+    int[] selection = new int[4];
+
+    // When
+    int count = strategy.selectSeats(4, seatMap, selection);
+
+    // Then the pair in the back row is taken first, then the best single seats
+    assertEquals(4, count);
+    assertArrayEquals(
+        new int[] {SeatMap.pack(1, 3), SeatMap.pack(1, 4), SeatMap.pack(0, 2), SeatMap.pack(1, 0)},
+        selection);
+  }
+
+  @Test
+  void testSelectsFewerSeatsWhenHallIsNearlyFull() {
+    // Given
+    SeatMap seatMap = new SeatMap(1, 3);
+    seatMap.reserve(0, 1, "A");
+    int[] selection = new int[3];
+
+    // When
+    int count = strategy.selectSeats(3, seatMap, selection);
+
+    // Then
+    assertEquals(2, count);
+  }
+
+  @Test
+  void testSeatsGroupAtPosition() {
+    // Given
+    SeatMap seatMap = new SeatMap(3, 10);
+    int[] selection = new int[3];
+
+    // When
+    int count = strategy.selectSeats(3, seatMap, new Position(0, 5), selection);
+
+    // Then
+    assertEquals(3, count);
+    assertArrayEquals(block(0, 5, 3), selection);
+  }
+
+  @Test
+  void testShiftsPositionedGroupToAvoidOrphanSeat() {
+    // Given a position one seat in from the aisle
+    SeatMap seatMap = new SeatMap(3, 10);
+    int[] selection = new int[3];
+
+    // When
+    int count = strategy.selectSeats(3, seatMap, new Position(0, 1), selection);
+
+    // Then the nearest block that does not strand column 0 is chosen
+    assertEquals(3, count);
+    assertArrayEquals(block(0, 2, 3), selection);
+  }
+
+  @Test
+  void testKeepsPositionedRowThatLeavesOneOrphan() {
+    // Given a chosen row where the group strands one seat, and free rows far in front of it
+    SeatMap seatMap = new SeatMap(8, 5);
+    seatMap.reserve(7, 0, "A");
+    for (int row = 2; row < 7; row++) {
+      for (int col = 0; col < 5; col++) seatMap.reserve(row, col, "A");
+    }
+    int[] selection = new int[3];
+
+    // When
+    int count = strategy.selectSeats(3, seatMap, new Position(7, 2), selection);
+
+    // Then the group stays in the chosen row
+    assertEquals(3, count);
+    assertArrayEquals(block(7, 2, 3), selection);
+  }
+
+  @Test
+  void testMovesPositionedGroupToNextRowToAvoidOrphan() {
+    // Given a chosen row where the group strands one seat, and a free row right in front of it
+    SeatMap seatMap = new SeatMap(3, 5);
+    seatMap.reserve(2, 0, "A");
+    int[] selection = new int[3];
+
+    // When
+    int count = strategy.selectSeats(3, seatMap, new Position(2, 2), selection);
+
+    // Then the neighbouring row wins
+    assertEquals(3, count);
+    assertArrayEquals(block(1, 2, 3), selection);
+  }
+
+  @Test
+  void testLeavesNoMoreOrphansThanNecessary() {
+    SplittableRandom random = new SplittableRandom(7);
+    for (int trial = 0; trial < 200; trial++) {
+      // Given a randomly filled hall
+      int rows = 1 + random.nextInt(6);
+      int seatsPerRow = 1 + random.nextInt(150);
+      SeatMap seatMap = new SeatMap(rows, seatsPerRow);
+      for (int row = 0; row < rows; row++) {
+        for (int col = 0; col < seatsPerRow; col++) {
+          if (random.nextInt(100) < 40) seatMap.reserve(row, col, "A");
+        }
+      }
+      int groupSize = 1 + random.nextInt(6);
+      int best = fewestOrphans(seatMap, groupSize);
+      if (best < 0) continue;
+      int[] selection = new int[groupSize];
+
+      // When
+      int count = strategy.selectSeats(groupSize, seatMap, selection);
+
+      // Then the group sits side by side on free seats and strands as few seats as possible
+      assertEquals(groupSize, count);
+      int row = SeatMap.rowOf(selection[0]);
+      int start = SeatMap.columnOf(selection[0]);
+      assertArrayEquals(block(row, start, groupSize), selection);
+      for (int col = start; col < start + groupSize; col++) {
+        assertTrue(seatMap.isAvailable(row, col));
+      }
+      assertEquals(best, orphans(seatMap, row, start, groupSize));
+    }
+  }
+
+  @Test
+  void testRejectsShortBuffer() {
+    SeatMap seatMap = new SeatMap(2, 2);
+    assertThrows(
+        IllegalArgumentException.class, () -> strategy.selectSeats(2, seatMap, new int[1]));
+  }
+
+  private static int[] block(int row, int start, int length) {
+    int[] seats = new int[length];
+    Arrays.setAll(seats, i -> SeatMap.pack(row, start + i));
+    return seats;
+  }
+
+  /** Finds the fewest orphans any free block of the given length would create, or -1 if none. */
+  private static int fewestOrphans(SeatMap seatMap, int length) {
+    int fewest = -1;
+    for (int row = 0; row < seatMap.getRows(); row++) {
+      for (int start = 0; start + length <= seatMap.getSeatsPerRow(); start++) {
+        boolean free = true;
+        for (int col = start; col < start + length; col++) {
+          free &= seatMap.isAvailable(row, col);
+        }
+        if (!free) continue;
+        int orphans = orphans(seatMap, row, start, length);
+        if (fewest < 0 || orphans < fewest) fewest = orphans;
+      }
+    }
+    return fewest;
+  }
+
+  private static int orphans(SeatMap seatMap, int row, int start, int length) {
+    int orphans = 0;
+    if (start >= 1 && seatMap.isAvailable(row, start - 1)
+        && (start == 1 || !seatMap.isAvailable(row, start - 2))) {
+      orphans++;
+    }
+    int end = start + length;
+    int seatsPerRow = seatMap.getSeatsPerRow();
+    if (end < seatsPerRow && seatMap.isAvailable(row, end)
+        && (end + 1 == seatsPerRow || !seatMap.isAvailable(row, end + 1))) {
+      orphans++;
+    }
+    return orphans;
+  }
+}
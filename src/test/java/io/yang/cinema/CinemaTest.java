@@ -4,11 +4,15 @@ import io.yang.init.CinemaConfiguration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -36,9 +40,10 @@ class CinemaTest {
 
   @Test
   void testInitialSeatAvailability() {
-    for (Seat[] row : cinema.getSeats()) {
-      for (Seat seat : row) {
-        assertTrue(seat.isAvailable());
+    SeatMap seatMap = cinema.getSeatMap();
+    for (int row = 0; row < seatMap.getRows(); row++) {
+      for (int col = 0; col < seatMap.getSeatsPerRow(); col++) {
+        assertTrue(seatMap.isAvailable(row, col));
       }
     }
   }
@@ -63,16 +68,36 @@ class CinemaTest {
 
   @Test
   void testAvailableSeatsCount() {
-    Seat[][] seats = cinema.getSeats();
+    SeatMap seatMap = cinema.getSeatMap();
 
     // Manually occupy some seats for testing
-    seats[0][0].reserve("1"); // Reserve seat at (0,0)
-    seats[1][2].reserve("2"); // Reserve seat at (1,2)
+    seatMap.reserve(0, 0, "1"); // Reserve seat at (0,0)
+    seatMap.reserve(1, 2, "2"); // Reserve seat at (1,2)
 
     // Verify updated count
     assertEquals(4, cinema.getAvailableSeatsCount());
   }
 
+  @Test
+  void testAvailableSeatsCountPerRow() {
+    // Given
+    Seat seat = cinema.getSeat(1, 2).orElseThrow();
+
+    // When
+    seat.reserve("1");
+
+    // Then
+    assertEquals(3, cinema.getAvailableSeatsCount(0));
+    assertEquals(2, cinema.getAvailableSeatsCount(1));
+
+    // When
+    cinema.releaseSeats("1");
+
+    // Then
+    assertEquals(3, cinema.getAvailableSeatsCount(1));
+    assertEquals(6, cinema.getAvailableSeatsCount());
+  }
+
   @Test
   void testHasEnoughSeats() {
     assertTrue(cinema.hasEnoughSeats(1));
@@ -82,14 +107,256 @@ class CinemaTest {
   @Test
   void testReleaseSeats() {
     // Given
-    Seat[][] seats = cinema.getSeats();
-    seats[0][0].reserve("booking123");
+    Seat seat = cinema.getSeat(0, 0).orElseThrow();
+    seat.reserve("booking123");
 
     // When
     cinema.releaseSeats("booking123");
 
     // then
-    assertTrue(seats[0][0].isAvailable());
-    assertNull(seats[0][0].getBookingId());
+    assertTrue(seat.isAvailable());
+    assertNull(seat.getBookingId());
+  }
+
+  @Test
+  void testBookingLookup() {
+    // Given
+    cinema.getSeat(0, 1).orElseThrow().reserve("booking123");
+    cinema.getSeat(1, 2).orElseThrow().reserve("booking123");
+    cinema.getSeat(1, 0).orElseThrow().reserve("other");
+
+    // Then
+    assertTrue(cinema.hasBooking("booking123"));
+    assertFalse(cinema.hasBooking("unknown"));
+    assertEquals(
+        List.of(cinema.getSeat(0, 1).orElseThrow(), cinema.getSeat(1, 2).orElseThrow()),
+        cinema.getBookedSeats("booking123"));
+
+    // When
+    cinema.releaseSeats("booking123");
+
+    // Then
+    assertFalse(cinema.hasBooking("booking123"));
+    assertTrue(cinema.getBookedSeats("booking123").isEmpty());
+    assertTrue(cinema.hasBooking("other"));
+    assertEquals(5, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testExpiredHoldReleasesSeats() {
+    // Given
+    AtomicLong now = new AtomicLong();
+    HoldTimer timer = new HoldTimer(Duration.ofSeconds(1), 16, now::get);
+    Cinema cinema =
+        new Cinema(new CinemaConfiguration("Movie", 2, 3), timer, Duration.ofSeconds(30));
+    cinema.getSeat(0, 0).orElseThrow().reserve("held");
+    cinema.getSeat(0, 1).orElseThrow().reserve("confirmed");
+    cinema.holdSeats("held");
+    cinema.holdSeats("confirmed");
+
+    // When
+    assertTrue(cinema.confirmBooking("confirmed"));
+    now.addAndGet(Duration.ofSeconds(31).toNanos());
+    timer.advance();
+
+    // Then
+    assertFalse(cinema.hasBooking("held"));
+    assertFalse(cinema.isOnHold("held"));
+    assertFalse(cinema.confirmBooking("held"));
+    assertTrue(cinema.hasBooking("confirmed"));
+    assertFalse(cinema.isOnHold("confirmed"));
+    assertEquals(5, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testReleasingHeldBookingCancelsItsHold() {
+    // Given
+    AtomicLong now = new AtomicLong();
+    HoldTimer timer = new HoldTimer(Duration.ofSeconds(1), 16, now::get);
+    Cinema cinema =
+        new Cinema(new CinemaConfiguration("Movie", 2, 3), timer, Duration.ofSeconds(30));
+    cinema.getSeat(0, 0).orElseThrow().reserve("GIC0001");
+    cinema.holdSeats("GIC0001");
+
+    // When the booking is released and booked again without a hold
+    cinema.releaseSeats("GIC0001");
+    cinema.getSeat(1, 1).orElseThrow().reserve("GIC0001");
+    now.addAndGet(Duration.ofMinutes(1).toNanos());
+    timer.advance();
+
+    // Then the old hold no longer affects the booking
+    assertFalse(cinema.isOnHold("GIC0001"));
+    assertTrue(cinema.hasBooking("GIC0001"));
+  }
+
+  /** Selects the first seats of the front row, whatever the booking holds now. */
+  private static int frontRow(int count, SeatMap seatMap, int[] buffer) {
+    for (int i = 0; i < count; i++) buffer[i] = SeatMap.pack(0, i);
+    return count;
+  }
+
+  @Test
+  void testReseatConfirmedBookingIsRejected() {
+    // Given
+    AtomicLong now = new AtomicLong();
+    HoldTimer timer = new HoldTimer(Duration.ofSeconds(1), 16, now::get);
+    Cinema cinema =
+        new Cinema(new CinemaConfiguration("Movie", 2, 3), timer, Duration.ofSeconds(30));
+    cinema.getSeat(1, 2).orElseThrow().reserve("GIC0001");
+    cinema.holdSeats("GIC0001");
+    assertTrue(cinema.confirmBooking("GIC0001"));
+
+    // When
+    assertThrows(
+        IllegalStateException.class,
+        () -> cinema.reseat("GIC0001", 1, new int[1], CinemaTest::frontRow));
+    now.addAndGet(Duration.ofMinutes(1).toNanos());
+    timer.advance();
+
+    // Then the booking keeps its seat for good and is not put back on hold
+    assertFalse(cinema.isOnHold("GIC0001"));
+    assertEquals("GIC0001", cinema.getSeatMap().getBookingId(1, 2));
+    assertTrue(cinema.getSeatMap().isAvailable(0, 0));
+    assertEquals(5, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testReseatExpiredBookingIsRejected() {
+    // Given
+    AtomicLong now = new AtomicLong();
+    HoldTimer timer = new HoldTimer(Duration.ofSeconds(1), 16, now::get);
+    Cinema cinema =
+        new Cinema(new CinemaConfiguration("Movie", 2, 3), timer, Duration.ofSeconds(30));
+    cinema.getSeat(1, 2).orElseThrow().reserve("GIC0001");
+    cinema.holdSeats("GIC0001");
+    now.addAndGet(Duration.ofSeconds(31).toNanos());
+    timer.advance();
+
+    // When
+    assertThrows(
+        IllegalStateException.class,
+        () -> cinema.reseat("GIC0001", 1, new int[1], CinemaTest::frontRow));
+
+    // Then the booking does not get seats again
+    assertFalse(cinema.hasBooking("GIC0001"));
+    assertFalse(cinema.isOnHold("GIC0001"));
+    assertEquals(6, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testHoldRunningOutDuringReseatIsRenewedByTheMove() {
+    // Given
+    AtomicLong now = new AtomicLong();
+    HoldTimer timer = new HoldTimer(Duration.ofSeconds(1), 16, now::get);
+    Cinema cinema =
+        new Cinema(new CinemaConfiguration("Movie", 2, 3), timer, Duration.ofSeconds(30));
+    cinema.getSeat(1, 2).orElseThrow().reserve("GIC0001");
+    cinema.holdSeats("GIC0001");
+
+    // When the hold runs out while the seats are being selected
+    boolean moved =
+        cinema.reseat(
+            "GIC0001",
+            1,
+            new int[1],
+            (count, map, buffer) -> {
+              now.addAndGet(Duration.ofSeconds(31).toNanos());
+              timer.advance();
+              return frontRow(count, map, buffer);
+            });
+
+    // Then the moved booking is held afresh
+    assertTrue(moved);
+    assertTrue(cinema.isOnHold("GIC0001"));
+    assertEquals("GIC0001", cinema.getSeatMap().getBookingId(0, 0));
+    assertTrue(cinema.getSeatMap().isAvailable(1, 2));
+    assertEquals(5, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testHoldRunningOutDuringFailedReseatReleasesBooking() {
+    // Given
+    AtomicLong now = new AtomicLong();
+    HoldTimer timer = new HoldTimer(Duration.ofSeconds(1), 16, now::get);
+    Cinema cinema =
+        new Cinema(new CinemaConfiguration("Movie", 2, 3), timer, Duration.ofSeconds(30));
+    cinema.getSeat(1, 2).orElseThrow().reserve("GIC0001");
+    cinema.holdSeats("GIC0001");
+
+    // When the hold runs out while the selector finds no seats
+    boolean moved =
+        cinema.reseat(
+            "GIC0001",
+            1,
+            new int[1],
+            (count, map, buffer) -> {
+              now.addAndGet(Duration.ofSeconds(31).toNanos());
+              timer.advance();
+              return 0;
+            });
+
+    // Then the expiry is carried out once the move has given up
+    assertFalse(moved);
+    assertFalse(cinema.isOnHold("GIC0001"));
+    assertFalse(cinema.hasBooking("GIC0001"));
+    assertEquals(6, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testConfirmingDuringReseatKeepsNewSeats() {
+    // Given
+    AtomicLong now = new AtomicLong();
+    HoldTimer timer = new HoldTimer(Duration.ofSeconds(1), 16, now::get);
+    Cinema cinema =
+        new Cinema(new CinemaConfiguration("Movie", 2, 3), timer, Duration.ofSeconds(30));
+    cinema.getSeat(1, 2).orElseThrow().reserve("GIC0001");
+    cinema.holdSeats("GIC0001");
+
+    // When the booking is confirmed while its seats are being selected
+    boolean moved =
+        cinema.reseat(
+            "GIC0001",
+            1,
+            new int[1],
+            (count, map, buffer) -> {
+              assertTrue(cinema.confirmBooking("GIC0001"));
+              return frontRow(count, map, buffer);
+            });
+    now.addAndGet(Duration.ofMinutes(1).toNanos());
+    timer.advance();
+
+    // Then the booking keeps its new seat for good
+    assertTrue(moved);
+    assertFalse(cinema.isOnHold("GIC0001"));
+    assertEquals("GIC0001", cinema.getSeatMap().getBookingId(0, 0));
+    assertEquals(5, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testReleasingDuringReseatReleasesBookingAfterTheMove() {
+    // Given
+    AtomicLong now = new AtomicLong();
+    HoldTimer timer = new HoldTimer(Duration.ofSeconds(1), 16, now::get);
+    Cinema cinema =
+        new Cinema(new CinemaConfiguration("Movie", 2, 3), timer, Duration.ofSeconds(30));
+    cinema.getSeat(1, 2).orElseThrow().reserve("GIC0001");
+    cinema.holdSeats("GIC0001");
+
+    // When the booking is released while its seats are being selected
+    boolean moved =
+        cinema.reseat(
+            "GIC0001",
+            1,
+            new int[1],
+            (count, map, buffer) -> {
+              cinema.releaseSeats("GIC0001");
+              return frontRow(count, map, buffer);
+            });
+
+    // Then neither the old nor the new seat is kept
+    assertTrue(moved);
+    assertFalse(cinema.isOnHold("GIC0001"));
+    assertFalse(cinema.hasBooking("GIC0001"));
+    assertEquals(6, cinema.getAvailableSeatsCount());
   }
 }
@@ -0,0 +1,87 @@
+package io.yang.cinema;
+
+import io.yang.init.CinemaConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to render a half-booked hall, discarding the output, both when
+ * nothing has changed since the last render and when a single row has, and how long it takes to
+ * render a default-sized window of it.
+ *
+ * <p>Run with {@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark="CinemaVisualizerBenchmark -prof gc"} to see the allocation rate as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CinemaVisualizerBenchmark {
+
+  /** Hall layouts as {@code rows x seatsPerRow}. */
+  @Param({"26x50", "702x999"})
+  public String layout;
+
+  private Cinema cinema;
+  private PrintStream sink;
+  private Viewport whole;
+  private Viewport window;
+
+  @Setup
+  public void setUp() {
+    String[] dimensions = layout.split("x");
+    int rows = Integer.parseInt(dimensions[0]);
+    int seatsPerRow = Integer.parseInt(dimensions[1]);
+
+    cinema = new Cinema(new CinemaConfiguration("Movie", rows, seatsPerRow));
+    SplittableRandom random = new SplittableRandom(42);
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < seatsPerRow; col++) {
+        if (random.nextBoolean()) {
+          cinema.getSeatMap().reserve(row, col, random.nextBoolean() ? "GIC0001" : "GIC0002");
+        }
+      }
+    }
+    sink = new PrintStream(OutputStream.nullOutputStream());
+    whole = new Viewport(0, 0, rows, seatsPerRow);
+    int viewRows = Viewport.DEFAULT_ROWS;
+    int viewColumns = Viewport.DEFAULT_COLUMNS;
+    window = Viewport.around(cinema.getSeatMap(), rows / 2, seatsPerRow / 2, viewRows, viewColumns);
+  }
+
+  @Benchmark
+  public void visualize() {
+    CinemaVisualizer.visualize(cinema, "GIC0001", whole, sink);
+  }
+
+  /** Changes a single row between renders, as a booking being made elsewhere would. */
+  @Benchmark
+  public void visualizeAfterChange() {
+    SeatMap seatMap = cinema.getSeatMap();
+    if (seatMap.isAvailable(0, 0)) seatMap.reserve(0, 0, "GIC0002");
+    else seatMap.release(0, 0);
+    CinemaVisualizer.visualize(cinema, "GIC0001", whole, sink);
+  }
+
+  /** Shows the window to a viewer without seats, as half the hall would be too many to highlight. */
+  @Benchmark
+  public void visualizeViewport() {
+    CinemaVisualizer.visualize(cinema, "GIC0003", window, sink);
+  }
+}
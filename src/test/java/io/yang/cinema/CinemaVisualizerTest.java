@@ -10,6 +10,8 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -95,7 +97,7 @@ class CinemaVisualizerTest {
   void testVisualizeSingleRow_NoBookingId() {
     // Given
     Cinema cinema = new Cinema(new CinemaConfiguration("Halo", 1, 2));
-    cinema.getSeats()[0][1].reserve("OTHER");
+    cinema.getSeatMap().reserve(0, 1, "OTHER");
 
     // When
     CinemaVisualizer.visualize(cinema);
@@ -109,9 +111,9 @@ class CinemaVisualizerTest {
   void testVisualizeMultipleRows_BookingId() {
     // Given
     Cinema cinema = new Cinema(new CinemaConfiguration("Halo", 2, 3));
-    cinema.getSeats()[0][0].reserve("MYBOOKING");
-    cinema.getSeats()[0][1].reserve("OTHERBOOKING");
-    cinema.getSeats()[1][2].reserve("MYBOOKING");
+    cinema.getSeatMap().reserve(0, 0, "MYBOOKING");
+    cinema.getSeatMap().reserve(0, 1, "OTHERBOOKING");
+    cinema.getSeatMap().reserve(1, 2, "MYBOOKING");
 
     // When
     CinemaVisualizer.visualize(cinema, "MYBOOKING");
@@ -122,4 +124,151 @@ class CinemaVisualizerTest {
     assertEquals(
         "A .  .  o  ", output[3], "Expected row A to include two '.' and one 'o' at the end");
   }
+
+  @Test
+  void testVisualizeMultiLetterRowsAndWideColumns() {
+    // Given a hall with 27 rows (A..Z, AA) and three-digit seat numbers
+    Cinema cinema = new Cinema(new CinemaConfiguration("Halo", 27, 100));
+    cinema.getSeatMap().reserve(0, 99, "OTHER");
+
+    // When
+    CinemaVisualizer.visualize(cinema);
+    String[] output = outContent.toString().split("\n");
+
+    // Then
+    assertEquals(3 + 100 * 4, output[1].length(), "Divider should span the widened columns");
+    assertEquals("AA " + ".   ".repeat(99) + "#   ", output[2]);
+    assertEquals("Z  " + ".   ".repeat(100), output[3]);
+    assertEquals("   1   2   3   ", output[29].substring(0, 15));
+    assertEquals("100 ", output[29].substring(output[29].length() - 4));
+  }
+
+  @Test
+  void testVisualizeToSinkInSingleWrite() {
+    // Given
+    Cinema cinema = new Cinema(new CinemaConfiguration("Halo", 27, 100));
+    cinema.getSeatMap().reserve(3, 50, "MYBOOKING");
+    cinema.getSeatMap().reserve(3, 51, "OTHER");
+    CinemaVisualizer.visualize(cinema, "MYBOOKING");
+    ByteArrayOutputStream sink = new ByteArrayOutputStream();
+    AtomicInteger writes = new AtomicInteger();
+    PrintStream out =
+        new PrintStream(sink) {
+          @Override
+          public void write(byte[] buf, int off, int len) {
+            writes.incrementAndGet();
+            super.write(buf, off, len);
+          }
+        };
+
+    // When
+    CinemaVisualizer.visualize(cinema, "MYBOOKING", out);
+
+    // Then the sink receives exactly what the console would, in one write
+    assertEquals(outContent.toString(), sink.toString());
+    assertEquals(1, writes.get());
+  }
+
+  @Test
+  void testVisualizeReflectsChangesSinceLastRender() {
+    // Given a hall that has already been shown once
+    Cinema cinema = new Cinema(new CinemaConfiguration("Halo", 3, 3));
+    cinema.getSeatMap().reserve(0, 0, "MYBOOKING");
+    CinemaVisualizer.visualize(cinema, "MYBOOKING");
+    outContent.reset();
+
+    // When seats change in one row and the hall is shown to two viewers
+    cinema.getSeatMap().reserve(2, 1, "OTHER");
+    cinema.getSeatMap().release(0, 0);
+    cinema.getSeatMap().reserve(0, 2, "MYBOOKING");
+    CinemaVisualizer.visualize(cinema, "MYBOOKING");
+    CinemaVisualizer.visualize(cinema, "OTHER");
+    String[] output = outContent.toString().split("\n");
+
+    // Then each viewer sees the current hall with only their own seats highlighted
+    assertEquals("C .  .  o  ", output[2]);
+    assertEquals("A .  #  .  ", output[4]);
+    assertEquals("C .  .  #  ", output[8]);
+    assertEquals("A .  o  .  ", output[10]);
+  }
+
+  @Test
+  void testRenderingsBelongToTheirCaller() {
+    // Given
+    Cinema cinema = new Cinema(new CinemaConfiguration("Halo", 1, 3));
+    cinema.getSeatMap().reserve(0, 0, "MYBOOKING");
+    cinema.getSeatMap().reserve(0, 2, "OTHER");
+
+    // When the same thread renders for two viewers in turn
+    byte[] mine = cinema.getRenderCache().render("MYBOOKING");
+    byte[] theirs = cinema.getRenderCache().render("OTHER");
+
+    // Then the first rendering is not overwritten by the second
+    String[] myLines = new String(mine, StandardCharsets.US_ASCII).split("\n");
+    String[] theirLines = new String(theirs, StandardCharsets.US_ASCII).split("\n");
+    assertEquals("A o  .  #  ", myLines[2]);
+    assertEquals("A #  .  o  ", theirLines[2]);
+  }
+
+  @Test
+  void testVisualizeViewport() {
+    // Given
+    Cinema cinema = new Cinema(new CinemaConfiguration("Halo", 3, 5));
+    cinema.getSeatMap().reserve(1, 1, "MYBOOKING");
+    cinema.getSeatMap().reserve(2, 3, "OTHER");
+    cinema.getSeatMap().reserve(0, 0, "OTHER");
+
+    // When
+    CinemaVisualizer.visualize(cinema, "MYBOOKING", new Viewport(1, 1, 2, 3), System.out);
+    String[] output = outContent.toString().split("\n");
+
+    // Then only the window is shown, with the screen and column markers to match
+    assertEquals(5, output.length);
+    assertEquals("S C R E E N", output[0]);
+    assertEquals("-----------", output[1]);
+    assertEquals("B o  .  .  ", output[2]);
+    assertEquals("A .  .  #  ", output[3]);
+    assertEquals("  2  3  4  ", output[4]);
+  }
+
+  @Test
+  void testVisualizeViewportReflectsChangesSinceLastRender() {
+    // Given a window that has already been shown once, after the whole hall
+    Cinema cinema = new Cinema(new CinemaConfiguration("Halo", 3, 5));
+    cinema.getSeatMap().reserve(1, 1, "MYBOOKING");
+    CinemaVisualizer.visualize(cinema, "MYBOOKING", new Viewport(0, 0, 3, 5), System.out);
+    Viewport window = new Viewport(1, 1, 2, 3);
+    CinemaVisualizer.visualize(cinema, "MYBOOKING", window, System.out);
+    outContent.reset();
+
+    // When seats inside the window change and it is shown again
+    cinema.getSeatMap().release(1, 1);
+    cinema.getSeatMap().reserve(1, 2, "MYBOOKING");
+    cinema.getSeatMap().reserve(2, 3, "OTHER");
+    CinemaVisualizer.visualize(cinema, "MYBOOKING", window, System.out);
+    String[] output = outContent.toString().split("\n");
+
+    // Then the window shows the current seats
+    assertEquals("B .  o  .  ", output[2]);
+    assertEquals("A .  .  #  ", output[3]);
+  }
+
+  @Test
+  void testVisualizeLargeHallAroundBooking() {
+    // Given a hall too large to show whole
+    Cinema cinema = new Cinema(new CinemaConfiguration("Halo", 702, 999));
+    cinema.getSeatMap().reserve(400, 500, "MYBOOKING");
+    cinema.getSeatMap().reserve(400, 501, "OTHER");
+
+    // When
+    CinemaVisualizer.visualize(cinema, "MYBOOKING");
+    String[] output = outContent.toString().split("\n");
+
+    // Then a default-sized window centred on the booking is shown
+    assertEquals(Viewport.DEFAULT_ROWS + 3, output.length);
+    assertEquals(3 + Viewport.DEFAULT_COLUMNS * 4, output[1].length());
+    assertEquals("KP ", output[17].substring(0, 3));
+    assertEquals("o   #   ", output[17].substring(3 + 50 * 4, 3 + 52 * 4));
+    assertEquals("   451 452 ", output[32].substring(0, 11));
+  }
 }
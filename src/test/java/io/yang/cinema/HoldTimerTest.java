@@ -0,0 +1,145 @@
+package io.yang.cinema;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HoldTimerTest {
+
+  private final AtomicLong now = new AtomicLong(1_000);
+  private HoldTimer timer;
+
+  @BeforeEach
+  void setUp() {
+    timer = new HoldTimer(Duration.ofMillis(10), 8, now::get);
+  }
+
+  private void sleep(Duration duration) {
+    now.addAndGet(duration.toNanos());
+  }
+
+  @Test
+  void testRunsTaskOnlyOnceDue() {
+    // Given
+    AtomicInteger runs = new AtomicInteger();
+    HoldTimer.Timeout timeout = timer.schedule(runs::incrementAndGet, Duration.ofMillis(35));
+
+    // When
+    sleep(Duration.ofMillis(30));
+    timer.advance();
+
+    // Then
+    assertEquals(0, runs.get());
+    assertFalse(timeout.isExpired());
+
+    // When
+    sleep(Duration.ofMillis(10));
+    int expired = timer.advance();
+
+    // Then
+    assertEquals(1, expired);
+    assertEquals(1, runs.get());
+    assertTrue(timeout.isExpired());
+  }
+
+  @Test
+  void testDelayLongerThanOneTurnOfTheWheel() {
+    // Given a wheel of 8 ticks covering 80 ms
+    AtomicInteger runs = new AtomicInteger();
+    timer.schedule(runs::incrementAndGet, Duration.ofMillis(250));
+
+    // When the wheel passes the bucket twice without the timeout being due
+    sleep(Duration.ofMillis(240));
+    timer.advance();
+
+    // Then
+    assertEquals(0, runs.get());
+
+    // When
+    sleep(Duration.ofMillis(20));
+    timer.advance();
+
+    // Then
+    assertEquals(1, runs.get());
+  }
+
+  @Test
+  void testCancelledTaskNeverRuns() {
+    // Given
+    AtomicInteger runs = new AtomicInteger();
+    HoldTimer.Timeout timeout = timer.schedule(runs::incrementAndGet, Duration.ofMillis(20));
+    timer.advance();
+
+    // When
+    assertTrue(timeout.cancel());
+    sleep(Duration.ofMillis(100));
+
+    // Then
+    assertEquals(0, timer.advance());
+    assertEquals(0, runs.get());
+    assertTrue(timeout.isCancelled());
+    assertFalse(timeout.cancel());
+  }
+
+  @Test
+  void testExpiresManyTimeoutsInDeadlineOrder() {
+    // Given
+    List<Integer> order = new ArrayList<>();
+    for (int i = 9; i >= 0; i--) {
+      int id = i;
+      timer.schedule(() -> order.add(id), Duration.ofMillis(15L * i));
+    }
+
+    // When
+    for (int i = 0; i < 20; i++) {
+      sleep(Duration.ofMillis(10));
+      timer.advance();
+    }
+
+    // Then
+    assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), order);
+  }
+
+  @Test
+  void testFailingTaskDoesNotStopTheWheel() {
+    // Given
+    AtomicInteger runs = new AtomicInteger();
+    Thread.UncaughtExceptionHandler original = Thread.currentThread().getUncaughtExceptionHandler();
+    Thread.currentThread().setUncaughtExceptionHandler((thread, e) -> runs.incrementAndGet());
+    try {
+      timer.schedule(
+          () -> {
+            throw new IllegalStateException();
+          },
+          Duration.ZERO);
+      timer.schedule(runs::incrementAndGet, Duration.ZERO);
+
+      // When
+      sleep(Duration.ofMillis(10));
+      int expired = timer.advance();
+
+      // Then
+      assertEquals(2, expired);
+      assertEquals(2, runs.get());
+
+    } finally {
+      Thread.currentThread().setUncaughtExceptionHandler(original);
+    }
+  }
+
+  @Test
+  void testRejectsInvalidTick() {
+    assertThrows(IllegalArgumentException.class, () -> new HoldTimer(Duration.ZERO, 8));
+    assertThrows(IllegalArgumentException.class, () -> new HoldTimer(Duration.ofMillis(1), 0));
+  }
+}
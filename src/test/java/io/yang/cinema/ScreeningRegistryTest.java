@@ -0,0 +1,112 @@
+package io.yang.cinema;
+
+import io.yang.init.CinemaConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScreeningRegistryTest {
+
+  @Test
+  void testRegisterAndFind() {
+    // Given
+    ScreeningRegistry registry = new ScreeningRegistry();
+
+    // When
+    Cinema cinema = registry.register("S1", new CinemaConfiguration("Inception", 2, 3));
+
+    // Then
+    assertSame(cinema, registry.find("S1").orElseThrow());
+    assertTrue(registry.find("S2").isEmpty());
+    assertTrue(registry.find(null).isEmpty());
+  }
+
+  @Test
+  void testRegisterDuplicateOrBlankId() {
+    // Given
+    ScreeningRegistry registry = new ScreeningRegistry();
+    registry.register("S1", new CinemaConfiguration("Inception", 2, 3));
+
+    // Then
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> registry.register("S1", new CinemaConfiguration("Tenet", 2, 3)));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> registry.register(" ", new CinemaConfiguration("Tenet", 2, 3)));
+    assertEquals("Inception", registry.find("S1").orElseThrow().getMovieTitle());
+  }
+
+  @Test
+  void testScreeningsAreIsolated() {
+    // Given
+    ScreeningRegistry registry = new ScreeningRegistry();
+    Cinema busy = registry.register("S1", new CinemaConfiguration("Inception", 2, 3));
+    Cinema quiet = registry.register("S2", new CinemaConfiguration("Tenet", 2, 3));
+
+    // When
+    busy.getSeatMap().reserve(0, 0, "GIC0001");
+
+    // Then
+    assertEquals(5, busy.getAvailableSeatsCount());
+    assertEquals(6, quiet.getAvailableSeatsCount());
+    assertFalse(quiet.hasBooking("GIC0001"));
+  }
+
+  @Test
+  void testRemoveAndListScreenings() {
+    // Given
+    ScreeningRegistry registry = new ScreeningRegistry();
+    registry.register("S2", new CinemaConfiguration("Tenet", 1, 1));
+    registry.register("S1", new CinemaConfiguration("Inception", 1, 1));
+
+    // Then
+    assertEquals(List.of("S1", "S2"), registry.getScreeningIds());
+    assertTrue(registry.remove("S1"));
+    assertFalse(registry.remove("S1"));
+    assertEquals(1, registry.size());
+  }
+
+  @Test
+  void testConcurrentRegistrationAndLookup() throws Exception {
+    // Given
+    ScreeningRegistry registry = new ScreeningRegistry();
+    int screenings = 200;
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    // When every screening is registered and looked up from different threads
+    try {
+      List<Future<Boolean>> lookups =
+          IntStream.range(0, screenings)
+              .mapToObj(
+                  i ->
+                      executor.submit(
+                          () -> {
+                            String id = "S" + i;
+                            registry.register(id, new CinemaConfiguration("Movie", 2, 2));
+                            return registry.find(id).isPresent();
+                          }))
+              .toList();
+
+      // Then
+      for (Future<Boolean> lookup : lookups) {
+        assertTrue(lookup.get(5, TimeUnit.SECONDS));
+      }
+      assertEquals(screenings, registry.size());
+
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
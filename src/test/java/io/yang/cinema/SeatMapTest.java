@@ -0,0 +1,629 @@
+package io.yang.cinema;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatMapTest {
+
+  @Test
+  void testReserveAndRelease() {
+    // Given
+    SeatMap seatMap = new SeatMap(2, 3);
+
+    // When
+    seatMap.reserve(1, 2, "GIC0001");
+
+    // Then
+    assertFalse(seatMap.isAvailable(1, 2));
+    assertEquals("GIC0001", seatMap.getBookingId(1, 2));
+    assertEquals(5, seatMap.getAvailableSeats());
+
+    // When
+    seatMap.release(1, 2);
+
+    // Then
+    assertTrue(seatMap.isAvailable(1, 2));
+    assertNull(seatMap.getBookingId(1, 2));
+    assertEquals(6, seatMap.getAvailableSeats());
+  }
+
+  @Test
+  void testCountAvailableAcrossWords() {
+    // Given a row spanning three words
+    SeatMap seatMap = new SeatMap(1, 130);
+
+    // When
+    seatMap.reserve(0, 0, "A");
+    seatMap.reserve(0, 63, "A");
+    seatMap.reserve(0, 64, "A");
+    seatMap.reserve(0, 129, "A");
+
+    // Then
+    assertEquals(126, seatMap.getAvailableSeats(0));
+  }
+
+  @Test
+  void testCountersIgnoreRepeatedReserveAndRelease() {
+    // Given
+    SeatMap seatMap = new SeatMap(2, 2);
+
+    // When
+    seatMap.reserve(0, 1, "A");
+    seatMap.reserve(0, 1, "B");
+    seatMap.release(1, 0);
+
+    // Then
+    assertEquals("B", seatMap.getBookingId(0, 1));
+    assertEquals(1, seatMap.getAvailableSeats(0));
+    assertEquals(2, seatMap.getAvailableSeats(1));
+    assertEquals(3, seatMap.getAvailableSeats());
+  }
+
+  @Test
+  void testNextAvailableSkipsReservedWords() {
+    // Given a row whose first word is fully reserved
+    SeatMap seatMap = new SeatMap(1, 130);
+    for (int col = 0; col < 70; col++) {
+      seatMap.reserve(0, col, "A");
+    }
+
+    // Then
+    assertEquals(70, seatMap.nextAvailable(0, 0));
+    assertEquals(129, seatMap.nextAvailable(0, 129));
+    assertEquals(-1, seatMap.nextAvailable(0, 130));
+  }
+
+  @Test
+  void testNextAvailableIgnoresPaddingBits() {
+    // Given a full row that does not fill its last word
+    SeatMap seatMap = new SeatMap(1, 3);
+    for (int col = 0; col < 3; col++) {
+      seatMap.reserve(0, col, "A");
+    }
+
+    // Then
+    assertEquals(-1, seatMap.nextAvailable(0, 0));
+  }
+
+  @Test
+  void testPreviousAvailableSkipsReservedWords() {
+    // Given a row whose last seats are reserved
+    SeatMap seatMap = new SeatMap(1, 130);
+    for (int col = 60; col < 130; col++) {
+      seatMap.reserve(0, col, "A");
+    }
+
+    // Then
+    assertEquals(59, seatMap.previousAvailable(0, 129));
+    assertEquals(0, seatMap.previousAvailable(0, 0));
+    assertEquals(-1, seatMap.previousAvailable(0, -1));
+  }
+
+  @Test
+  void testNextReserved() {
+    // Given
+    SeatMap seatMap = new SeatMap(1, 100);
+    seatMap.reserve(0, 5, "A");
+    seatMap.reserve(0, 80, "B");
+
+    // Then
+    assertEquals(5, seatMap.nextReserved(0, 0));
+    assertEquals(80, seatMap.nextReserved(0, 6));
+    assertEquals(-1, seatMap.nextReserved(0, 81));
+  }
+
+  @Test
+  void testBookingIndexFollowsOwnershipTransfer() {
+    // Given
+    SeatMap seatMap = new SeatMap(1, 3);
+    seatMap.reserve(0, 0, "A");
+    seatMap.reserve(0, 1, "A");
+
+    // When the seat changes hands
+    seatMap.reserve(0, 1, "B");
+
+    // Then
+    assertEquals(1, seatMap.getBookedSeats("A").size());
+    assertEquals(seatMap.getSeat(0, 1), seatMap.getBookedSeats("B").get(0));
+
+    // When
+    seatMap.release(0, 1);
+
+    // Then
+    assertFalse(seatMap.hasBooking("B"));
+    assertTrue(seatMap.hasBooking("A"));
+  }
+
+  @Test
+  void testTryReserveIsAllOrNothing() {
+    // Given
+    SeatMap seatMap = new SeatMap(2, 4);
+    seatMap.reserve(1, 2, "A");
+    Seat[] group = {seatMap.getSeat(1, 0), seatMap.getSeat(1, 1), seatMap.getSeat(1, 2)};
+
+    // When one seat of the group is already taken
+    boolean reserved = seatMap.tryReserve(group, "B");
+
+    // Then the seats claimed before the conflict are rolled back
+    assertFalse(reserved);
+    assertTrue(seatMap.isAvailable(1, 0));
+    assertTrue(seatMap.isAvailable(1, 1));
+    assertEquals("A", seatMap.getBookingId(1, 2));
+    assertFalse(seatMap.hasBooking("B"));
+    assertEquals(7, seatMap.getAvailableSeats());
+    assertEquals(3, seatMap.getAvailableSeats(1));
+  }
+
+  @Test
+  void testTryReserveClaimsEverySeat() {
+    // Given
+    SeatMap seatMap = new SeatMap(2, 4);
+    Seat[] group = {seatMap.getSeat(0, 3), seatMap.getSeat(1, 3)};
+
+    // When
+    boolean reserved = seatMap.tryReserve(group, "B");
+
+    // Then
+    assertTrue(reserved);
+    assertEquals("B", seatMap.getBookingId(0, 3));
+    assertEquals("B", seatMap.getBookingId(1, 3));
+    assertEquals(2, seatMap.getBookedSeats("B").size());
+    assertEquals(6, seatMap.getAvailableSeats());
+  }
+
+  @Test
+  void testTryReservePackedSeats() {
+    // Given
+    SeatMap seatMap = new SeatMap(2, 4);
+    seatMap.reserve(1, 2, "A");
+    int[] group = {SeatMap.pack(0, 1), SeatMap.pack(1, 1), SeatMap.pack(1, 2)};
+
+    // When the last seat of the group is taken
+    boolean withConflict = seatMap.tryReserve(group, 3, "B");
+
+    // Then
+    assertFalse(withConflict);
+    assertTrue(seatMap.isAvailable(0, 1));
+    assertTrue(seatMap.isAvailable(1, 1));
+
+    // When only the free seats are passed
+    boolean withoutConflict = seatMap.tryReserve(group, 2, "B");
+
+    // Then
+    assertTrue(withoutConflict);
+    assertEquals("B", seatMap.getBookingId(0, 1));
+    assertEquals("B", seatMap.getBookingId(1, 1));
+    assertEquals(5, seatMap.getAvailableSeats());
+  }
+
+  @Test
+  void testPackRoundTrip() {
+    int packed = SeatMap.pack(701, 998);
+    assertEquals(701, SeatMap.rowOf(packed));
+    assertEquals(998, SeatMap.columnOf(packed));
+  }
+
+  @Test
+  void testReleasedHandleIsGivenToTheNextBooking() {
+    // Given
+    SeatMap seatMap = new SeatMap(2, 4);
+    seatMap.reserve(0, 0, "GIC0001");
+    seatMap.reserve(0, 1, "GIC0002");
+    int handle = seatMap.getBookingHandle(0, 0);
+
+    // When the booking is released and another one books elsewhere
+    seatMap.releaseBooking("GIC0001");
+    seatMap.reserve(1, 3, "GIC0003");
+
+    // Then
+    assertEquals(BookingIndex.NO_BOOKING, seatMap.getBookingHandle(0, 0));
+    assertEquals(handle, seatMap.getBookingHandle(1, 3));
+    assertNotEquals(handle, seatMap.getBookingHandle(0, 1));
+    assertEquals("GIC0003", seatMap.getBookingId(1, 3));
+    assertFalse(seatMap.hasBooking("GIC0001"));
+    assertEquals(0, seatMap.getBookedSeats("GIC0001").size());
+    assertEquals(2, seatMap.getBookingHandleCount());
+  }
+
+  @Test
+  void testHandleIsFreedWhenBookingLosesItsLastSeat() {
+    // Given
+    SeatMap seatMap = new SeatMap(1, 4);
+    seatMap.reserve(0, 0, "GIC0001");
+    seatMap.reserve(0, 1, "GIC0001");
+
+    // When one seat is released, the other taken over, and a group fails to reserve
+    seatMap.release(0, 0);
+    seatMap.reserve(0, 1, "GIC0002");
+    boolean reserved = seatMap.tryReserve(new int[] {SeatMap.pack(0, 1)}, 1, "GIC0003");
+
+    // Then
+    assertFalse(reserved);
+    assertFalse(seatMap.hasBooking("GIC0001"));
+    assertEquals(1, seatMap.getBookingHandleCount());
+  }
+
+  @Test
+  void testHandlesStayBoundedUnderConcurrentBookings() throws Exception {
+    // Given
+    SeatMap seatMap = new SeatMap(4, 16);
+    int threads = 8;
+    int bookingsPerThread = 2_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    // When every thread keeps booking and releasing its own seats under fresh booking IDs
+    try {
+      List<Future<Boolean>> bookers =
+          IntStream.range(0, threads)
+              .mapToObj(
+                  t ->
+                      executor.submit(
+                          () -> {
+                            int[] seats = {SeatMap.pack(t / 2, (t % 2) * 8)};
+                            for (int i = 0; i < bookingsPerThread; i++) {
+                              String bookingId = "GIC" + t + "-" + i;
+                              assertTrue(seatMap.tryReserve(seats, 1, bookingId));
+                              assertTrue(seatMap.hasBooking(bookingId));
+                              seatMap.releaseBooking(bookingId);
+                            }
+                            return true;
+                          }))
+              .toList();
+
+      // Then
+      for (Future<Boolean> booker : bookers) {
+        assertTrue(booker.get(30, TimeUnit.SECONDS));
+      }
+      assertEquals(0, seatMap.getBookingHandleCount());
+      assertEquals(64, seatMap.getAvailableSeats());
+
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testFindCentredBlock() {
+    // Given a row of 10 seats with the centre taken
+    SeatMap seatMap = new SeatMap(1, 10);
+    seatMap.reserve(0, 5, "A");
+
+    // Then blocks are placed as close to the centre as they fit
+    assertEquals(4, seatMap.findCentredBlock(0, 1));
+    assertEquals(2, seatMap.findCentredBlock(0, 3));
+    assertEquals(1, seatMap.findCentredBlock(0, 4));
+    assertEquals(0, seatMap.findCentredBlock(0, 5));
+    assertEquals(-1, seatMap.findCentredBlock(0, 6));
+    assertEquals(5, seatMap.getLongestFreeRun(0));
+
+    // When
+    seatMap.release(0, 5);
+
+    // Then
+    assertEquals(4, seatMap.findCentredBlock(0, 3));
+    assertEquals(0, seatMap.findCentredBlock(0, 10));
+    assertEquals(10, seatMap.getLongestFreeRun(0));
+  }
+
+  @Test
+  void testFreeRunQueriesMatchSeatBySeatScan() {
+    // Given a wide row filled at random, spanning several bitset words
+    SeatMap seatMap = new SeatMap(1, 999);
+    SplittableRandom random = new SplittableRandom(42);
+
+    for (int round = 0; round < 200; round++) {
+      // When
+      for (int i = 0; i < 40; i++) {
+        int col = random.nextInt(999);
+        if (random.nextInt(3) == 0) seatMap.release(0, col);
+        else seatMap.reserve(0, col, "X");
+      }
+
+      // Then
+      int from = random.nextInt(999);
+      assertEquals(scanNextAvailable(seatMap, from), seatMap.nextAvailable(0, from));
+      assertEquals(scanPreviousAvailable(seatMap, from), seatMap.previousAvailable(0, from));
+      int length = 1 + random.nextInt(12);
+      assertEquals(scanCentredBlock(seatMap, length), seatMap.findCentredBlock(0, length));
+      assertEquals(scanLongestRun(seatMap), seatMap.getLongestFreeRun(0));
+    }
+  }
+
+  @Test
+  void testFreeRunIndexSettlesAfterConcurrentChanges() throws Exception {
+    // Given a wide row that every thread changes at once, mostly within the same words
+    SeatMap seatMap = new SeatMap(1, 999);
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    // When
+    try {
+      List<Future<Boolean>> writers =
+          IntStream.range(0, threads)
+              .mapToObj(
+                  t ->
+                      executor.submit(
+                          () -> {
+                            SplittableRandom random = new SplittableRandom(t);
+                            for (int i = 0; i < 20_000; i++) {
+                              int col = random.nextInt(200);
+                              if (random.nextBoolean()) seatMap.release(0, col);
+                              else seatMap.reserve(0, col, "GIC" + t);
+                            }
+                            return true;
+                          }))
+              .toList();
+      for (Future<Boolean> writer : writers) {
+        assertTrue(writer.get(30, TimeUnit.SECONDS));
+      }
+
+      // Then the index agrees with the occupancy bits once the writers are done
+      assertEquals(scanLongestRun(seatMap), seatMap.getLongestFreeRun(0));
+      for (int length = 1; length <= 12; length++) {
+        assertEquals(scanCentredBlock(seatMap, length), seatMap.findCentredBlock(0, length));
+      }
+      for (int from = 0; from < 999; from += 7) {
+        assertEquals(scanNextAvailable(seatMap, from), seatMap.nextAvailable(0, from));
+        assertEquals(scanPreviousAvailable(seatMap, from), seatMap.previousAvailable(0, from));
+      }
+
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testVersionAdvancesOnEveryChange() {
+    // Given
+    SeatMap seatMap = new SeatMap(1, 3);
+    seatMap.reserve(0, 1, "GIC0001");
+    long version = seatMap.getVersion();
+
+    // When a claim is rolled back because a seat is taken
+    assertFalse(
+        seatMap.tryReserve(new int[] {SeatMap.pack(0, 0), SeatMap.pack(0, 1)}, 2, "GIC0002"));
+
+    // Then
+    assertTrue(seatMap.getVersion() > version);
+
+    // When a seat changes hands, or is released
+    version = seatMap.getVersion();
+    seatMap.reserve(0, 1, "GIC0003");
+    long transferred = seatMap.getVersion();
+    seatMap.release(0, 1);
+
+    // Then
+    assertTrue(transferred > version);
+    assertTrue(seatMap.getVersion() > transferred);
+
+    // When nothing changes, neither does the version
+    version = seatMap.getVersion();
+    seatMap.release(0, 1);
+    seatMap.getBookedSeats("GIC0003");
+
+    // Then
+    assertEquals(version, seatMap.getVersion());
+  }
+
+  @Test
+  void testReseatMovesOnlyChangedSeats() {
+    // Given
+    SeatMap seatMap = new SeatMap(1, 6);
+    seatMap.reserve(0, 0, "GIC0001");
+    seatMap.reserve(0, 1, "GIC0001");
+    seatMap.reserve(0, 2, "GIC0001");
+    int[] selection = new int[3];
+
+    // When the booking moves to columns 1 to 3
+    boolean moved =
+        seatMap.reseat(
+            "GIC0001",
+            3,
+            selection,
+            (count, map, buffer) -> {
+              // Then the booking's own seats look free, but nobody else can take them
+              assertTrue(map.isAvailable(0, 1));
+              assertFalse(map.tryReserve(new int[] {SeatMap.pack(0, 1)}, 1, "GIC0002"));
+              for (int i = 0; i < count; i++) buffer[i] = SeatMap.pack(0, 1 + i);
+              return count;
+            });
+
+    // Then
+    assertTrue(moved);
+    assertTrue(seatMap.isAvailable(0, 0));
+    assertEquals("GIC0001", seatMap.getBookingId(0, 1));
+    assertEquals("GIC0001", seatMap.getBookingId(0, 3));
+    assertEquals(3, seatMap.getBookedSeats("GIC0001").size());
+    assertEquals(3, seatMap.getAvailableSeats());
+  }
+
+  @Test
+  void testContendedReseatRetriesTheSameMove() {
+    // Given
+    SeatMap seatMap = new SeatMap(1, 6);
+    seatMap.reserve(0, 0, "GIC0001");
+    seatMap.reserve(0, 1, "GIC0001");
+    seatMap.reserve(0, 2, "GIC0001");
+    int[] attempts = new int[1];
+
+    // When another booking takes one of the chosen seats during the first attempt only
+    boolean moved =
+        seatMap.reseat(
+            "GIC0001",
+            3,
+            new int[3],
+            (count, map, buffer) -> {
+              if (attempts[0]++ == 0) {
+                assertTrue(map.tryReserve(new int[] {SeatMap.pack(0, 3)}, 1, "GIC0002"));
+              } else {
+                // Then the booking's seats are cleared again for the retry
+                assertTrue(map.isAvailable(0, 0));
+                map.release(0, 3);
+              }
+              for (int i = 0; i < count; i++) buffer[i] = SeatMap.pack(0, 1 + i);
+              return count;
+            });
+
+    // Then the retry makes the same one-seat shift instead of moving elsewhere
+    assertTrue(moved);
+    assertEquals(2, attempts[0]);
+    assertTrue(seatMap.isAvailable(0, 0));
+    assertEquals("GIC0001", seatMap.getBookingId(0, 1));
+    assertEquals("GIC0001", seatMap.getBookingId(0, 3));
+    assertEquals(3, seatMap.getBookedSeats("GIC0001").size());
+    assertEquals(3, seatMap.getAvailableSeats());
+  }
+
+  @Test
+  void testReseatGivesUpWhenChosenSeatsStayContended() {
+    // Given
+    SeatMap seatMap = new SeatMap(1, 4);
+    seatMap.reserve(0, 0, "GIC0001");
+    seatMap.reserve(0, 1, "GIC0002");
+    int[] attempts = new int[1];
+
+    // When the selector keeps choosing a seat another booking holds
+    boolean moved =
+        seatMap.reseat(
+            "GIC0001",
+            1,
+            new int[1],
+            (count, map, buffer) -> {
+              attempts[0]++;
+              buffer[0] = SeatMap.pack(0, 1);
+              return 1;
+            });
+
+    // Then the move stops after a bounded number of attempts and the booking keeps its seat
+    assertFalse(moved);
+    assertEquals(SeatMap.MAX_MOVE_ATTEMPTS, attempts[0]);
+    assertEquals("GIC0001", seatMap.getBookingId(0, 0));
+    assertEquals("GIC0002", seatMap.getBookingId(0, 1));
+    assertEquals(2, seatMap.getAvailableSeats());
+  }
+
+  @Test
+  void testFailedReseatKeepsCurrentSeats() {
+    // Given
+    SeatMap seatMap = new SeatMap(1, 4);
+    seatMap.reserve(0, 0, "GIC0001");
+    seatMap.reserve(0, 1, "GIC0001");
+
+    // When the selector cannot find enough seats
+    boolean moved = seatMap.reseat("GIC0001", 2, new int[2], (count, map, buffer) -> 0);
+
+    // Then
+    assertFalse(moved);
+    assertFalse(seatMap.isAvailable(0, 0));
+    assertEquals("GIC0001", seatMap.getBookingId(0, 1));
+    assertEquals(2, seatMap.getAvailableSeats());
+    assertEquals(2, seatMap.getLongestFreeRun(0));
+  }
+
+  @Test
+  void testReseatWithFailingSelectorKeepsCurrentSeats() {
+    // Given
+    SeatMap seatMap = new SeatMap(1, 4);
+    seatMap.reserve(0, 0, "GIC0001");
+    seatMap.reserve(0, 1, "GIC0001");
+
+    // When the selector throws
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            seatMap.reseat(
+                "GIC0001",
+                2,
+                new int[2],
+                (count, map, buffer) -> {
+                  throw new IllegalStateException("Selector failed");
+                }));
+
+    // Then the booking's seats are claimed again and nobody else can take them
+    assertFalse(seatMap.isAvailable(0, 0));
+    assertFalse(seatMap.isAvailable(0, 1));
+    assertEquals("GIC0001", seatMap.getBookingId(0, 0));
+    assertEquals(2, seatMap.getAvailableSeats());
+    assertFalse(seatMap.tryReserve(new int[] {SeatMap.pack(0, 0)}, 1, "GIC0002"));
+    assertTrue(seatMap.tryReserve(new int[] {SeatMap.pack(0, 2)}, 1, "GIC0002"));
+  }
+
+  @Test
+  void testRowVersionAdvancesOnlyForChangedRow() {
+    // Given
+    SeatMap seatMap = new SeatMap(2, 3);
+    long[] before = {seatMap.getRowVersion(0), seatMap.getRowVersion(1)};
+
+    // When
+    seatMap.reserve(1, 2, "GIC0001");
+
+    // Then
+    assertEquals(before[0], seatMap.getRowVersion(0));
+    assertTrue(seatMap.getRowVersion(1) > before[1]);
+
+    // When the seat only changes hands
+    long reserved = seatMap.getRowVersion(1);
+    seatMap.reserve(1, 2, "GIC0002");
+
+    // Then its occupancy, and so the row version, is unchanged
+    assertEquals(reserved, seatMap.getRowVersion(1));
+  }
+
+  private static int scanNextAvailable(SeatMap seatMap, int from) {
+    for (int col = from; col < seatMap.getSeatsPerRow(); col++) {
+      if (seatMap.isAvailable(0, col)) return col;
+    }
+    return -1;
+  }
+
+  private static int scanPreviousAvailable(SeatMap seatMap, int from) {
+    for (int col = from; col >= 0; col--) {
+      if (seatMap.isAvailable(0, col)) return col;
+    }
+    return -1;
+  }
+
+  private static int scanLongestRun(SeatMap seatMap) {
+    int longest = 0;
+    int run = 0;
+    for (int col = 0; col < seatMap.getSeatsPerRow(); col++) {
+      run = seatMap.isAvailable(0, col) ? run + 1 : 0;
+      longest = Math.max(longest, run);
+    }
+    return longest;
+  }
+
+  private static int scanCentredBlock(SeatMap seatMap, int length) {
+    int seatsPerRow = seatMap.getSeatsPerRow();
+    int target = seatsPerRow / 2 - length / 2;
+    if (isFreeBlock(seatMap, target, length)) return target;
+
+    int best = -1;
+    for (int start = 0; start + length <= seatsPerRow; start++) {
+      if (!isFreeBlock(seatMap, start, length)) continue;
+      int distance = Math.abs(2 * start + length - seatsPerRow);
+      // Prefer the right-hand block on ties, as later starts overwrite earlier ones
+      if (best < 0 || distance <= Math.abs(2 * best + length - seatsPerRow)) best = start;
+    }
+    return best;
+  }
+
+  private static boolean isFreeBlock(SeatMap seatMap, int start, int length) {
+    int reserved = seatMap.nextReserved(0, start);
+    return reserved < 0 || reserved >= start + length;
+  }
+}
@@ -0,0 +1,80 @@
+package io.yang.cinema;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SelectionCacheTest {
+
+  private final AtomicInteger selections = new AtomicInteger();
+
+  /** Selects the first available seats in row-major order and counts how often it is called. */
+  private int firstAvailable(int numberOfSeats, SeatMap seatMap, int[] selection) {
+    selections.incrementAndGet();
+    int count = 0;
+    for (int row = 0; row < seatMap.getRows(); row++) {
+      for (int col = 0; col < seatMap.getSeatsPerRow() && count < numberOfSeats; col++) {
+        if (seatMap.isAvailable(row, col)) selection[count++] = SeatMap.pack(row, col);
+      }
+    }
+    return count;
+  }
+
+  @Test
+  void testServesSelectionUntilSeatMapChanges() {
+    // Given
+    SeatMap seatMap = new SeatMap(2, 3);
+    SelectionCache cache = new SelectionCache(seatMap);
+    int[] first = new int[2];
+    int[] second = new int[2];
+
+    // When the same party size is asked for twice
+    cache.select("policy", 2, first, this::firstAvailable);
+    int count = cache.select("policy", 2, second, this::firstAvailable);
+
+    // Then the second answer comes from the cache
+    assertEquals(2, count);
+    assertArrayEquals(first, second);
+    assertEquals(1, selections.get());
+
+    // When a seat is reserved
+    seatMap.reserve(0, 0, "GIC0001");
+    cache.select("policy", 2, second, this::firstAvailable);
+
+    // Then the selection is made again
+    assertEquals(2, selections.get());
+    assertArrayEquals(new int[] {SeatMap.pack(0, 1), SeatMap.pack(0, 2)}, second);
+  }
+
+  @Test
+  void testLookupMissesForOtherPolicies() {
+    // Given
+    SeatMap seatMap = new SeatMap(2, 3);
+    SelectionCache cache = new SelectionCache(seatMap);
+    int[] selection = new int[2];
+    cache.select("policy", 2, selection, this::firstAvailable);
+
+    // When / Then
+    assertEquals(2, cache.lookup("policy", 2, selection));
+    assertEquals(-1, cache.lookup("other", 2, selection));
+    assertEquals(-1, cache.lookup("policy", 3, selection));
+  }
+
+  @Test
+  void testLargePartiesAreNotCached() {
+    // Given
+    SeatMap seatMap = new SeatMap(5, 10);
+    SelectionCache cache = new SelectionCache(seatMap);
+    int numberOfSeats = SelectionCache.MAX_PARTY_SIZE + 1;
+    int[] selection = new int[numberOfSeats];
+
+    // When
+    cache.select("policy", numberOfSeats, selection, this::firstAvailable);
+
+    // Then
+    assertEquals(-1, cache.lookup("policy", numberOfSeats, selection));
+  }
+}
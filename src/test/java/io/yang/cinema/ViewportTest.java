@@ -0,0 +1,67 @@
+package io.yang.cinema;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ViewportTest {
+
+  @Test
+  void testAroundCentresOnSeat() {
+    // Given
+    SeatMap seatMap = new SeatMap(100, 200);
+
+    // When
+    Viewport viewport = Viewport.around(seatMap, 50, 100, 10, 20);
+
+    // Then
+    assertEquals(45, viewport.getFirstRow());
+    assertEquals(90, viewport.getFirstColumn());
+    assertEquals(10, viewport.getRows());
+    assertEquals(20, viewport.getColumns());
+    assertFalse(viewport.covers(seatMap));
+  }
+
+  @Test
+  void testAroundStaysInsideSeatMap() {
+    // Given
+    SeatMap seatMap = new SeatMap(100, 200);
+
+    // When the seat is in a corner, and when the window is larger than the hall
+    Viewport corner = Viewport.around(seatMap, 99, 0, 10, 20);
+    Viewport oversized = Viewport.around(seatMap, 50, 100, 500, 500);
+
+    // Then
+    assertEquals(90, corner.getFirstRow());
+    assertEquals(0, corner.getFirstColumn());
+    assertEquals(100, oversized.getRows());
+    assertEquals(200, oversized.getColumns());
+    assertTrue(oversized.covers(seatMap));
+  }
+
+  @Test
+  void testAroundBookingCentresOnItsSeats() {
+    // Given
+    SeatMap seatMap = new SeatMap(300, 500);
+    seatMap.reserve(100, 200, "GIC0001");
+    seatMap.reserve(110, 260, "GIC0001");
+
+    // When
+    Viewport booked = Viewport.around(seatMap, "GIC0001");
+    Viewport unbooked = Viewport.around(seatMap, "GIC0002");
+
+    // Then
+    assertEquals(105 - Viewport.DEFAULT_ROWS / 2, booked.getFirstRow());
+    assertEquals(230 - Viewport.DEFAULT_COLUMNS / 2, booked.getFirstColumn());
+    assertEquals(150 - Viewport.DEFAULT_ROWS / 2, unbooked.getFirstRow());
+    assertEquals(250 - Viewport.DEFAULT_COLUMNS / 2, unbooked.getFirstColumn());
+  }
+
+  @Test
+  void testRejectsEmptyViewport() {
+    assertThrows(IllegalArgumentException.class, () -> new Viewport(0, 0, 0, 5));
+  }
+}
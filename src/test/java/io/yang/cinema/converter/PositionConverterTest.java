@@ -36,7 +36,8 @@ class PositionConverterTest {
     // Given a cinema
     Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 1, 1));
 
-    // Length not equal to 3
+    // Too short, or no seat number after the row letters
+    assertThrows(IllegalArgumentException.class, () -> PositionConverter.convert("A", cinema));
     assertThrows(IllegalArgumentException.class, () -> PositionConverter.convert("AB", cinema));
     assertThrows(IllegalArgumentException.class, () -> PositionConverter.convert("ABCD", cinema));
   }
@@ -106,4 +107,31 @@ class PositionConverterTest {
     assertEquals(1, pos.getRowNum());
     assertEquals(2, pos.getColNum());
   }
+
+  @Test
+  void testConvert_MultiLetterRowAndMultiDigitSeat() {
+    // Given a cinema with 30 rows -> row labels A..Z then AA..AD
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 30, 150));
+
+    // "AB112" -> label ordinal 27 => reversed row index 2; col => 111
+    Position pos = PositionConverter.convert("AB112", cinema);
+    assertEquals(2, pos.getRowNum());
+    assertEquals(111, pos.getColNum());
+
+    // Seat numbers no longer need zero padding
+    Position unpadded = PositionConverter.convert("A7", cinema);
+    assertEquals(29, unpadded.getRowNum());
+    assertEquals(6, unpadded.getColNum());
+  }
+
+  @Test
+  void testConvert_MultiLetterRowOutOfRange() {
+    // Given a cinema with 30 rows -> last label is AD
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 30, 10));
+
+    assertThrows(IllegalArgumentException.class, () -> PositionConverter.convert("AE01", cinema));
+    assertThrows(IllegalArgumentException.class, () -> PositionConverter.convert("Ab01", cinema));
+    assertThrows(
+        IllegalArgumentException.class, () -> PositionConverter.convert("A99999999999", cinema));
+  }
 }
@@ -0,0 +1,23 @@
+package io.yang.cinema.converter;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RowLabelConverterTest {
+
+  @ParameterizedTest
+  @CsvSource({"0, A", "25, Z", "26, AA", "27, AB", "51, AZ", "52, BA", "701, ZZ", "702, AAA"})
+  void testRoundTrip(int ordinal, String label) {
+    assertEquals(label, RowLabelConverter.toLabel(ordinal));
+    assertEquals(ordinal, RowLabelConverter.toOrdinal(label));
+    assertEquals(label.length(), RowLabelConverter.labelLength(ordinal));
+  }
+
+  @ParameterizedTest
+  @CsvSource({"0, 3, C", "2, 3, A", "0, 28, AB", "27, 28, A"})
+  void testToRowLabel(int rowIndex, int rows, String label) {
+    assertEquals(label, RowLabelConverter.toRowLabel(rowIndex, rows));
+  }
+}
@@ -0,0 +1,61 @@
+package io.yang.cinema.snapshot;
+
+import io.yang.cinema.Cinema;
+import io.yang.cinema.SeatMap;
+import io.yang.init.CinemaConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class BinarySnapshotEncoderTest {
+
+  private final BinarySnapshotEncoder encoder = new BinarySnapshotEncoder();
+
+  @Test
+  void testEncodesOccupancyBitsAndOwnSeats() {
+    // Given
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 2, 70));
+    SeatMap seatMap = cinema.getSeatMap();
+    seatMap.reserve(0, 3, "GIC0001");
+    seatMap.reserve(1, 65, "GIC0002");
+    seatMap.reserve(0, 69, "GIC0002");
+
+    // When
+    ByteBuffer snapshot = encoder.encode(cinema, "GIC0002", null);
+
+    // Then
+    assertEquals(BinarySnapshotEncoder.MAGIC, snapshot.getInt());
+    assertEquals(BinarySnapshotEncoder.FORMAT_VERSION, snapshot.get());
+    assertEquals(seatMap.getVersion(), snapshot.getLong());
+    assertEquals(2, snapshot.getInt());
+    assertEquals(70, snapshot.getInt());
+    assertEquals(137, snapshot.getInt());
+    assertEquals(1L << 3, snapshot.getLong());
+    assertEquals(1L << 5, snapshot.getLong());
+    assertEquals(0L, snapshot.getLong());
+    assertEquals(1L << 1, snapshot.getLong());
+    assertEquals(2, snapshot.getInt());
+    assertEquals(SeatMap.pack(1, 65), snapshot.getInt());
+    assertEquals(SeatMap.pack(0, 69), snapshot.getInt());
+    assertEquals(0, snapshot.remaining());
+  }
+
+  @Test
+  void testReusesBufferThatIsLargeEnough() {
+    // Given
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 4, 4));
+    ByteBuffer buffer = ByteBuffer.allocate(1024);
+    buffer.put(new byte[100]);
+
+    // When
+    ByteBuffer snapshot = encoder.encode(cinema, null, buffer);
+
+    // Then
+    assertSame(buffer, snapshot);
+    assertEquals(0, snapshot.position());
+    assertEquals(25 + 4 * Long.BYTES + Integer.BYTES, snapshot.limit());
+  }
+}
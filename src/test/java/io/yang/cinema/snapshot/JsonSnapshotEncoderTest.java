@@ -0,0 +1,97 @@
+package io.yang.cinema.snapshot;
+
+import io.yang.cinema.Cinema;
+import io.yang.cinema.SeatMap;
+import io.yang.init.CinemaConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonSnapshotEncoderTest {
+
+  private final JsonSnapshotEncoder encoder = new JsonSnapshotEncoder();
+
+  private static String decode(ByteBuffer buffer) {
+    return StandardCharsets.UTF_8.decode(buffer).toString();
+  }
+
+  @Test
+  void testEncodesSeatMapWithOwnSeats() {
+    // Given
+    Cinema cinema = new Cinema(new CinemaConfiguration("Inception", 3, 5));
+    SeatMap seatMap = cinema.getSeatMap();
+    seatMap.reserve(1, 1, "GIC0001");
+    seatMap.reserve(1, 3, "GIC0002");
+    seatMap.reserve(2, 2, "GIC0002");
+
+    // When
+    String json = decode(encoder.encode(cinema, "GIC0002", null));
+
+    // Then
+    assertEquals(
+        "{\"movieTitle\":\"Inception\",\"version\":"
+            + seatMap.getVersion()
+            + ",\"rows\":3,\"seatsPerRow\":5,\"availableSeats\":12,\"seatMap\":["
+            + "{\"row\":\"C\",\"seats\":\".....\"},"
+            + "{\"row\":\"B\",\"seats\":\".#.o.\"},"
+            + "{\"row\":\"A\",\"seats\":\"..o..\"}],"
+            + "\"ownSeats\":[{\"row\":\"B\",\"seat\":4},{\"row\":\"A\",\"seat\":3}]}",
+        json);
+  }
+
+  @Test
+  void testEscapesMovieTitle() {
+    // Given
+    Cinema cinema = new Cinema(new CinemaConfiguration("\"Amélie\"\t\\ 🎬", 1, 1));
+
+    // When
+    String json = decode(encoder.encode(cinema, null, null));
+
+    // Then
+    assertEquals(
+        "{\"movieTitle\":\"\\\"Amélie\\\"\\u0009\\\\ 🎬\",\"version\":0,\"rows\":1,"
+            + "\"seatsPerRow\":1,\"availableSeats\":1,"
+            + "\"seatMap\":[{\"row\":\"A\",\"seats\":\".\"}],\"ownSeats\":[]}",
+        json);
+  }
+
+  @Test
+  void testEncodesRowsWiderThanOneWord() {
+    // Given
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 1, 130));
+    cinema.getSeatMap().reserve(0, 64, "GIC0001");
+    cinema.getSeatMap().reserve(0, 129, "GIC0001");
+
+    // When
+    String json = decode(encoder.encode(cinema, null, null));
+
+    // Then
+    String seats = ".".repeat(64) + "#" + ".".repeat(64) + "#";
+    assertTrue(json.contains("{\"row\":\"A\",\"seats\":\"" + seats + "\"}"));
+  }
+
+  @Test
+  void testReusesBufferThatIsLargeEnough() {
+    // Given
+    Cinema cinema = new Cinema(new CinemaConfiguration("Movie", 2, 2));
+    ByteBuffer small = ByteBuffer.allocate(8);
+
+    // When
+    ByteBuffer grown = encoder.encode(cinema, null, small);
+    String first = decode(grown.duplicate());
+    cinema.getSeatMap().reserve(0, 0, "GIC0001");
+    ByteBuffer reused = encoder.encode(cinema, null, grown);
+
+    // Then
+    assertNotSame(small, grown);
+    assertSame(grown, reused);
+    assertTrue(first.contains("\"seats\":\"..\"},{\"row\":\"A\""));
+    assertTrue(decode(reused).contains("{\"row\":\"B\",\"seats\":\"#.\"}"));
+  }
+}
@@ -0,0 +1,123 @@
+package io.yang.console;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChannelConsoleIOTest {
+
+  /** Records the size of every write it receives. */
+  private static class RecordingOutputStream extends ByteArrayOutputStream {
+    private final List<Integer> writes = new ArrayList<>();
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) {
+      writes.add(length);
+      super.write(bytes, offset, length);
+    }
+  }
+
+  private static ConsoleIO consoleWith(String input, ByteArrayOutputStream out) {
+    return ConsoleIO.of(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+  }
+
+  @Test
+  void testReadsLinesUntilInputEnds() {
+    // Given
+    ConsoleIO console = consoleWith("1\r\n\nInception 8 10\nB03", new ByteArrayOutputStream());
+
+    // When
+    List<String> lines = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      lines.add(console.readLine());
+    }
+
+    // Then
+    assertEquals(List.of("1", "", "Inception 8 10", "B03"), lines);
+    assertThrows(NoSuchElementException.class, console::readLine);
+  }
+
+  @Test
+  void testReadsLinesLongerThanBuffer() {
+    // Given
+    String longLine = "x".repeat(20_000);
+    ConsoleIO console = consoleWith("é\n" + longLine + "\nlast\n", new ByteArrayOutputStream());
+
+    // When
+    String first = console.readLine();
+    String second = console.readLine();
+    String third = console.readLine();
+
+    // Then
+    assertEquals("é", first);
+    assertEquals(longLine, second);
+    assertEquals("last", third);
+  }
+
+  @Test
+  void testRejectsLineLongerThanLimit() {
+    // Given
+    String longest = "x".repeat(ChannelConsoleIO.MAX_LINE_LENGTH);
+    ConsoleIO console =
+        consoleWith(longest + "\r\n" + longest + "x\nlast\n", new ByteArrayOutputStream());
+
+    // When
+    String accepted = console.readLine();
+
+    // Then
+    assertEquals(longest, accepted);
+    assertThrows(UncheckedIOException.class, console::readLine);
+  }
+
+  @Test
+  void testFlushesOutputOncePerPrompt() {
+    // Given
+    RecordingOutputStream out = new RecordingOutputStream();
+    ConsoleIO console = consoleWith("1\n", out);
+
+    // When several lines are printed before waiting for input
+    console.println("Welcome to GIC Cinemas");
+    console.printf("[%d] %s%n", 1, "Book tickets for Amélie");
+    console.print("Please enter your selection:");
+    int writesBeforePrompt = out.writes.size();
+    console.readLine();
+
+    // Then they reach the stream together, as soon as the console waits for input
+    String separator = System.lineSeparator();
+    assertEquals(0, writesBeforePrompt);
+    assertEquals(1, out.writes.size());
+    assertEquals(
+        "Welcome to GIC Cinemas"
+            + separator
+            + "[1] Book tickets for Amélie"
+            + separator
+            + "Please enter your selection:",
+        out.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void testWritesLargeOutputThrough() {
+    // Given
+    RecordingOutputStream out = new RecordingOutputStream();
+    ConsoleIO console = consoleWith("", out);
+    byte[] seatMap = "#".repeat(50_000).getBytes(StandardCharsets.US_ASCII);
+
+    // When
+    console.print("Selected seats:");
+    console.write(seatMap, 0, seatMap.length);
+    console.close();
+
+    // Then the pending text goes first, and the seat map in one piece after it
+    assertEquals(List.of(15, 50_000), out.writes);
+    assertEquals("Selected seats:" + "#".repeat(50_000), out.toString(StandardCharsets.US_ASCII));
+  }
+}
@@ -29,6 +29,16 @@ class CinemaConfigurationParserTest {
     assertEquals(25, result.getSeatsPerRow());
   }
 
+  @Test
+  void testParseStadiumScaleInput() {
+    // When
+    CinemaConfiguration result = CinemaConfigurationParser.parse("Finals 702 999");
+
+    // Then
+    assertEquals(702, result.getRows());
+    assertEquals(999, result.getSeatsPerRow());
+  }
+
   @ParameterizedTest
   @MethodSource("invalidInputProvider")
   void testParseWithInvalidInputs(String input, String expectedMessage) {
@@ -52,7 +62,8 @@ class CinemaConfigurationParserTest {
             Named.of("Rows less than 1", "Inception -1 25"),
             "Number of rows cannot be less than 1.\n"),
         Arguments.of(
-            Named.of("Rows exceeding 26", "Inception 27 25"), "Number of rows cannot exceed 26.\n"),
+            Named.of("Rows exceeding 702", "Inception 703 25"),
+            "Number of rows cannot exceed 702.\n"),
         Arguments.of(
             Named.of("Seats per row not numeric", "Inception 13 a"),
             "Number of seats per rows must be numeric.\n"),
@@ -60,7 +71,7 @@ class CinemaConfigurationParserTest {
             Named.of("Seats per row less than 1", "Inception 15 0"),
             "Number of seats per row cannot be less than 1.\n"),
         Arguments.of(
-            Named.of("Seats per row exceeding 50", "Inception 15 51"),
-            "Number of seats per row cannot exceed 50.\n"));
+            Named.of("Seats per row exceeding 999", "Inception 15 1000"),
+            "Number of seats per row cannot exceed 999.\n"));
   }
 }
@@ -1,12 +1,11 @@
 package io.yang.init;
 
+import io.yang.console.ConsoleIO;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 
-import java.util.Scanner;
-
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
@@ -14,12 +13,12 @@ import static org.mockito.Mockito.when;
 
 class InitializerTest {
 
-  private static Scanner scanner;
+  private static ConsoleIO console;
   private static MockedStatic<CinemaConfigurationParser> parser;
 
   @BeforeAll
   static void setUp() {
-    scanner = mock(Scanner.class);
+    console = mock(ConsoleIO.class);
     parser = mockStatic(CinemaConfigurationParser.class);
   }
 
@@ -32,11 +31,11 @@ class InitializerTest {
   void testInitWithValidInput() {
     // Given
     CinemaConfiguration expected = mock(CinemaConfiguration.class);
-    when(scanner.nextLine()).thenReturn("1");
+    when(console.readLine()).thenReturn("1");
     parser.when(() -> CinemaConfigurationParser.parse("1")).thenReturn(expected);
 
     // When
-    CinemaConfiguration actual = Initializer.init(scanner);
+    CinemaConfiguration actual = Initializer.init(console);
 
     // Then
     parser.verify(() -> CinemaConfigurationParser.parse("1"));
@@ -47,14 +46,14 @@ class InitializerTest {
   void testPromptTillValidInput() {
     // Given
     CinemaConfiguration expected = mock(CinemaConfiguration.class);
-    when(scanner.nextLine()).thenReturn("somthingwong").thenReturn("2");
+    when(console.readLine()).thenReturn("somthingwong").thenReturn("2");
     parser
         .when(() -> CinemaConfigurationParser.parse("somthingwong"))
         .thenThrow(IllegalArgumentException.class);
     parser.when(() -> CinemaConfigurationParser.parse("2")).thenReturn(expected);
 
     // When
-    CinemaConfiguration config = Initializer.init(scanner);
+    CinemaConfiguration config = Initializer.init(console);
 
     // Then
     parser.verify(() -> CinemaConfigurationParser.parse("somthingwong"));
@@ -0,0 +1,65 @@
+package io.yang.replay;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+  @Test
+  void testPercentilesStayWithinBucketPrecision() {
+    // Given latencies of 1 to 100,000 nanoseconds
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long nanos = 1; nanos <= 100_000; nanos++) {
+      histogram.record(nanos);
+    }
+
+    // When
+    long p50 = histogram.percentile(50);
+    long p99 = histogram.percentile(99);
+
+    // Then
+    assertEquals(100_000, histogram.count());
+    assertEquals(50_000.5, histogram.mean());
+    assertEquals(100_000, histogram.max());
+    assertEquals(100_000, histogram.percentile(100));
+    assertTrue(Math.abs(p50 - 50_000) <= 50_000 / 16, "p50 was " + p50);
+    assertTrue(Math.abs(p99 - 99_000) <= 99_000 / 16, "p99 was " + p99);
+  }
+
+  @Test
+  void testCountsSmallValuesExactly() {
+    // Given
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(3);
+    histogram.record(7);
+    histogram.record(-5);
+
+    // When / Then
+    assertEquals(0, histogram.percentile(1));
+    assertEquals(3, histogram.percentile(50));
+    assertEquals(7, histogram.percentile(100));
+  }
+
+  @Test
+  void testEmptyHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertEquals(0, histogram.percentile(99));
+    assertEquals(0, histogram.mean());
+    assertEquals(0, histogram.max());
+  }
+
+  @Test
+  void testRecordsLargestValue() {
+    // Given
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    // When
+    histogram.record(Long.MAX_VALUE);
+
+    // Then
+    assertEquals(Long.MAX_VALUE, histogram.percentile(100));
+  }
+}
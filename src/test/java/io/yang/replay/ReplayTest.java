@@ -0,0 +1,72 @@
+package io.yang.replay;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayTest {
+
+  private static InputStream script(String... lines) {
+    return new ByteArrayInputStream(
+        (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void testReplaysScriptThroughSession() {
+    // Given a script that books twice, checks a booking and exits
+    InputStream script =
+        script("Inception 3 5", "1", "2", "", "1", "3", "B01", "", "2", "GIC0000", "3");
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    // When
+    Replay.Summary summary = Replay.run(script, output);
+
+    // Then every line was handled and the session ran to its end
+    String printed = output.toString(StandardCharsets.UTF_8);
+    assertEquals(11, summary.getLines());
+    assertTrue(printed.contains("Successfully reserved 2 Inception tickets."));
+    assertTrue(printed.contains("Successfully reserved 3 Inception tickets."));
+    assertTrue(printed.contains("Book tickets for Inception (10 seats available)"));
+    assertTrue(printed.contains("Booking id: GIC0000 not found."));
+    assertTrue(printed.endsWith("Bye!" + System.lineSeparator()));
+  }
+
+  @Test
+  void testScriptMayEndWithoutExiting() {
+    // Given
+    InputStream script = script("Inception 3 5", "1", "2");
+
+    // When
+    Replay.Summary summary = Replay.run(script, OutputStream.nullOutputStream());
+
+    // Then
+    assertEquals(3, summary.getLines());
+    assertTrue(summary.getElapsedNanos() > 0);
+    assertTrue(summary.getLatencyPercentileNanos(100) > 0);
+  }
+
+  @Test
+  void testPrintsSummary() {
+    // Given
+    InputStream script = script("Inception 3 5", "3");
+    Replay.Summary summary = Replay.run(script, OutputStream.nullOutputStream());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // When
+    summary.print(new PrintStream(out, true, StandardCharsets.UTF_8));
+
+    // Then
+    String[] lines = out.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+    assertEquals(2, lines.length);
+    assertTrue(lines[0].matches("Replayed 2 lines in [0-9.]+ s \\([0-9]+ lines/s\\)"));
+    assertTrue(lines[1].matches("Latency per line: mean [0-9.]+ us, p50 .*, max [0-9.]+ us"));
+  }
+}
@@ -0,0 +1,261 @@
+package io.yang.server;
+
+import io.yang.cinema.Cinema;
+import io.yang.cinema.snapshot.BinarySnapshotEncoder;
+import io.yang.init.CinemaConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingHttpServerTest {
+
+  private static final Pattern BOOKING_ID = Pattern.compile("\"bookingId\":\"(GIC\\d+)\"");
+
+  private Cinema cinema;
+  private BookingHttpServer server;
+  private HttpClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    cinema = new Cinema(new CinemaConfiguration("Inception", 10, 20));
+    server =
+        BookingHttpServer.start(
+            cinema, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.close();
+  }
+
+  private HttpRequest.Builder request(String path) {
+    URI uri = URI.create("http://localhost:" + server.getPort() + path);
+    return HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(10));
+  }
+
+  private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+    return client.send(request(path).GET().build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private HttpResponse<String> post(String path) throws IOException, InterruptedException {
+    HttpRequest request = request(path).POST(HttpRequest.BodyPublishers.noBody()).build();
+    return client.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static String bookingIdOf(HttpResponse<String> response) {
+    Matcher matcher = BOOKING_ID.matcher(response.body());
+    assertTrue(matcher.find(), response.body());
+    return matcher.group(1);
+  }
+
+  @Test
+  void testBookHoldsSeatsUntilConfirmed() throws Exception {
+    // Given
+    HttpResponse<String> booked = post("/bookings?seats=2");
+    String bookingId = bookingIdOf(booked);
+
+    // When
+    HttpResponse<String> held = get("/bookings/" + bookingId);
+    HttpResponse<String> confirmed = post("/bookings/" + bookingId + "/confirm");
+
+    // Then
+    assertEquals(201, booked.statusCode());
+    assertEquals("/bookings/" + bookingId, booked.headers().firstValue("Location").orElse(""));
+    assertEquals(
+        "{\"bookingId\":\""
+            + bookingId
+            + "\",\"status\":\"held\",\"seats\":[{\"row\":\"A\",\"seat\":10},"
+            + "{\"row\":\"A\",\"seat\":11}]}",
+        booked.body());
+    assertEquals(booked.body(), held.body());
+    assertEquals(200, confirmed.statusCode());
+    assertTrue(confirmed.body().contains("\"status\":\"confirmed\""));
+    assertFalse(cinema.isOnHold(bookingId));
+    assertEquals(198, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testBookFromPosition() throws Exception {
+    // When
+    HttpResponse<String> response = post("/bookings?seats=3&position=C05");
+
+    // Then
+    assertEquals(201, response.statusCode());
+    assertTrue(
+        response
+            .body()
+            .endsWith(
+                "[{\"row\":\"C\",\"seat\":5},{\"row\":\"C\",\"seat\":6},"
+                    + "{\"row\":\"C\",\"seat\":7}]}"),
+        response.body());
+  }
+
+  @Test
+  void testPreviewDoesNotReserveSeats() throws Exception {
+    // When
+    HttpResponse<String> response = get("/preview?seats=3");
+
+    // Then
+    assertEquals(200, response.statusCode());
+    assertEquals(
+        "{\"seats\":[{\"row\":\"A\",\"seat\":10},{\"row\":\"A\",\"seat\":11},"
+            + "{\"row\":\"A\",\"seat\":12}]}",
+        response.body());
+    assertEquals(200, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testReseatMovesHeldBooking() throws Exception {
+    // Given
+    String bookingId = bookingIdOf(post("/bookings?seats=2"));
+
+    // When
+    HttpResponse<String> response = post("/bookings/" + bookingId + "/reseat?position=B03");
+
+    // Then
+    assertEquals(200, response.statusCode());
+    assertTrue(
+        response.body().endsWith("[{\"row\":\"B\",\"seat\":3},{\"row\":\"B\",\"seat\":4}]}"),
+        response.body());
+    assertTrue(cinema.isOnHold(bookingId));
+    assertEquals(198, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testReseatConfirmedBookingIsRejected() throws Exception {
+    // Given
+    String bookingId = bookingIdOf(post("/bookings?seats=2"));
+    post("/bookings/" + bookingId + "/confirm");
+
+    // When
+    HttpResponse<String> response = post("/bookings/" + bookingId + "/reseat?position=B03");
+
+    // Then
+    assertEquals(409, response.statusCode());
+    assertEquals(
+        "{\"error\":\"Booking id: " + bookingId + " is not on hold.\"}", response.body());
+    assertFalse(cinema.isOnHold(bookingId));
+    assertEquals(2, cinema.getBookedSeats(bookingId).size());
+  }
+
+  @Test
+  void testErrorsUseConsoleMessages() throws Exception {
+    // When
+    HttpResponse<String> invalidSeats = post("/bookings?seats=abc");
+    HttpResponse<String> invalidPosition = post("/bookings?seats=2&position=Z99");
+    HttpResponse<String> tooManySeats = post("/bookings?seats=201");
+    HttpResponse<String> unknownBooking = get("/bookings/GIC9999");
+    HttpResponse<String> wrongMethod = get("/bookings");
+    HttpResponse<String> unknownPath = get("/bookings/GIC9999/cancel");
+
+    // Then
+    assertEquals(400, invalidSeats.statusCode());
+    assertEquals(
+        "{\"error\":\"Number of tickets must be an integer greater than 0\"}",
+        invalidSeats.body());
+    assertEquals(400, invalidPosition.statusCode());
+    assertEquals("{\"error\":\"Row marker must not be after J\"}", invalidPosition.body());
+    assertEquals(409, tooManySeats.statusCode());
+    assertEquals(
+        "{\"error\":\"Sorry, there are only 200 seats available\"}", tooManySeats.body());
+    assertEquals(404, unknownBooking.statusCode());
+    assertEquals("{\"error\":\"Booking id: GIC9999 not found.\"}", unknownBooking.body());
+    assertEquals(405, wrongMethod.statusCode());
+    assertEquals("POST", wrongMethod.headers().firstValue("Allow").orElse(""));
+    assertEquals(404, unknownPath.statusCode());
+    assertEquals(200, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testAvailabilityIsNotResentUntilSeatMapChanges() throws Exception {
+    // Given
+    HttpResponse<String> first = get("/availability");
+    String tag = first.headers().firstValue("ETag").orElseThrow();
+
+    // When
+    HttpRequest poll = request("/availability").header("If-None-Match", tag).GET().build();
+    HttpResponse<String> unchanged = client.send(poll, HttpResponse.BodyHandlers.ofString());
+    post("/bookings?seats=1");
+    HttpResponse<String> changed = client.send(poll, HttpResponse.BodyHandlers.ofString());
+
+    // Then
+    assertEquals(200, first.statusCode());
+    assertEquals("application/json", first.headers().firstValue("Content-Type").orElse(""));
+    assertTrue(first.body().contains("\"availableSeats\":200"), first.body());
+    assertEquals(304, unchanged.statusCode());
+    assertEquals("", unchanged.body());
+    assertEquals(200, changed.statusCode());
+    assertTrue(changed.body().contains("\"availableSeats\":199"), changed.body());
+  }
+
+  @Test
+  void testAvailabilityInBinaryFormat() throws Exception {
+    // Given
+    HttpRequest request =
+        request("/availability").header("Accept", BinarySnapshotEncoder.CONTENT_TYPE).GET().build();
+
+    // When
+    HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+    // Then
+    ByteBuffer snapshot = ByteBuffer.wrap(response.body());
+    assertEquals(200, response.statusCode());
+    assertEquals(
+        BinarySnapshotEncoder.CONTENT_TYPE,
+        response.headers().firstValue("Content-Type").orElse(""));
+    assertEquals(BinarySnapshotEncoder.MAGIC, snapshot.getInt());
+  }
+
+  @Test
+  void testConcurrentRequestsFillTheHall() throws Exception {
+    // Given
+    int clients = 40;
+    List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+
+    // When
+    for (int i = 0; i < clients; i++) {
+      HttpRequest request =
+          request("/bookings?seats=5").POST(HttpRequest.BodyPublishers.noBody()).build();
+      responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+    }
+    List<String> bookingIds = new ArrayList<>();
+    for (CompletableFuture<HttpResponse<String>> response : responses) {
+      HttpResponse<String> booked = response.get(30, TimeUnit.SECONDS);
+      assertEquals(201, booked.statusCode(), booked.body());
+      bookingIds.add(bookingIdOf(booked));
+    }
+
+    // Then
+    assertEquals(clients, bookingIds.stream().distinct().count());
+    assertEquals(0, cinema.getAvailableSeatsCount());
+    for (String bookingId : bookingIds) {
+      assertEquals(5, cinema.getBookedSeats(bookingId).size());
+    }
+    assertEquals(409, post("/bookings?seats=1").statusCode());
+  }
+}
@@ -0,0 +1,159 @@
+package io.yang.server;
+
+import io.yang.cinema.Cinema;
+import io.yang.init.CinemaConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingServerTest {
+
+  private Cinema cinema;
+  private BookingServer server;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    cinema = new Cinema(new CinemaConfiguration("Inception", 10, 20));
+    server =
+        BookingServer.start(cinema, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    server.close();
+  }
+
+  private Socket connect() throws IOException {
+    Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+    socket.setSoTimeout(10_000);
+    return socket;
+  }
+
+  /** Sends a whole script over a new connection and reads everything the session prints. */
+  private String converse(String... lines) throws IOException {
+    try (Socket socket = connect()) {
+      OutputStream out = socket.getOutputStream();
+      out.write((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+      out.flush();
+      return new String(socket.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  void testServesBookingSession() throws IOException {
+    // When a client books two seats and exits
+    String output = converse("1", "2", "", "3");
+
+    // Then
+    assertTrue(output.startsWith("Welcome to GIC Cinemas"));
+    assertTrue(output.contains("Successfully reserved 2 Inception tickets."));
+    assertTrue(output.contains("Thank you for using GIC Cinemas system, Bye!"));
+    assertEquals(198, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testConnectionsShareCinema() throws Exception {
+    // Given clients that are all connected before any of them books
+    int clients = 40;
+    CountDownLatch connected = new CountDownLatch(clients);
+    ExecutorService pool = Executors.newFixedThreadPool(clients);
+    List<Future<String>> outputs = new ArrayList<>();
+    for (int i = 0; i < clients; i++) {
+      outputs.add(
+          pool.submit(
+              () -> {
+                connected.countDown();
+                connected.await();
+                return converse("1", "5", "", "3");
+              }));
+    }
+
+    // When each of them books five seats at once
+    List<String> results = new ArrayList<>();
+    for (Future<String> output : outputs) {
+      results.add(output.get(30, TimeUnit.SECONDS));
+    }
+    pool.shutdown();
+
+    // Then every seat is accounted for exactly once
+    for (String result : results) {
+      assertTrue(result.contains("Successfully reserved 5 Inception tickets."));
+    }
+    assertEquals(0, cinema.getAvailableSeatsCount());
+  }
+
+  @Test
+  void testSessionsDoNotWasteBookingIds() throws IOException {
+    // Given a client that is still choosing how many seats to book
+    try (Socket socket = connect()) {
+      OutputStream out = socket.getOutputStream();
+      out.write("1\n".getBytes(StandardCharsets.UTF_8));
+      out.flush();
+      InputStream in = socket.getInputStream();
+      readUntil(in, "Enter number of seats".getBytes(StandardCharsets.UTF_8));
+
+      // When another client books on its own connection, and then the first one books too
+      long other = bookingNumberOf(converse("1", "1", "", "3"));
+      out.write("1\n\n3\n".getBytes(StandardCharsets.UTF_8));
+      out.flush();
+      long own = bookingNumberOf(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+
+      // Then the sessions did not each claim a block of IDs
+      assertTrue(own != other);
+      assertTrue(Math.abs(own - other) < 16, "IDs " + own + " and " + other + " are far apart");
+    }
+  }
+
+  @Test
+  void testClientHangingUpDoesNotAffectOthers() throws Exception {
+    // Given a client that disconnects in the middle of booking
+    try (Socket socket = connect()) {
+      socket.getOutputStream().write("1\n".getBytes(StandardCharsets.UTF_8));
+      InputStream in = socket.getInputStream();
+      byte[] prompt = "Enter number of seats".getBytes(StandardCharsets.UTF_8);
+      readUntil(in, prompt);
+    }
+
+    // When another client books
+    String output = converse("1", "3", "", "3");
+
+    // Then
+    assertTrue(output.contains("Successfully reserved 3 Inception tickets."));
+    assertEquals(197, cinema.getAvailableSeatsCount());
+  }
+
+  private static long bookingNumberOf(String output) {
+    Matcher matcher = Pattern.compile("Booking id: GIC(\\d+)").matcher(output);
+    assertTrue(matcher.find(), output);
+    return Long.parseLong(matcher.group(1));
+  }
+
+  private static void readUntil(InputStream in, byte[] marker) throws IOException {
+    int matched = 0;
+    while (matched < marker.length) {
+      int b = in.read();
+      if (b < 0) throw new IOException("Connection closed before " + new String(marker));
+      matched = b == marker[matched] ? matched + 1 : (b == marker[0] ? 1 : 0);
+    }
+  }
+}